@@ -0,0 +1,89 @@
+package de.amr.games.pacman.controller;
+
+import static de.amr.games.pacman.model.common.Ghost.BLINKY;
+import static de.amr.games.pacman.model.common.Ghost.CLYDE;
+import static de.amr.games.pacman.model.common.Ghost.INKY;
+import static de.amr.games.pacman.model.common.Ghost.PINKY;
+
+import de.amr.games.pacman.lib.V2i;
+import de.amr.games.pacman.model.common.Ghost;
+import de.amr.games.pacman.model.pacman.PacManGame;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+//Time of the chasing targets of one tick with the original strategy, for swarms of chasing ghosts
+//spread over the original maze: one ghostHuntingTarget call per ghost against one setChasingTargets
+//call for all of them.
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class HuntingTargetsBenchmark {
+
+  @Param({"64", "256"})
+  public int ghosts;
+
+  private PacManGame game;
+  private OriginalHuntingStrategy strategy;
+  private final ChasingGhosts chasers = new ChasingGhosts();
+
+  @Setup
+  public void setup() {
+    game = new PacManGame();
+    game.setGhostCount(ghosts, BLINKY, PINKY, INKY, CLYDE);
+    game.reset();
+    game.resetGuys();
+    Random random = new Random(42);
+    Ghost blinky = game.ghosts[BLINKY];
+    List<V2i> tiles = game.currentLevel.world.tiles().filter(blinky::canAccessTile).collect(Collectors.toList());
+    for (Ghost ghost : game.ghosts) {
+      ghost.placeAt(tiles.get(random.nextInt(tiles.size())), 0, 0);
+    }
+    strategy = new OriginalHuntingStrategy(game);
+    //both paths must give the same targets
+    perGhost();
+    V2i[] expected = new V2i[ghosts];
+    for (Ghost ghost : game.ghosts) {
+      expected[ghost.id] = ghost.targetTile;
+    }
+    batched();
+    for (Ghost ghost : game.ghosts) {
+      if (!ghost.targetTile.equals(expected[ghost.id])) {
+        throw new IllegalStateException("Batched target of ghost " + ghost.id + " differs");
+      }
+    }
+  }
+
+  @Benchmark
+  public Ghost[] perGhost() {
+    strategy.update();
+    for (Ghost ghost : game.ghosts) {
+      ghost.targetTile = strategy.ghostHuntingTarget(ghost.id);
+    }
+    return game.ghosts;
+  }
+
+  @Benchmark
+  public Ghost[] batched() {
+    strategy.update();
+    chasers.clear(game.ghosts.length);
+    for (Ghost ghost : game.ghosts) {
+      chasers.add(ghost);
+    }
+    strategy.setChasingTargets(chasers);
+    return game.ghosts;
+  }
+}
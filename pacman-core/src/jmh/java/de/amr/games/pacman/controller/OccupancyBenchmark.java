@@ -0,0 +1,51 @@
+package de.amr.games.pacman.controller;
+
+import de.amr.games.pacman.controller.OccupancyHuntingStrategy.PropagationMode;
+import de.amr.games.pacman.lib.V2i;
+import de.amr.games.pacman.model.pacman.PacManGame;
+import de.amr.games.pacman.model.pacman.ProceduralPacManGame;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+//Time of one occupancy update (one ghostHuntingTarget call) for each propagation mode, on the
+//original Pac-Man maze (size 0) and on generated square mazes. Pac-Man stays in his home position
+//unseen, so the probability spreads over the maze during the run.
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class OccupancyBenchmark {
+
+  @Param({"DENSE", "SPARSE", "STENCIL"})
+  public PropagationMode mode;
+
+  @Param({"0", "128"})
+  public int size;
+
+  private OccupancyHuntingStrategy strategy;
+  private int ghostID;
+
+  @Setup
+  public void setup() {
+    PacManGame game = size == 0 ? new PacManGame() : new ProceduralPacManGame(size, size, 42);
+    game.reset();
+    game.resetGuys();
+    strategy = new OccupancyHuntingStrategy(game, mode);
+  }
+
+  @Benchmark
+  public V2i update() {
+    ghostID = (ghostID + 1) % 4;
+    return strategy.ghostHuntingTarget(ghostID);
+  }
+}
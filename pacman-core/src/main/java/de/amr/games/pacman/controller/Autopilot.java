@@ -78,6 +78,7 @@ public class Autopilot {
 		if (!game.player.stuck && !game.player.changedTile) {
 			return;
 		}
+		game.creatureGrid.update();
 		GameInfo data = collectData(game);
 		if (data.hunterAhead != null || data.hunterBehind != null || !data.frightenedGhosts.isEmpty()) {
 			log("\n%s", data);
@@ -103,6 +104,12 @@ public class Autopilot {
 			data.hunterBehind = hunterBehind;
 			data.hunterBehindDistance = game.player.tile().manhattanDistance(hunterBehind.tile());
 		}
+		if (!game.creatureGrid.anyGhostWithin(game.player.tileX(), game.player.tileY(), MAX_GHOST_CHASE_DIST,
+				GhostState.FRIGHTENED)) {
+			data.frightenedGhosts = List.of();
+			data.frightenedGhostsDistance = List.of();
+			return data;
+		}
 		data.frightenedGhosts = Stream.of(game.ghosts).filter(ghost -> ghost.is(GhostState.FRIGHTENED))
 				.filter(ghost -> ghost.tile().manhattanDistance(game.player.tile()) <= MAX_GHOST_CHASE_DIST)
 				.collect(Collectors.toList());
@@ -162,22 +169,27 @@ public class Autopilot {
 			}
 			V2i aheadLeft = ahead.plus(game.player.dir.turnLeft().vec),
 					aheadRight = ahead.plus(game.player.dir.turnRight().vec);
-			for (Ghost ghost : game.ghosts) {
-				if (ghost.state != GhostState.HUNTING_PAC) {
-					continue;
-				}
-				if (ghost.tile().equals(ahead) || ghost.tile().equals(aheadLeft) || ghost.tile().equals(aheadRight)) {
-					if (energizerFound) {
-						log("Ignore hunting ghost ahead, energizer comes first!");
-						return null;
-					}
-					return ghost;
+			Ghost ghost = lowerId(game.creatureGrid.ghostAt(ahead.x, ahead.y, GhostState.HUNTING_PAC),
+					lowerId(game.creatureGrid.ghostAt(aheadLeft.x, aheadLeft.y, GhostState.HUNTING_PAC),
+							game.creatureGrid.ghostAt(aheadRight.x, aheadRight.y, GhostState.HUNTING_PAC)));
+			if (ghost != null) {
+				if (energizerFound) {
+					log("Ignore hunting ghost ahead, energizer comes first!");
+					return null;
 				}
+				return ghost;
 			}
 		}
 		return null;
 	}
 
+	private static Ghost lowerId(Ghost ghost, Ghost other) {
+		if (ghost == null) {
+			return other;
+		}
+		return other == null || ghost.id < other.id ? ghost : other;
+	}
+
 	private Ghost findHuntingGhostBehind(AbstractGameModel game) {
 		V2i pacManTile = game.player.tile();
 		for (int i = 1; i <= MAX_GHOST_BEHIND_DETECTION_DIST; ++i) {
@@ -185,10 +197,9 @@ public class Autopilot {
 			if (!game.player.canAccessTile(behind)) {
 				break;
 			}
-			for (Ghost ghost : game.ghosts) {
-				if (ghost.state == GhostState.HUNTING_PAC && ghost.tile().equals(behind)) {
-					return ghost;
-				}
+			Ghost ghost = game.creatureGrid.ghostAt(behind.x, behind.y, GhostState.HUNTING_PAC);
+			if (ghost != null) {
+				return ghost;
 			}
 		}
 		return null;
@@ -0,0 +1,28 @@
+package de.amr.games.pacman.controller;
+
+import de.amr.games.pacman.model.common.Ghost;
+
+//The chasing ghosts of one tick, as parallel arrays of their IDs and personalities in the order of
+//the IDs. The controller collects them, the hunting strategy sets all their targets with one call.
+//Only primitives are stored, so filling the batch costs no reference stores, and the arrays only
+//grow, so a tick allocates nothing.
+class ChasingGhosts {
+  int count;
+  int[] ghostID = new int[0];
+  int[] personality = new int[0];
+
+  //Empties the batch and makes room for the given number of ghosts
+  void clear(int capacity) {
+    if (ghostID.length < capacity) {
+      ghostID = new int[capacity];
+      personality = new int[capacity];
+    }
+    count = 0;
+  }
+
+  void add(Ghost ghost) {
+    ghostID[count] = ghost.id;
+    personality[count] = ghost.personality;
+    count++;
+  }
+}
@@ -2,6 +2,7 @@ package de.amr.games.pacman.controller;
 
 import de.amr.games.pacman.lib.V2i;
 import de.amr.games.pacman.model.common.AbstractGameModel;
+import java.util.Map;
 
 public abstract class HuntingStrategy {
   protected AbstractGameModel gameModel;
@@ -10,5 +11,30 @@ public abstract class HuntingStrategy {
     this.gameModel = gameModel;
   }
 
+  //Called once per tick while hunting, before the ghost targets are requested
+  void update() {
+  }
+
   abstract V2i ghostHuntingTarget(int ghostID);
+
+  //Sets the targets of all chasing ghosts of a tick, by default one ghost after the other
+  void setChasingTargets(ChasingGhosts chasers) {
+    for (int i = 0; i < chasers.count; i++) {
+      gameModel.ghosts[chasers.ghostID[i]].targetTile = ghostHuntingTarget(chasers.ghostID[i]);
+    }
+  }
+
+  //More than the 4 original ghosts play in swarm mode
+  boolean swarmMode() {
+    return gameModel.ghosts.length > 4;
+  }
+
+  //Probability of Pac-Man being on each tile, null if the strategy does not track Pac-Man
+  Map<V2i, Double> occupancy() {
+    return null;
+  }
+
+  //Forget what is known about Pac-Man's position, e.g. when he has been killed
+  void reset() {
+  }
 }
@@ -21,6 +21,12 @@ public class IndividualsHuntingStrategy extends HuntingStrategy {
   private PacManGameWorld gameWorld;
   HashMap<V2i, Double> occupancy;
 
+  //In swarm mode, the occupancy is updated once per tick, when the first ghost asks for its target, and
+  //the most likely tile is shared by all ghosts, so the cost per tick does not grow with the ghosts
+  //squared. The 4 original ghosts update it for each ghost asking, as before.
+  private boolean occupancyUpdated;
+  private V2i mostLikelyTile;
+
   IndividualsHuntingStrategy(AbstractGameModel gameModel) {
     super(gameModel);
     this.occupancy = new HashMap<>();
@@ -46,8 +52,38 @@ public class IndividualsHuntingStrategy extends HuntingStrategy {
     ).forEach(tile -> occupancy.put(tile, startingProb));
   }
 
+  @Override
+  Map<V2i, Double> occupancy() {
+    return occupancy;
+  }
+
+  @Override
+  void reset() {
+    occupancy.clear();
+    occupancyUpdated = false;
+  }
+
+  @Override
+  void update() {
+    occupancyUpdated = false;
+  }
+
   @Override
   V2i ghostHuntingTarget(int ghostID) {
+    if (!swarmMode() || !occupancyUpdated) {
+      mostLikelyTile = updateOccupancy();
+      occupancyUpdated = true;
+    }
+    V2i target = mostLikelyTile;
+    //Pinky tries to pincer
+    if (gameModel.ghosts[ghostID].personality == PINKY) {
+      target = target.plus(gameModel.ghosts[ghostID].dir.vec.scaled(3));
+    }
+    return target;
+  }
+
+  //Returns the most likely tile for PacMan to be on
+  private V2i updateOccupancy() {
     //If the occupancy map has not been made or has been cleared re-initialize
     if (occupancy.size() == 0) {
       this.gameWorld = gameModel.currentLevel.getWorld();
@@ -80,12 +116,7 @@ public class IndividualsHuntingStrategy extends HuntingStrategy {
         .max((Map.Entry<V2i, Double> e1, Map.Entry<V2i, Double> e2) ->
             e1.getValue().compareTo(e2.getValue())
         );
-    V2i target = maxEntry.get().getKey();
-    //Pinky tries to pincer
-    if (ghostID == PINKY) {
-      target = target.plus(gameModel.ghosts[ghostID].dir.vec.scaled(3));
-    }
-    return target;
+    return maxEntry.get().getKey();
   }
 
   private void recalculateOccupancy(Set<V2i> seenTiles) {
@@ -153,17 +184,17 @@ public class IndividualsHuntingStrategy extends HuntingStrategy {
   private Set<V2i> getSeenTiles(Ghost ghost) {
     Set<V2i> seenTiles = new HashSet<>();
     V2i ghostTile = ghost.tile();
-    switch (ghost.id) {
+    switch (ghost.personality) {
       case INKY:
         for (int i = 0; i <= 8; i++) {
-          V2i aheadGhost = ghostTile.plus(gameModel.ghosts[ghost.id].dir.vec.scaled(i));
+          V2i aheadGhost = ghostTile.plus(ghost.dir.vec.scaled(i));
           seenTiles.add(aheadGhost);
         }
         break;
       case BLINKY:
       case PINKY:
         for (int i = 0; i <= 4; i++) {
-          V2i aheadGhost = ghostTile.plus(gameModel.ghosts[ghost.id].dir.vec.scaled(i));
+          V2i aheadGhost = ghostTile.plus(ghost.dir.vec.scaled(i));
           if (gameWorld.isWall(aheadGhost)) {
             break;
           }
@@ -171,8 +202,15 @@ public class IndividualsHuntingStrategy extends HuntingStrategy {
         }
         break;
       case CLYDE:
-        Stream<V2i> radiusTiles = gameWorld.tiles().filter(tile -> tile.euclideanDistance(ghostTile) <= 6);
-        radiusTiles.forEach(tile -> seenTiles.add(tile));
+        //Only the square around the circle, not the whole map
+        for (int y = ghostTile.y - 6; y <= ghostTile.y + 6; y++) {
+          for (int x = ghostTile.x - 6; x <= ghostTile.x + 6; x++) {
+            V2i tile = new V2i(x, y);
+            if (gameWorld.insideMap(tile) && tile.euclideanDistance(ghostTile) <= 6) {
+              seenTiles.add(tile);
+            }
+          }
+        }
         break;
     }
     return seenTiles;
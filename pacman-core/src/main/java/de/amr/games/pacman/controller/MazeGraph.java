@@ -0,0 +1,56 @@
+package de.amr.games.pacman.controller;
+
+import de.amr.games.pacman.lib.Direction;
+import de.amr.games.pacman.lib.V2i;
+import de.amr.games.pacman.model.world.PacManGameWorld;
+import java.util.Arrays;
+
+//The walkable tiles of a world as a graph for the strategies tracking Pac-Man in primitive arrays.
+//The tiles are numbered consecutively, and the neighbors of tile n (including the tile on the other
+//side of a portal) are adjacency[4 * n] to adjacency[4 * n + degree[n] - 1].
+class MazeGraph {
+
+  final PacManGameWorld world;
+  final V2i[] tiles;
+  final int[] adjacency;
+  final int[] degree;
+  private final int[] tileNumbers;
+
+  MazeGraph(PacManGameWorld world) {
+    this.world = world;
+    int cols = world.numCols();
+    tileNumbers = new int[cols * world.numRows()];
+    tiles = world.tiles().filter(this::isWalkable).toArray(V2i[]::new);
+    Arrays.fill(tileNumbers, -1);
+    for (int n = 0; n < tiles.length; n++) {
+      tileNumbers[world.index(tiles[n])] = n;
+    }
+    adjacency = new int[4 * tiles.length];
+    degree = new int[tiles.length];
+    for (int n = 0; n < tiles.length; n++) {
+      for (Direction dir : Direction.values()) {
+        V2i neighbor = tiles[n].plus(dir.vec);
+        if (world.isPortal(neighbor)) {
+          neighbor = new V2i(neighbor.x < 0 ? cols - 1 : 0, neighbor.y);
+        }
+        int neighborNumber = tileNumber(neighbor);
+        if (neighborNumber != -1) {
+          adjacency[4 * n + degree[n]++] = neighborNumber;
+        }
+      }
+    }
+  }
+
+  private boolean isWalkable(V2i tile) {
+    return world.insideMap(tile) && !world.isWall(tile) && !world.isGhostHouseDoor(tile);
+  }
+
+  int size() {
+    return tiles.length;
+  }
+
+  //Number of the tile or -1 if the tile is not walkable
+  int tileNumber(V2i tile) {
+    return world.insideMap(tile) ? tileNumbers[world.index(tile)] : -1;
+  }
+}
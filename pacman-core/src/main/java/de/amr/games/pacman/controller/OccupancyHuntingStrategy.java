@@ -1,26 +1,61 @@
 package de.amr.games.pacman.controller;
 
+import de.amr.games.pacman.lib.Direction;
 import de.amr.games.pacman.lib.V2i;
 import de.amr.games.pacman.model.common.AbstractGameModel;
 import de.amr.games.pacman.model.common.Ghost;
 import de.amr.games.pacman.model.world.PacManGameWorld;
-import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
 import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
 public class OccupancyHuntingStrategy extends HuntingStrategy {
+
+  //DENSE updates every walkable tile, SPARSE only the tiles with a non-negligible probability and
+  //their neighbors, STENCIL runs the dense update as a grid kernel (see OccupancyStencil),
+  //AUTO uses SPARSE for worlds larger than SPARSE_MIN_TILES walkable tiles
+  public enum PropagationMode {
+    AUTO, DENSE, SPARSE, STENCIL
+  }
+
+  static final int SPARSE_MIN_TILES = 2048;
+
+  //In sparse mode, probabilities below this fraction of the highest probability are dropped
+  static final double PRUNE_THRESHOLD = 1e-3;
+
   private PacManGameWorld gameWorld;
-  HashMap<V2i, Double> occupancy;
+  private final PropagationMode mode;
+  private boolean sparse;
+  private OccupancyStencil stencil;
+  Map<V2i, Double> occupancy;
+
+  //In swarm mode, the occupancy is updated once per tick, when the first ghost asks for its target, and
+  //the most likely tile is shared by all ghosts, so the cost per tick does not grow with the ghosts
+  //squared. The 4 original ghosts update it for each ghost asking, as before.
+  private boolean occupancyUpdated;
+  private V2i mostLikelyTile;
 
   OccupancyHuntingStrategy(AbstractGameModel gameModel) {
+    this(gameModel, PropagationMode.AUTO);
+  }
+
+  OccupancyHuntingStrategy(AbstractGameModel gameModel, PropagationMode mode) {
     super(gameModel);
+    this.mode = mode;
     this.occupancy = new HashMap<>();
   }
 
+  private boolean isWalkable(V2i tile) {
+    return gameWorld.insideMap(tile) && !gameWorld.isWall(tile) && !gameWorld.isGhostHouseDoor(tile);
+  }
+
   //Set occupancy to know where PacMan is at the start
   private void initOccupancy() {
     gameWorld.tiles().filter(
@@ -41,21 +76,63 @@ public class OccupancyHuntingStrategy extends HuntingStrategy {
     ).forEach(tile -> occupancy.put(tile, startingProb));
   }
 
+  @Override
+  Map<V2i, Double> occupancy() {
+    return occupancy;
+  }
+
+  @Override
+  void reset() {
+    occupancy.clear();
+    occupancyUpdated = false;
+  }
+
+  @Override
+  void update() {
+    occupancyUpdated = false;
+  }
+
   @Override
   V2i ghostHuntingTarget(int ghostID) {
+    if (!swarmMode() || !occupancyUpdated) {
+      mostLikelyTile = updateOccupancy(ghostID);
+      occupancyUpdated = true;
+    }
+    return mostLikelyTile;
+  }
+
+  //Returns the most likely tile for PacMan to be on
+  private V2i updateOccupancy(int ghostID) {
     //If the occupancy map has not been made or has been cleared re-initialize
     if (occupancy.size() == 0) {
       this.gameWorld = gameModel.currentLevel.getWorld();
-      initOccupancy();
+      sparse = mode == PropagationMode.SPARSE
+          || mode == PropagationMode.AUTO && gameWorld.tiles().filter(this::isWalkable).count() > SPARSE_MIN_TILES;
+      if (mode == PropagationMode.STENCIL) {
+        if (stencil == null || stencil.world() != gameWorld) {
+          stencil = new OccupancyStencil(gameWorld);
+        }
+        stencil.reset(gameModel.player.tile());
+        occupancy = stencil.asMap();
+      } else if (sparse) {
+        //All tiles not contained in the map have probability 0
+        occupancy.put(gameModel.player.tile(), 1.0);
+      } else {
+        initOccupancy();
+      }
     }
 
     //Get all tiles seen by the ghosts
-    List<V2i> seenTiles = new ArrayList<>();
+    //A set, as with many ghosts the same tiles are seen many times
+    Set<V2i> seenTiles = new LinkedHashSet<>();
     V2i pacTile = gameModel.player.tile();
     for (Ghost ghost : gameModel.ghosts) {
       V2i ghostTile = ghost.tile();
+      //In swarm mode each ghost looks in its own direction, the original ghosts all look in the
+      //direction of the ghost asking
+      Direction lookDir = swarmMode() ? ghost.dir : gameModel.ghosts[ghostID].dir;
       for (int i = 0; i <= 8; i++) {
-        V2i aheadGhost = ghostTile.plus(gameModel.ghosts[ghostID].dir.vec.scaled(i));
+        V2i aheadGhost = ghostTile.plus(lookDir.vec.scaled(i));
         //If this tile is a wall seen tiles does not continue
         if (gameWorld.isWall(aheadGhost)) {
           break;
@@ -64,8 +141,20 @@ public class OccupancyHuntingStrategy extends HuntingStrategy {
       }
     }
 
+    if (stencil != null) {
+      if (seenTiles.contains(pacTile)) {
+        stencil.reset(pacTile);
+      } else {
+        stencil.step(seenTiles);
+      }
+      return stencil.mostLikelyTile();
+    }
+
     //If a ghost can see PacMan set that position to a 1
-    if (seenTiles.contains(pacTile)) {
+    if (seenTiles.contains(pacTile) && sparse) {
+      occupancy.clear();
+      occupancy.put(pacTile, 1.0);
+    } else if (seenTiles.contains(pacTile)) {
       for (V2i tile : occupancy.keySet()) {
         if (tile.equals(pacTile)) {
           occupancy.replace(tile, 1.0);
@@ -73,6 +162,8 @@ public class OccupancyHuntingStrategy extends HuntingStrategy {
           occupancy.replace(tile, 0.0);
         }
       }
+    } else if (sparse) {
+      recalculateSparseOccupancy(seenTiles);
     } else {
       //Else disperse current probabilities based on seen tiles
       recalculateOccupancy(seenTiles);
@@ -88,7 +179,7 @@ public class OccupancyHuntingStrategy extends HuntingStrategy {
     return target;
   }
 
-  private void recalculateOccupancy(List<V2i> seenTiles) {
+  private void recalculateOccupancy(Set<V2i> seenTiles) {
     Double amountWiped = 0.0;
 
     //Remove occupancy from seen tiles
@@ -148,6 +239,58 @@ public class OccupancyHuntingStrategy extends HuntingStrategy {
     }
   }
 
+  //Sparse version of recalculateOccupancy: only the active tiles (the tiles in the occupancy map)
+  //and their neighbors are visited, so the cost depends on the uncertainty, not on the world size.
+  //All active tiles disperse at the same time, and instead of spreading the wiped probability
+  //evenly, the pruned map is renormalized to a total probability of 1.
+  private void recalculateSparseOccupancy(Set<V2i> seen) {
+    HashMap<V2i, Double> next = new HashMap<>(2 * occupancy.size());
+
+    for (Map.Entry<V2i, Double> tileOccupancy : occupancy.entrySet()) {
+      V2i tile = tileOccupancy.getKey();
+      double occupancyValue = tileOccupancy.getValue();
+      List<V2i> validNeighbors = gameWorld.neighborTiles(tile)
+          .filter(neighbor -> isWalkable(neighbor) && !seen.contains(neighbor))
+          .collect(Collectors.toList());
+      if (seen.contains(tile)) {
+        //Move all of a seen tile's probability to its non seen neighbors, or wipe it
+        validNeighbors.forEach(neighbor -> next.merge(neighbor, occupancyValue / validNeighbors.size(), Double::sum));
+      } else {
+        //Disperse 10% to the neighbors
+        double dispersion = validNeighbors.isEmpty() ? 0 : occupancyValue * .1;
+        next.merge(tile, occupancyValue - dispersion, Double::sum);
+        validNeighbors.forEach(neighbor -> next.merge(neighbor, dispersion / validNeighbors.size(), Double::sum));
+      }
+    }
+
+    //Prune negligible probabilities and renormalize
+    double max = next.values().stream().mapToDouble(Double::doubleValue).max().orElse(0);
+    next.values().removeIf(value -> value < max * PRUNE_THRESHOLD);
+    double total = next.values().stream().mapToDouble(Double::doubleValue).sum();
+    if (total <= 0) {
+      //Everything has been wiped, Pac-Man is still near the tiles he could have been on, so the
+      //probability is spread evenly over them and their neighbors which have not been seen
+      Set<V2i> support = new HashSet<>();
+      for (V2i tile : occupancy.keySet()) {
+        if (!seen.contains(tile)) {
+          support.add(tile);
+        }
+        gameWorld.neighborTiles(tile).filter(neighbor -> isWalkable(neighbor) && !seen.contains(neighbor))
+            .forEach(support::add);
+      }
+      if (support.isEmpty()) {
+        support.addAll(occupancy.keySet());
+      }
+      double probability = 1.0 / support.size();
+      next.clear();
+      support.forEach(tile -> next.put(tile, probability));
+      occupancy = next;
+      return;
+    }
+    next.replaceAll((tile, value) -> value / total);
+    occupancy = next;
+  }
+
   private void modifyTileOccupancy(V2i tile, double amount) {
     double originalOccupancy = occupancy.get(tile);
     double newOccupancy = originalOccupancy + amount;
@@ -0,0 +1,220 @@
+package de.amr.games.pacman.controller;
+
+import de.amr.games.pacman.lib.V2i;
+import de.amr.games.pacman.model.world.PacManGameWorld;
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+
+//Occupancy propagation of OccupancyHuntingStrategy as a stencil over a double-buffered, row-major
+//grid. The grid has a border of one tile on each side, so the kernel loops need no bounds checks,
+//and all per tile decisions are expressed as arithmetic on 0/1 masks, so the loops have no branches
+//and can be auto-vectorized by the JIT compiler.
+class OccupancyStencil {
+
+  private final PacManGameWorld world;
+  private final int width;
+  private final int length;
+  private final int[] walkableIndices;
+
+  //1 for walkable tiles, 0 for walls, doors and the border
+  private final double[] walkable;
+  //Number of walkable neighbors of each tile
+  private final double[] neighborCount;
+
+  //Per step: walkable and not seen, number of such neighbors, amount given to each of them
+  private final double[] open;
+  private final double[] count;
+  private final double[] share;
+
+  private double[] current;
+  private double[] next;
+  private boolean initialized;
+  private final Map<V2i, Double> view = new OccupancyView();
+
+  OccupancyStencil(PacManGameWorld world) {
+    this.world = world;
+    width = world.numCols() + 2;
+    length = width * (world.numRows() + 2);
+    walkable = new double[length];
+    neighborCount = new double[length];
+    open = new double[length];
+    count = new double[length];
+    share = new double[length];
+    current = new double[length];
+    next = new double[length];
+    walkableIndices = world.tiles()
+        .filter(tile -> !world.isWall(tile) && !world.isGhostHouseDoor(tile))
+        .mapToInt(this::index)
+        .toArray();
+    for (int i : walkableIndices) {
+      walkable[i] = 1;
+    }
+    for (int i = width; i < length - width; i++) {
+      neighborCount[i] = walkable[i - 1] + walkable[i + 1] + walkable[i - width] + walkable[i + width];
+    }
+  }
+
+  PacManGameWorld world() {
+    return world;
+  }
+
+  //Read-only map view of the probabilities of all walkable tiles. Clearing the view resets the
+  //stencil like clearing the occupancy map resets the other propagation modes.
+  Map<V2i, Double> asMap() {
+    return view;
+  }
+
+  boolean isInitialized() {
+    return initialized;
+  }
+
+  private int index(V2i tile) {
+    return (tile.y + 1) * width + tile.x + 1;
+  }
+
+  private V2i tile(int index) {
+    return new V2i(index % width - 1, index / width - 1);
+  }
+
+  //Pac-Man is known to be at the given tile
+  void reset(V2i pacTile) {
+    Arrays.fill(current, 0);
+    if (world.insideMap(pacTile) && walkable[index(pacTile)] == 1) {
+      current[index(pacTile)] = 1;
+    } else {
+      distribute(current);
+    }
+    initialized = true;
+  }
+
+  //Distribute occupancy equally
+  private void distribute(double[] grid) {
+    for (int i = 0; i < length; i++) {
+      grid[i] = walkable[i] / walkableIndices.length;
+    }
+  }
+
+  //Same rules as OccupancyHuntingStrategy.recalculateOccupancy: a seen tile gives all of its
+  //probability to its non seen neighbors, every other tile gives 10%. All tiles disperse at the
+  //same time, and the wiped probability is redistributed by renormalizing the grid.
+  void step(Collection<V2i> seenTiles) {
+    System.arraycopy(walkable, 0, open, 0, length);
+    System.arraycopy(neighborCount, 0, count, 0, length);
+    for (V2i seenTile : seenTiles) {
+      if (!world.insideMap(seenTile)) {
+        continue;
+      }
+      int i = index(seenTile);
+      if (open[i] == 0) {
+        continue;
+      }
+      open[i] = 0;
+      count[i - 1]--;
+      count[i + 1]--;
+      count[i - width]--;
+      count[i + width]--;
+    }
+
+    double[] in = current, out = next;
+    for (int i = 0; i < length; i++) {
+      share[i] = in[i] * (1.0 - 0.9 * open[i]) / Math.max(count[i], 1.0);
+    }
+    for (int i = width; i < length - width; i++) {
+      double kept = in[i] * (1.0 - 0.1 * Math.min(count[i], 1.0));
+      out[i] = open[i] * (kept + share[i - 1] + share[i + 1] + share[i - width] + share[i + width]);
+    }
+
+    double total = 0;
+    for (int i = 0; i < length; i++) {
+      total += out[i];
+    }
+    if (total > 0) {
+      double scale = 1.0 / total;
+      for (int i = 0; i < length; i++) {
+        out[i] *= scale;
+      }
+    } else {
+      //Everything has been wiped, Pac-Man could be anywhere
+      distribute(out);
+    }
+    current = out;
+    next = in;
+  }
+
+  V2i mostLikelyTile() {
+    int best = walkableIndices[0];
+    for (int i : walkableIndices) {
+      if (current[i] > current[best]) {
+        best = i;
+      }
+    }
+    return tile(best);
+  }
+
+  private class OccupancyView extends AbstractMap<V2i, Double> {
+
+    @Override
+    public int size() {
+      return initialized ? walkableIndices.length : 0;
+    }
+
+    @Override
+    public void clear() {
+      initialized = false;
+    }
+
+    @Override
+    public Double get(Object key) {
+      if (!initialized || !(key instanceof V2i) || !world.insideMap((V2i) key)) {
+        return null;
+      }
+      int i = index((V2i) key);
+      return walkable[i] == 1 ? current[i] : null;
+    }
+
+    @Override
+    public boolean containsKey(Object key) {
+      return get(key) != null;
+    }
+
+    @Override
+    public Set<Entry<V2i, Double>> entrySet() {
+      return new AbstractSet<>() {
+
+        @Override
+        public int size() {
+          return OccupancyView.this.size();
+        }
+
+        @Override
+        public Iterator<Entry<V2i, Double>> iterator() {
+          double[] grid = current;
+          int n = size();
+          return new Iterator<>() {
+            private int k;
+
+            @Override
+            public boolean hasNext() {
+              return k < n;
+            }
+
+            @Override
+            public Entry<V2i, Double> next() {
+              if (k == n) {
+                throw new NoSuchElementException();
+              }
+              int i = walkableIndices[k++];
+              return new SimpleImmutableEntry<>(tile(i), grid[i]);
+            }
+          };
+        }
+      };
+    }
+  }
+}
@@ -8,41 +8,55 @@ import static de.amr.games.pacman.model.common.Ghost.PINKY;
 import de.amr.games.pacman.lib.Direction;
 import de.amr.games.pacman.lib.V2i;
 import de.amr.games.pacman.model.common.AbstractGameModel;
+import de.amr.games.pacman.model.common.Ghost;
 
 public class OriginalHuntingStrategy extends HuntingStrategy {
 
+  //The targets only depend on Pac-Man (and Blinky for Inky), so they are computed once per tick
+  //and shared by all ghosts with the same personality
+  private V2i playerTile;
+  private V2i pinkyTarget;
+  private V2i inkyTarget;
+
   OriginalHuntingStrategy(AbstractGameModel gameModel) {
     super(gameModel);
   }
 
+  @Override
+  void update() {
+    playerTile = gameModel.player.tile();
+    pinkyTarget = playerTile.plus(gameModel.player.dir.vec.scaled(4));
+    if (gameModel.player.dir == Direction.UP) {
+      // simulate overflow bug
+      pinkyTarget = pinkyTarget.plus(-4, 0);
+    }
+    V2i twoAheadPlayer = playerTile.plus(gameModel.player.dir.vec.scaled(2));
+    if (gameModel.player.dir == Direction.UP) {
+      // simulate overflow bug
+      twoAheadPlayer = twoAheadPlayer.plus(-2, 0);
+    }
+    inkyTarget = twoAheadPlayer.scaled(2).minus(gameModel.ghosts[BLINKY].tile());
+  }
+
   @Override
   public V2i ghostHuntingTarget(int ghostID) {
-    V2i playerTile = gameModel.player.tile();
-    switch (ghostID) {
+    if (playerTile == null) {
+      update();
+    }
+    Ghost ghost = gameModel.ghosts[ghostID];
+    switch (ghost.personality) {
 
       case BLINKY:
         return playerTile;
 
-      case PINKY: {
-        V2i target = playerTile.plus(gameModel.player.dir.vec.scaled(4));
-        if (gameModel.player.dir == Direction.UP) {
-          // simulate overflow bug
-          target = target.plus(-4, 0);
-        }
-        return target;
-      }
+      case PINKY:
+        return pinkyTarget;
 
-      case INKY: {
-        V2i twoAheadPlayer = playerTile.plus(gameModel.player.dir.vec.scaled(2));
-        if (gameModel.player.dir == Direction.UP) {
-          // simulate overflow bug
-          twoAheadPlayer = twoAheadPlayer.plus(-2, 0);
-        }
-        return twoAheadPlayer.scaled(2).minus(gameModel.ghosts[BLINKY].tile());
-      }
+      case INKY:
+        return inkyTarget;
 
       case CLYDE: /* A Boy Named Sue */
-        return gameModel.ghosts[CLYDE].tile().euclideanDistance(playerTile) < 8
+        return ghost.tile().euclideanDistance(playerTile) < 8
             ? gameModel.currentLevel.world.ghostScatterTile(CLYDE)
             : playerTile;
 
@@ -50,4 +64,39 @@ public class OriginalHuntingStrategy extends HuntingStrategy {
         throw new IllegalArgumentException("Unknown ghost, id: " + ghostID);
     }
   }
+
+  //One pass over the chasing ghosts: the targets are shared, only Clyde's distance to Pac-Man is
+  //computed per ghost, on the tile coordinates
+  @Override
+  void setChasingTargets(ChasingGhosts chasers) {
+    if (playerTile == null) {
+      update();
+    }
+    V2i clydeScatterTile = gameModel.currentLevel.world.ghostScatterTile(CLYDE);
+    for (int i = 0; i < chasers.count; i++) {
+      Ghost ghost = gameModel.ghosts[chasers.ghostID[i]];
+      switch (chasers.personality[i]) {
+
+        case BLINKY:
+          ghost.targetTile = playerTile;
+          break;
+
+        case PINKY:
+          ghost.targetTile = pinkyTarget;
+          break;
+
+        case INKY:
+          ghost.targetTile = inkyTarget;
+          break;
+
+        case CLYDE:
+          int dx = ghost.tileX() - playerTile.x, dy = ghost.tileY() - playerTile.y;
+          ghost.targetTile = dx * dx + dy * dy < 8 * 8 ? clydeScatterTile : playerTile;
+          break;
+
+        default:
+          throw new IllegalArgumentException("Unknown ghost, id: " + chasers.ghostID[i]);
+      }
+    }
+  }
 }
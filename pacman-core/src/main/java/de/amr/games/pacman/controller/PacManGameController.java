@@ -13,6 +13,8 @@ import static de.amr.games.pacman.lib.Logging.log;
 import static de.amr.games.pacman.model.common.GameVariant.INDIVIDUALS;
 import static de.amr.games.pacman.model.common.GameVariant.MS_PACMAN;
 import static de.amr.games.pacman.model.common.GameVariant.PACMAN;
+import static de.amr.games.pacman.model.common.GameVariant.PARTICLES;
+import static de.amr.games.pacman.model.common.GameVariant.RADIO;
 import static de.amr.games.pacman.model.common.GameVariant.OCCUPANCY;
 import static de.amr.games.pacman.model.common.Ghost.BLINKY;
 import static de.amr.games.pacman.model.common.Ghost.CLYDE;
@@ -25,14 +27,11 @@ import static de.amr.games.pacman.model.common.GhostState.HUNTING_PAC;
 import static de.amr.games.pacman.model.common.GhostState.LEAVING_HOUSE;
 import static de.amr.games.pacman.model.common.GhostState.LOCKED;
 
-import java.util.ArrayList;
-import java.util.HashMap;
-import java.util.List;
+import java.io.File;
+import java.nio.file.Paths;
 import java.util.Map;
-import java.util.Optional;
-import java.util.Random;
-import java.util.stream.Stream;
 
+import de.amr.games.pacman.controller.OccupancyHuntingStrategy.PropagationMode;
 import de.amr.games.pacman.controller.event.BonusActivatedEvent;
 import de.amr.games.pacman.controller.event.BonusEatenEvent;
 import de.amr.games.pacman.controller.event.DeadGhostCountChangeEvent;
@@ -40,20 +39,28 @@ import de.amr.games.pacman.controller.event.ExtraLifeEvent;
 import de.amr.games.pacman.controller.event.PacManFoundFoodEvent;
 import de.amr.games.pacman.controller.event.PacManGainsPowerEvent;
 import de.amr.games.pacman.controller.event.PacManGameEvent;
+import de.amr.games.pacman.controller.event.PacManGameEventBus;
 import de.amr.games.pacman.controller.event.PacManGameEventListener;
 import de.amr.games.pacman.controller.event.PacManGameStateChangedEvent;
 import de.amr.games.pacman.controller.event.PacManLostPowerEvent;
 import de.amr.games.pacman.controller.event.ScatterPhaseStartedEvent;
 import de.amr.games.pacman.lib.Direction;
 import de.amr.games.pacman.lib.FiniteStateMachine;
+import de.amr.games.pacman.lib.GameRandom;
+import de.amr.games.pacman.lib.HiscoreStore;
+import de.amr.games.pacman.lib.TimerWheel;
 import de.amr.games.pacman.lib.V2i;
 import de.amr.games.pacman.model.common.AbstractGameModel;
+import de.amr.games.pacman.model.common.CreatureGrid;
 import de.amr.games.pacman.model.common.GameVariant;
 import de.amr.games.pacman.model.common.Ghost;
+import de.amr.games.pacman.model.common.GhostState;
+import de.amr.games.pacman.model.common.GhostStateIndex;
 import de.amr.games.pacman.model.common.Pac;
 import de.amr.games.pacman.model.mspacman.MsPacManGame;
 import de.amr.games.pacman.model.pacman.PacManBonus;
 import de.amr.games.pacman.model.pacman.PacManGame;
+import de.amr.games.pacman.model.world.PacManGameWorld;
 import de.amr.games.pacman.ui.PacManGameUI;
 
 /**
@@ -96,12 +103,33 @@ public class PacManGameController extends FiniteStateMachine<PacManGameState> {
 
 	private static final Map<Integer, Integer> INTERMISSION_NUMBER_BY_LEVEL = Map.of(2, 1, 5, 2, 9, 3, 13, 3, 17, 3);
 
-	private final AbstractGameModel[] gameModels = new AbstractGameModel[4];
+	private final AbstractGameModel[] gameModels = new AbstractGameModel[GameVariant.values().length];
 	{
 		gameModels[MS_PACMAN.ordinal()] = new MsPacManGame();
 		gameModels[PACMAN.ordinal()] = new PacManGame();
 		gameModels[OCCUPANCY.ordinal()] = new PacManGame();
 		gameModels[INDIVIDUALS.ordinal()] = new PacManGame();
+		gameModels[PARTICLES.ordinal()] = new PacManGame();
+		gameModels[RADIO.ordinal()] = new PacManGame();
+	}
+
+	/**
+	 * Hiscores of all game variants, one leaderboard per variant, or {@code null} if no hiscores are
+	 * recorded, e.g. in headless runs. See {@link #useDefaultHiscores()}.
+	 */
+	public HiscoreStore hiscores;
+
+	/**
+	 * Records the hiscores in the file given by the system property {@code pacman.hiscores}, by
+	 * default in the user's home directory, and imports the hiscores of the legacy hiscore files.
+	 */
+	public void useDefaultHiscores() {
+		File dir = new File(System.getProperty("user.home"));
+		String path = System.getProperty("pacman.hiscores", new File(dir, "pacman-hiscores.dat").getPath());
+		hiscores = HiscoreStore.open(Paths.get(path));
+		for (GameVariant variant : GameVariant.values()) {
+			hiscores.importLegacyHiscore(variant.name(), new File(dir, gameModels[variant.ordinal()].highscoreFileName));
+		}
 	}
 
 	private GameVariant gameVariant;
@@ -113,35 +141,90 @@ public class PacManGameController extends FiniteStateMachine<PacManGameState> {
 	private boolean playerImmune;
 	private int huntingPhase;
 	private HuntingStrategy huntingStrategy;
+	private final ChasingGhosts chasingGhosts = new ChasingGhosts();
 
 	public PacManGameUI userInterface;
 	public final Autopilot autopilot = new Autopilot();
 
-	private final List<PacManGameEventListener> gameEventListeners = new ArrayList<>();
+	/** How the occupancy strategy propagates Pac-Man's position probabilities. */
+	public PropagationMode occupancyPropagationMode = PropagationMode.AUTO;
+
+	/** Number of particles used by the particle filter strategy, more particles cost more CPU time. */
+	public int particleCount = ParticleFilterHuntingStrategy.DEFAULT_PARTICLES;
+
+	/** Ticks until a ghost's radio message reaches the other ghosts. */
+	public int radioLatency = RadioHuntingStrategy.DEFAULT_LATENCY;
+
+	/** Number of seen tiles a ghost can receive per tick. */
+	public int radioBandwidth = RadioHuntingStrategy.DEFAULT_BANDWIDTH;
+
+	/** Ticks between merges of the ghosts' beliefs, 0 means never. */
+	public int radioMergeInterval = RadioHuntingStrategy.DEFAULT_MERGE_INTERVAL;
+
+	/** Number of ghosts, more than 4 ghosts play in swarm mode. */
+	public int ghostCount = 4;
+
+	/** Personalities of the swarm ghosts (the ghosts after the original four), repeated as needed. */
+	public int[] swarmPersonalities = { BLINKY, PINKY, INKY, CLYDE };
+
+	public final PacManGameEventBus eventBus = new PacManGameEventBus();
+
+	/**
+	 * Events without payload are immutable and only depend on the game variant, so one instance per
+	 * variant is created upfront and reused each time the event is fired. Pac-Man finding food
+	 * happens on every pellet, for example.
+	 */
+	private static class ReusableEvents {
+
+		final PacManFoundFoodEvent foundFood;
+		final PacManGainsPowerEvent gainsPower;
+		final PacManLostPowerEvent lostPower;
+		final BonusActivatedEvent bonusActivated;
+		final BonusEatenEvent bonusEaten;
+		final ExtraLifeEvent extraLife;
+
+		ReusableEvents(GameVariant variant, AbstractGameModel game) {
+			foundFood = new PacManFoundFoodEvent(variant, game);
+			gainsPower = new PacManGainsPowerEvent(variant, game);
+			lostPower = new PacManLostPowerEvent(variant, game);
+			bonusActivated = new BonusActivatedEvent(variant, game);
+			bonusEaten = new BonusEatenEvent(variant, game);
+			extraLife = new ExtraLifeEvent(variant, game);
+		}
+	}
+
+	private final ReusableEvents[] reusableEvents = new ReusableEvents[GameVariant.values().length];
+	{
+		for (GameVariant variant : GameVariant.values()) {
+			reusableEvents[variant.ordinal()] = new ReusableEvents(variant, gameModels[variant.ordinal()]);
+		}
+	}
+
+	private ReusableEvents events() {
+		return reusableEvents[gameVariant.ordinal()];
+	}
 
 	public void addGameEventListener(PacManGameEventListener listener) {
-		gameEventListeners.add(listener);
-		log("Added game event listener %s, num listeners=%d", listener, gameEventListeners.size());
+		eventBus.subscribe(listener);
+		log("Added game event listener %s, num subscriptions=%d", listener, eventBus.numSubscriptions());
 	}
 
 	public void removeGameEventListener(PacManGameEventListener listener) {
-		gameEventListeners.remove(listener);
-		log("Removed game event listener %s, num listeners=%d", listener, gameEventListeners.size());
+		eventBus.unsubscribe(listener);
+		log("Removed game event listener %s, num subscriptions=%d", listener, eventBus.numSubscriptions());
 	}
 
 	public void fireGameEvent(PacManGameEvent gameEvent) {
-		gameEventListeners.forEach(listener -> listener.onGameEvent(gameEvent));
+		eventBus.publish(gameEvent);
 	}
 
 	@Override
 	protected void fireStateChange(PacManGameState oldState, PacManGameState newState) {
-
-		gameEventListeners.forEach(listener -> listener
-				.onGameEvent(new PacManGameStateChangedEvent(gameVariant, gameModel, oldState, newState)));
+		eventBus.publish(new PacManGameStateChangedEvent(gameVariant, gameModel, oldState, newState));
 	}
 
 	public PacManGameController() {
-		super(PacManGameState.class, PacManGameState.values());
+		super(PacManGameState.class, PacManGameState.values(), new TimerWheel());
 		configure(INTRO, this::enterIntroState, this::updateIntroState, null);
 		configure(READY, this::enterReadyState, this::updateReadyState, null);
 		configure(HUNTING, this::enterHuntingState, this::updateHuntingState, null);
@@ -167,11 +250,16 @@ public class PacManGameController extends FiniteStateMachine<PacManGameState> {
 	public void play(GameVariant variant) {
 		gameVariant = variant;
 		gameModel = gameModels[gameVariant.ordinal()];
+		gameModel.setGhostCount(ghostCount, swarmPersonalities);
 		//Set hunting strategy based on variant
 		if (gameVariant.equals(OCCUPANCY)) {
-			huntingStrategy = new OccupancyHuntingStrategy(gameModel);
+			huntingStrategy = new OccupancyHuntingStrategy(gameModel, occupancyPropagationMode);
 		} else if (gameVariant.equals(INDIVIDUALS)) {
 			huntingStrategy = new IndividualsHuntingStrategy(gameModel);
+		} else if (gameVariant.equals(PARTICLES)) {
+			huntingStrategy = new ParticleFilterHuntingStrategy(gameModel, particleCount, GameRandom.get().nextLong());
+		} else if (gameVariant.equals(RADIO)) {
+			huntingStrategy = new RadioHuntingStrategy(gameModel, radioLatency, radioBandwidth, radioMergeInterval);
 		} else {
 			huntingStrategy = new OriginalHuntingStrategy(gameModel);
 		}
@@ -194,6 +282,18 @@ public class PacManGameController extends FiniteStateMachine<PacManGameState> {
 		return gameModels[gameVariant.ordinal()];
 	}
 
+	/**
+	 * Replaces the game model of the given variant, e.g. by a game in a procedurally generated world
+	 * for headless runs. Takes effect when the variant is played next time.
+	 * 
+	 * @param variant game variant
+	 * @param game    game model
+	 */
+	public void setGameModel(GameVariant variant, AbstractGameModel game) {
+		gameModels[variant.ordinal()] = game;
+		reusableEvents[variant.ordinal()] = new ReusableEvents(variant, game);
+	}
+
 	public boolean isAttractMode() {
 		return attractMode;
 	}
@@ -227,6 +327,9 @@ public class PacManGameController extends FiniteStateMachine<PacManGameState> {
 	private void enterIntroState() {
 		stateTimer().reset();
 		gameModel.reset();
+		HiscoreStore.Entry hiscore = hiscores != null ? hiscores.best(gameVariant.name()) : null;
+		gameModel.highscorePoints = hiscore != null ? hiscore.points : 0;
+		gameModel.highscoreLevel = hiscore != null ? hiscore.level : 1;
 		gameRequested = false;
 		gameRunning = false;
 		attractMode = false;
@@ -282,8 +385,13 @@ public class PacManGameController extends FiniteStateMachine<PacManGameState> {
 		}
 	}
 
+	public int huntingPhase() {
+		return huntingPhase;
+	}
+
 	public boolean isScatteringPhase(int phase) {
-		if (gameVariant == OCCUPANCY || gameVariant == INDIVIDUALS) {
+		if (gameVariant == OCCUPANCY || gameVariant == INDIVIDUALS || gameVariant == PARTICLES
+				|| gameVariant == RADIO) {
 			return false;
 		}
 		return phase % 2 == 0;
@@ -295,9 +403,14 @@ public class PacManGameController extends FiniteStateMachine<PacManGameState> {
 
 	private void updateHuntingState() {
 		final Pac player = gameModel.player;
+		final CreatureGrid grid = gameModel.creatureGrid;
+		final GhostStateIndex ghostStates = gameModel.ghostStateIndex;
 		int deadGhostCount, newDeadGhostCount;
 		int preyCount;
 
+		// one pass over all creatures: ghost state counters and tile occupancy
+		ghostStates.capture(grid);
+
 		// Is level complete?
 		if (gameModel.currentLevel.foodRemaining == 0) {
 			changeState(LEVEL_COMPLETE);
@@ -305,11 +418,17 @@ public class PacManGameController extends FiniteStateMachine<PacManGameState> {
 		}
 
 		// Is player killing ghost(s)?
-		deadGhostCount = (int) gameModel.ghosts(DEAD).count();
-		preyCount = (int) gameModel.ghosts(FRIGHTENED).filter(player::meets).count();
+		deadGhostCount = ghostStates.count(DEAD);
+		preyCount = 0;
+		int px = player.tileX(), py = player.tileY();
+		for (int slot = grid.nextAt(px, py, 1); slot != -1; slot = grid.nextAt(px, py, slot + 1)) {
+			if (ghostStates.is(slot, FRIGHTENED)) {
+				killGhost(ghostStates.ghost(slot));
+				++preyCount;
+			}
+		}
 		if (preyCount > 0) {
-			gameModel.ghosts(FRIGHTENED).filter(player::meets).forEach(this::killGhost);
-			newDeadGhostCount = (int) gameModel.ghosts(DEAD).count();
+			newDeadGhostCount = deadGhostCount + preyCount;
 			fireGameEvent(new DeadGhostCountChangeEvent(gameVariant, gameModel, deadGhostCount, newDeadGhostCount));
 			changeState(GHOST_DYING);
 			return;
@@ -317,9 +436,9 @@ public class PacManGameController extends FiniteStateMachine<PacManGameState> {
 
 		// Is player getting killed by any ghost?
 		if (!playerImmune || attractMode) {
-			Optional<Ghost> killer = gameModel.ghosts(HUNTING_PAC).filter(player::meets).findAny();
-			if (killer.isPresent()) {
-				log("%s got killed by %s at tile %s", player.name, killer.get().name, player.tile());
+			Ghost killer = grid.ghostMeeting(player, HUNTING_PAC);
+			if (killer != null) {
+				log("%s got killed by %s at tile %s", player.name, killer.name, player.tile());
 				player.dead = true;
 				// Elroy mode gets disabled when player gets killed
 				if (gameModel.ghosts[BLINKY].elroy > 0) {
@@ -336,7 +455,11 @@ public class PacManGameController extends FiniteStateMachine<PacManGameState> {
 
 		// Is hunting phase (chasing, scattering) complete?
 		if (stateTimer().hasExpired()) {
-			gameModel.ghosts(HUNTING_PAC).forEach(Ghost::forceTurningBack);
+			for (int slot = 1; slot < ghostStates.size; ++slot) {
+				if (ghostStates.is(slot, HUNTING_PAC)) {
+					ghostStates.ghost(slot).forceTurningBack();
+				}
+			}
 			startHuntingPhase(++huntingPhase);
 			return;
 		}
@@ -362,19 +485,30 @@ public class PacManGameController extends FiniteStateMachine<PacManGameState> {
 			player.powerTimer.tick();
 		} else if (player.powerTimer.hasExpired()) {
 			log("%s lost power", player.name);
-			gameModel.ghosts(FRIGHTENED).forEach(ghost -> ghost.state = HUNTING_PAC);
+			for (int slot = 1; slot < ghostStates.size; ++slot) {
+				if (ghostStates.is(slot, FRIGHTENED)) {
+					setGhostState(ghostStates.ghost(slot), HUNTING_PAC);
+				}
+			}
 			player.powerTimer.reset();
 			// start HUNTING state timer again
 			stateTimer().start();
-			fireGameEvent(new PacManLostPowerEvent(gameVariant, gameModel));
+			fireGameEvent(events().lostPower);
 		}
 
 		// Update ghosts
 		tryReleasingGhosts();
-		gameModel.ghosts(HUNTING_PAC).forEach(this::setGhostHuntingTarget);
-		deadGhostCount = (int) gameModel.ghosts(DEAD).count();
-		gameModel.ghosts().forEach(ghost -> ghost.update(gameModel.currentLevel));
-		newDeadGhostCount = (int) gameModel.ghosts(DEAD).count();
+		huntingStrategy.update();
+		setGhostHuntingTargets(ghostStates);
+		deadGhostCount = ghostStates.count(DEAD);
+		for (int slot = 1; slot < ghostStates.size; ++slot) {
+			Ghost ghost = ghostStates.ghost(slot);
+			ghost.update(gameModel.currentLevel);
+			if (ghost.state.ordinal() != ghostStates.state[slot]) {
+				ghostStates.stateChanged(slot);
+			}
+		}
+		newDeadGhostCount = ghostStates.count(DEAD);
 		if (newDeadGhostCount != deadGhostCount) {
 			fireGameEvent(new DeadGhostCountChangeEvent(gameVariant, gameModel, deadGhostCount, newDeadGhostCount));
 		}
@@ -386,7 +520,7 @@ public class PacManGameController extends FiniteStateMachine<PacManGameState> {
 			log("Pac-Man found bonus (%s) of value %d", gameModel.bonusNames[bonus.symbol], bonus.points);
 			bonus.eatAndDisplayValue(2 * 60);
 			score(bonus.points);
-			fireGameEvent(new BonusEatenEvent(gameVariant, gameModel));
+			fireGameEvent(events().bonusEaten);
 		}
 	}
 
@@ -399,10 +533,7 @@ public class PacManGameController extends FiniteStateMachine<PacManGameState> {
 
 	private void updatePacManDyingState() {
 		if (stateTimer().hasExpired()) {
-			HashMap<V2i, Double> occMap = getOccupancy();
-			if (occMap != null) {
-				occMap.clear();
-			}
+			huntingStrategy.reset();
 			gameModel.ghosts().forEach(ghost -> ghost.visible = true);
 			changeState(attractMode ? INTRO : --gameModel.lives > 0 ? READY : GAME_OVER);
 			return;
@@ -463,7 +594,11 @@ public class PacManGameController extends FiniteStateMachine<PacManGameState> {
 		gameRunning = false;
 		gameModel.ghosts().forEach(ghost -> ghost.speed = 0);
 		gameModel.player.speed = 0;
-		gameModel.saveHighscore();
+		if (hiscores != null && gameModel.score > 0
+				&& hiscores.add(gameVariant.name(), gameModel.score, gameModel.currentLevelNumber)) {
+			log("Score entered the %s leaderboard: %d points in level %d", gameVariant, gameModel.score,
+					gameModel.currentLevelNumber);
+		}
 		stateTimer().resetSeconds(10);
 	}
 
@@ -499,7 +634,7 @@ public class PacManGameController extends FiniteStateMachine<PacManGameState> {
 		if (oldscore < 10000 && gameModel.score >= 10000) {
 			gameModel.lives++;
 			log("Extra life. Player has %d lives now", gameModel.lives);
-			fireGameEvent(new ExtraLifeEvent(gameVariant, gameModel));
+			fireGameEvent(events().extraLife);
 		}
 	}
 
@@ -530,15 +665,19 @@ public class PacManGameController extends FiniteStateMachine<PacManGameState> {
 				// stop HUNTING state timer while player has power
 				stateTimer().stop();
 				log("%s timer stopped", state);
-				gameModel.ghosts(HUNTING_PAC).forEach(ghost -> {
-					ghost.state = FRIGHTENED;
-					ghost.wishDir = ghost.dir.opposite();
-					ghost.forcedDirection = true;
-				});
+				final GhostStateIndex ghostStates = gameModel.ghostStateIndex;
+				for (int slot = 1; slot < ghostStates.size; ++slot) {
+					if (ghostStates.is(slot, HUNTING_PAC)) {
+						Ghost ghost = ghostStates.ghost(slot);
+						setGhostState(ghost, FRIGHTENED);
+						ghost.wishDir = ghost.dir.opposite();
+						ghost.forcedDirection = true;
+					}
+				}
 				player.powerTimer.resetSeconds(powerSeconds);
 				player.powerTimer.start();
 				log("%s got power for %d seconds", player.name, powerSeconds);
-				fireGameEvent(new PacManGainsPowerEvent(gameVariant, gameModel));
+				fireGameEvent(events().gainsPower);
 			}
 		} else {
 			player.starvingTicks = 0;
@@ -552,9 +691,9 @@ public class PacManGameController extends FiniteStateMachine<PacManGameState> {
 			bonus.visible = true;
 			bonus.symbol = gameModel.currentLevel.bonusSymbol;
 			bonus.points = gameModel.bonusValues[gameModel.currentLevel.bonusSymbol];
-			bonus.activate(isPlaying(PACMAN) ? (long) ((9 + new Random().nextFloat()) * 60) : Long.MAX_VALUE);
+			bonus.activate(isPlaying(PACMAN) ? (long) ((9 + GameRandom.get().nextFloat()) * 60) : Long.MAX_VALUE);
 			log("Bonus %s (value %d) activated", gameModel.bonusNames[bonus.symbol], bonus.points);
-			fireGameEvent(new BonusActivatedEvent(gameVariant, gameModel));
+			fireGameEvent(events().bonusActivated);
 		}
 
 		// Blinky becomes Elroy?
@@ -567,13 +706,22 @@ public class PacManGameController extends FiniteStateMachine<PacManGameState> {
 		}
 
 		updateGhostDotCounters();
-		fireGameEvent(new PacManFoundFoodEvent(gameVariant, gameModel));
+		fireGameEvent(events().foundFood);
 	}
 
 	// Ghosts
 
+	/*
+	 * State changes of the ghosts while hunting go through here, so the ghost state counters of the
+	 * ghost state index stay correct during the tick.
+	 */
+	private void setGhostState(Ghost ghost, GhostState newState) {
+		ghost.state = newState;
+		gameModel.ghostStateIndex.stateChanged(GhostStateIndex.slot(ghost));
+	}
+
 	private void killGhost(Ghost ghost) {
-		ghost.state = DEAD;
+		setGhostState(ghost, DEAD);
 		ghost.targetTile = gameModel.currentLevel.world.houseEntry();
 		ghost.bounty = gameModel.ghostBounty;
 		score(ghost.bounty);
@@ -584,19 +732,37 @@ public class PacManGameController extends FiniteStateMachine<PacManGameState> {
 		log("Ghost %s killed at tile %s, Pac-Man wins %d points", ghost.name, ghost.tile(), ghost.bounty);
 	}
 
-	private void setGhostHuntingTarget(Ghost ghost) {
+	/*
+	 * Sets the targets of all hunting ghosts in one pass. The scattering ghosts get their scatter
+	 * tiles here, the chasing ghosts are collected in a batch and get their targets from one call of
+	 * the hunting strategy.
+	 */
+	private void setGhostHuntingTargets(GhostStateIndex ghostStates) {
 		/*
 		 * In Ms. Pac-Man, Blinky and Pinky move randomly during the *first* scatter
 		 * phase. Some say, the origial intention had been to randomize the scatter
 		 * target of *all* ghosts in Ms. Pac-Man but because of a bug, only the scatter
 		 * target of Blinky and Pinky would have been affected. Who knows?
 		 */
-		if (isPlaying(MS_PACMAN) && huntingPhase == 0 && (ghost.id == BLINKY || ghost.id == PINKY)) {
-			ghost.targetTile = null;
-		} else if (isScatteringPhase(huntingPhase) && ghost.elroy == 0) {
-			ghost.targetTile = gameModel.currentLevel.world.ghostScatterTile(ghost.id);
-		} else {
-			ghost.targetTile = this.huntingStrategy.ghostHuntingTarget(ghost.id);
+		final boolean randomFirstScatter = isPlaying(MS_PACMAN) && huntingPhase == 0;
+		final boolean scattering = isScatteringPhase(huntingPhase);
+		final PacManGameWorld world = gameModel.currentLevel.world;
+		final ChasingGhosts chasers = chasingGhosts;
+		chasers.clear(ghostStates.size);
+		for (int slot = 1; slot < ghostStates.size; ++slot) {
+			if (ghostStates.is(slot, HUNTING_PAC)) {
+				Ghost ghost = ghostStates.ghost(slot);
+				if (randomFirstScatter && (ghost.personality == BLINKY || ghost.personality == PINKY)) {
+					ghost.targetTile = null;
+				} else if (scattering && ghost.elroy == 0) {
+					ghost.targetTile = world.ghostScatterTile(ghost.personality);
+				} else {
+					chasers.add(ghost);
+				}
+			}
+		}
+		if (chasers.count > 0) {
+			huntingStrategy.setChasingTargets(chasers);
 		}
 	}
 
@@ -607,7 +773,9 @@ public class PacManGameController extends FiniteStateMachine<PacManGameState> {
 	}
 
 	private static int ghostPrivateDotLimit(int ghostID, int levelNumber) {
-		if (ghostID == INKY) {
+		if (ghostID > CLYDE) {
+			return SWARM_GHOST_DOT_LIMIT;
+		} else if (ghostID == INKY) {
 			return levelNumber == 1 ? 30 : 0;
 		} else if (ghostID == CLYDE) {
 			return levelNumber == 1 ? 60 : levelNumber == 2 ? 50 : 0;
@@ -616,15 +784,22 @@ public class PacManGameController extends FiniteStateMachine<PacManGameState> {
 		}
 	}
 
+	/*
+	 * Swarm ghosts leave the house one after the other after Clyde, each one when Pac-Man has eaten
+	 * this many pellets since the previous one left (or when Pac-Man is starving).
+	 */
+	private static final int SWARM_GHOST_DOT_LIMIT = 2;
+
 	private static int ghostGlobalDotLimit(int ghostID) {
 		return ghostID == PINKY ? 7 : ghostID == INKY ? 17 : Integer.MAX_VALUE;
 	}
 
 	private void tryReleasingGhosts() {
 		if (gameModel.ghosts[BLINKY].is(LOCKED)) {
-			gameModel.ghosts[BLINKY].state = HUNTING_PAC;
+			setGhostState(gameModel.ghosts[BLINKY], HUNTING_PAC);
 		}
-		preferredLockedGhostInHouse().ifPresent(ghost -> {
+		Ghost ghost = preferredLockedGhostInHouse();
+		if (ghost != null) {
 			if (gameModel.globalDotCounterEnabled && gameModel.globalDotCounter >= ghostGlobalDotLimit(ghost.id)) {
 				releaseGhost(ghost, "Global dot counter (%d) reached limit (%d)", gameModel.globalDotCounter,
 						ghostGlobalDotLimit(ghost.id));
@@ -637,11 +812,11 @@ public class PacManGameController extends FiniteStateMachine<PacManGameState> {
 						gameModel.player.starvingTicks);
 				gameModel.player.starvingTicks = 0;
 			}
-		});
+		}
 	}
 
 	private void releaseGhost(Ghost ghost, String reason, Object... args) {
-		ghost.state = LEAVING_HOUSE;
+		setGhostState(ghost, LEAVING_HOUSE);
 		if (ghost.id == CLYDE && gameModel.ghosts[BLINKY].elroy < 0) {
 			gameModel.ghosts[BLINKY].elroy -= 1; // resume Elroy mode
 			log("Blinky Elroy mode %d resumed", gameModel.ghosts[BLINKY].elroy);
@@ -649,9 +824,14 @@ public class PacManGameController extends FiniteStateMachine<PacManGameState> {
 		log("Ghost %s released: %s", ghost.name, String.format(reason, args));
 	}
 
-	private Optional<Ghost> preferredLockedGhostInHouse() {
-		return Stream.of(PINKY, INKY, CLYDE).map(id -> gameModel.ghosts[id]).filter(ghost -> ghost.is(LOCKED))
-				.findFirst();
+	private Ghost preferredLockedGhostInHouse() {
+		// Pinky, Inky, Clyde, then the swarm ghosts
+		for (int id = PINKY; id < gameModel.ghosts.length; ++id) {
+			if (gameModel.ghosts[id].is(LOCKED)) {
+				return gameModel.ghosts[id];
+			}
+		}
+		return null;
 	}
 
 	private void updateGhostDotCounters() {
@@ -664,17 +844,18 @@ public class PacManGameController extends FiniteStateMachine<PacManGameState> {
 				++gameModel.globalDotCounter;
 			}
 		} else {
-			preferredLockedGhostInHouse().ifPresent(ghost -> ++ghost.dotCounter);
+			Ghost ghost = preferredLockedGhostInHouse();
+			if (ghost != null) {
+				++ghost.dotCounter;
+			}
 		}
 	}
 
-	public HashMap<V2i, Double> getOccupancy() {
-		if (huntingStrategy instanceof OccupancyHuntingStrategy) {
-			return ((OccupancyHuntingStrategy) huntingStrategy).occupancy;
-		} else if (huntingStrategy instanceof IndividualsHuntingStrategy) {
-			return ((IndividualsHuntingStrategy) huntingStrategy).occupancy;
-		} else {
-			return null;
-		}
+	/**
+	 * @return probability of Pac-Man being on each tile as estimated by the ghosts or {@code null} if
+	 *         the hunting strategy does not track Pac-Man
+	 */
+	public Map<V2i, Double> getOccupancy() {
+		return huntingStrategy.occupancy();
 	}
 }
\ No newline at end of file
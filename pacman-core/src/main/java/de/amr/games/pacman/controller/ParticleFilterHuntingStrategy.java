@@ -0,0 +1,236 @@
+package de.amr.games.pacman.controller;
+
+import de.amr.games.pacman.lib.V2i;
+import de.amr.games.pacman.model.common.AbstractGameModel;
+import de.amr.games.pacman.model.common.Ghost;
+import de.amr.games.pacman.model.world.PacManGameWorld;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.stream.IntStream;
+
+//Tracks Pac-Man with a particle filter: each particle is a guess of Pac-Man's tile. In each update,
+//the particles move randomly along the maze graph, particles on tiles seen by a ghost are dropped
+//and the survivors are resampled. The ghosts hunt the tile with the most particles.
+public class ParticleFilterHuntingStrategy extends HuntingStrategy {
+
+  public static final int DEFAULT_PARTICLES = 4096;
+
+  //Above this number of particles, the particles are moved and weighted on the fork-join pool
+  static final int PARALLEL_THRESHOLD = 8192;
+
+  //Each chunk of particles has its own random generator, so the result does not depend on
+  //whether and how the chunks are processed in parallel
+  private static final int CHUNK_SIZE = 2048;
+
+  //Same expected spread as the 10% dispersion of the occupancy map
+  private static final double MOVE_PROBABILITY = .1;
+
+  private final int numParticles;
+  private final SplittableRandom rnd;
+  private final SplittableRandom[] chunkRnds;
+
+  private boolean initialized;
+
+  //The particles store tile numbers of this graph
+  private MazeGraph graph;
+  private boolean[] seen;
+  private int[] seenList;
+
+  private int[] particles;
+  private int[] resampled;
+  private final double[] weights;
+  private int[] counts;
+  private Map<V2i, Double> belief;
+
+  //In swarm mode, the particles are updated once per tick, when the first ghost asks for its target,
+  //and the most likely tile is shared by all ghosts, so the cost per tick does not grow with the
+  //ghosts squared. The 4 original ghosts update them for each ghost asking, as before.
+  private boolean particlesUpdated;
+  private V2i mostLikelyTile;
+
+  ParticleFilterHuntingStrategy(AbstractGameModel gameModel, int numParticles, long seed) {
+    super(gameModel);
+    if (numParticles < 1) {
+      throw new IllegalArgumentException("Number of particles must be positive but is " + numParticles);
+    }
+    this.numParticles = numParticles;
+    rnd = new SplittableRandom(seed);
+    chunkRnds = new SplittableRandom[(numParticles + CHUNK_SIZE - 1) / CHUNK_SIZE];
+    for (int chunk = 0; chunk < chunkRnds.length; chunk++) {
+      chunkRnds[chunk] = rnd.split();
+    }
+    particles = new int[numParticles];
+    resampled = new int[numParticles];
+    weights = new double[numParticles];
+  }
+
+  public int numParticles() {
+    return numParticles;
+  }
+
+  @Override
+  Map<V2i, Double> occupancy() {
+    if (!initialized) {
+      return null;
+    }
+    //The belief map is only created when someone wants to see it
+    if (belief == null) {
+      Map<V2i, Double> map = new HashMap<>();
+      for (int n = 0; n < graph.size(); n++) {
+        if (counts[n] > 0) {
+          map.put(graph.tiles[n], (double) counts[n] / numParticles);
+        }
+      }
+      belief = map;
+    }
+    return belief;
+  }
+
+  @Override
+  void reset() {
+    initialized = false;
+    particlesUpdated = false;
+  }
+
+  @Override
+  void update() {
+    particlesUpdated = false;
+  }
+
+  @Override
+  V2i ghostHuntingTarget(int ghostID) {
+    if (!swarmMode() || !particlesUpdated) {
+      mostLikelyTile = updateParticles();
+      particlesUpdated = true;
+    }
+    return mostLikelyTile;
+  }
+
+  private V2i updateParticles() {
+    if (!initialized) {
+      PacManGameWorld world = gameModel.currentLevel.getWorld();
+      if (graph == null || graph.world != world) {
+        graph = new MazeGraph(world);
+        seen = new boolean[graph.size()];
+        counts = new int[graph.size()];
+      }
+      int pacNumber = graph.tileNumber(gameModel.player.tile());
+      if (pacNumber != -1) {
+        Arrays.fill(particles, pacNumber);
+      } else {
+        scatter();
+      }
+      initialized = true;
+    }
+
+    int numSeen = markSeenTiles();
+    int pacNumber = graph.tileNumber(gameModel.player.tile());
+    if (pacNumber != -1 && seen[pacNumber]) {
+      //A ghost sees Pac-Man
+      Arrays.fill(particles, pacNumber);
+    } else {
+      if (numParticles > PARALLEL_THRESHOLD) {
+        IntStream.range(0, chunkRnds.length).parallel().forEach(this::moveAndWeigh);
+      } else {
+        for (int chunk = 0; chunk < chunkRnds.length; chunk++) {
+          moveAndWeigh(chunk);
+        }
+      }
+      resample();
+    }
+    for (int i = 0; i < numSeen; i++) {
+      seen[seenList[i]] = false;
+    }
+    return graph.tiles[countParticles()];
+  }
+
+  //Marks the tiles up to 8 tiles ahead of each ghost, stopping at walls
+  private int markSeenTiles() {
+    if (seenList == null || seenList.length < 9 * gameModel.ghosts.length) {
+      seenList = new int[9 * gameModel.ghosts.length];
+    }
+    int numSeen = 0;
+    for (Ghost ghost : gameModel.ghosts) {
+      V2i ghostTile = ghost.tile();
+      for (int i = 0; i <= 8; i++) {
+        V2i aheadGhost = ghostTile.plus(ghost.dir.vec.scaled(i));
+        if (graph.world.isWall(aheadGhost)) {
+          break;
+        }
+        int n = graph.tileNumber(aheadGhost);
+        if (n != -1 && !seen[n]) {
+          seen[n] = true;
+          seenList[numSeen++] = n;
+        }
+      }
+    }
+    return numSeen;
+  }
+
+  private void moveAndWeigh(int chunk) {
+    SplittableRandom chunkRnd = chunkRnds[chunk];
+    int end = Math.min(numParticles, (chunk + 1) * CHUNK_SIZE);
+    for (int i = chunk * CHUNK_SIZE; i < end; i++) {
+      int p = particles[i];
+      if (graph.degree[p] > 0 && chunkRnd.nextDouble() < MOVE_PROBABILITY) {
+        p = graph.adjacency[4 * p + chunkRnd.nextInt(graph.degree[p])];
+        particles[i] = p;
+      }
+      //Pac-Man is not on a seen tile
+      weights[i] = seen[p] ? 0 : 1;
+    }
+  }
+
+  //Systematic resampling: survivors are copied in proportion to their weights
+  private void resample() {
+    double total = 0;
+    for (int i = 0; i < numParticles; i++) {
+      total += weights[i];
+    }
+    if (total == 0) {
+      //All particles have been seen, Pac-Man could be anywhere else
+      scatter();
+      return;
+    }
+    double step = total / numParticles;
+    double u = rnd.nextDouble() * step;
+    double cumulative = weights[0];
+    int j = 0;
+    for (int i = 0; i < numParticles; i++, u += step) {
+      while (u > cumulative && j < numParticles - 1) {
+        cumulative += weights[++j];
+      }
+      resampled[i] = particles[j];
+    }
+    int[] swap = particles;
+    particles = resampled;
+    resampled = swap;
+  }
+
+  private void scatter() {
+    for (int i = 0; i < numParticles; i++) {
+      int n = rnd.nextInt(graph.size());
+      //Try to avoid seen tiles, but do not loop forever
+      for (int attempt = 0; seen[n] && attempt < 10; attempt++) {
+        n = rnd.nextInt(graph.size());
+      }
+      particles[i] = n;
+    }
+  }
+
+  //Counts the particles per tile and returns the tile number with the most particles
+  private int countParticles() {
+    Arrays.fill(counts, 0);
+    int best = particles[0];
+    for (int i = 0; i < numParticles; i++) {
+      int p = particles[i];
+      if (++counts[p] > counts[best]) {
+        best = p;
+      }
+    }
+    belief = null;
+    return best;
+  }
+}
@@ -0,0 +1,353 @@
+package de.amr.games.pacman.controller;
+
+import de.amr.games.pacman.lib.V2i;
+import de.amr.games.pacman.model.common.AbstractGameModel;
+import de.amr.games.pacman.model.common.Ghost;
+import de.amr.games.pacman.model.world.PacManGameWorld;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+//Each ghost has its own belief of Pac-Man's position and only knows what it has seen itself or has
+//been told by the others. After each update, a ghost radios the tiles it has seen (and whether
+//Pac-Man was there) to the other ghosts. Messages arrive after a latency, and each ghost can only
+//receive a limited number of tiles per tick. Periodically, the ghosts merge their beliefs.
+//
+//The per ghost updates only touch the ghost's own arrays and run concurrently on a small worker
+//pool. Messages are sent and beliefs merged afterwards on the game thread, so the result does not
+//depend on the scheduling of the workers. All messages go to one log in the order they are sent,
+//each ghost reads the log from its own position on and skips its own messages. So sending costs
+//the same for any number of ghosts instead of one copy per receiver.
+public class RadioHuntingStrategy extends HuntingStrategy {
+
+  public static final int DEFAULT_LATENCY = 30;
+  public static final int DEFAULT_BANDWIDTH = 16;
+  public static final int DEFAULT_MERGE_INTERVAL = 120;
+
+  //Share of the common belief each ghost takes over when merging
+  private static final double MERGE_WEIGHT = .5;
+
+  private static final ExecutorService WORKERS = Executors.newFixedThreadPool(4, runnable -> {
+    Thread thread = new Thread(runnable, "Ghost belief worker");
+    thread.setDaemon(true);
+    return thread;
+  });
+
+  //What a ghost saw in some tick
+  private static class Message {
+    final int senderID;
+    final long deliveryTick;
+    final int[] seenTiles;
+    final int pacTile;
+
+    Message(int senderID, long deliveryTick, int[] seenTiles, int pacTile) {
+      this.senderID = senderID;
+      this.deliveryTick = deliveryTick;
+      this.seenTiles = seenTiles;
+      this.pacTile = pacTile;
+    }
+  }
+
+  private class GhostBelief implements Callable<Void> {
+    final int ghostID;
+    double[] belief;
+    double[] next;
+    final boolean[] seen;
+    final int[] seenTiles = new int[9];
+    int numSeen;
+    int pacTile;
+    int target;
+    //Sequence number of the next message in the log this ghost reads
+    long nextMessage;
+
+    GhostBelief(int ghostID, int startTile) {
+      this.ghostID = ghostID;
+      belief = new double[graph.size()];
+      next = new double[graph.size()];
+      seen = new boolean[graph.size()];
+      locate(startTile);
+    }
+
+    @Override
+    public Void call() {
+      receive();
+      observe();
+      if (pacTile != -1) {
+        locate(pacTile);
+      } else {
+        disperse();
+      }
+      target = mostLikelyTile(belief);
+      return null;
+    }
+
+    private void locate(int tile) {
+      if (tile == -1) {
+        uniform(belief);
+      } else {
+        Arrays.fill(belief, 0);
+        belief[tile] = 1;
+      }
+    }
+
+    //Reads as many due messages as the bandwidth allows, at least one per tick
+    private void receive() {
+      int budget = bandwidth;
+      while (budget > 0 && nextMessage < logEnd() && message(nextMessage).deliveryTick <= tick) {
+        Message message = message(nextMessage++);
+        if (message.senderID == ghostID) {
+          continue;
+        }
+        budget -= Math.max(1, message.seenTiles.length);
+        if (message.pacTile != -1) {
+          //Old news, but better than nothing
+          locate(message.pacTile);
+        } else {
+          for (int tile : message.seenTiles) {
+            belief[tile] = 0;
+          }
+          normalize(belief);
+        }
+      }
+    }
+
+    //Tiles up to 8 tiles ahead of the ghost, stopping at walls
+    private void observe() {
+      for (int i = 0; i < numSeen; i++) {
+        seen[seenTiles[i]] = false;
+      }
+      numSeen = 0;
+      pacTile = -1;
+      Ghost ghost = gameModel.ghosts[ghostID];
+      V2i ghostTile = ghost.tile();
+      int pac = graph.tileNumber(gameModel.player.tile());
+      for (int i = 0; i <= 8; i++) {
+        V2i aheadGhost = ghostTile.plus(ghost.dir.vec.scaled(i));
+        if (graph.world.isWall(aheadGhost)) {
+          break;
+        }
+        int n = graph.tileNumber(aheadGhost);
+        if (n != -1 && !seen[n]) {
+          seen[n] = true;
+          seenTiles[numSeen++] = n;
+          if (n == pac) {
+            pacTile = n;
+          }
+        }
+      }
+    }
+
+    //Same rules as the occupancy map: a seen tile gives all of its probability to its non seen
+    //neighbors, every other tile gives 10%
+    private void disperse() {
+      Arrays.fill(next, 0);
+      for (int n = 0; n < belief.length; n++) {
+        double value = belief[n];
+        if (value == 0) {
+          continue;
+        }
+        int validNeighbors = 0;
+        for (int k = 0; k < graph.degree[n]; k++) {
+          if (!seen[graph.adjacency[4 * n + k]]) {
+            validNeighbors++;
+          }
+        }
+        double given = validNeighbors == 0 ? 0 : seen[n] ? value : value * .1;
+        if (!seen[n]) {
+          next[n] += value - given;
+        }
+        for (int k = 0; k < graph.degree[n]; k++) {
+          int neighbor = graph.adjacency[4 * n + k];
+          if (!seen[neighbor]) {
+            next[neighbor] += given / validNeighbors;
+          }
+        }
+      }
+      double[] swap = belief;
+      belief = next;
+      next = swap;
+      normalize(belief);
+    }
+  }
+
+  private final int latency;
+  private final int bandwidth;
+  private final int mergeInterval;
+
+  private MazeGraph graph;
+  private GhostBelief[] ghostBeliefs;
+  private boolean initialized;
+  private long tick;
+  private Map<V2i, Double> commonBelief;
+
+  //The messages not read by all ghosts yet, the first one has sequence number logStart
+  private final List<Message> log = new ArrayList<>();
+  private long logStart;
+
+  //latency in ticks, bandwidth in tiles per tick and ghost, merge interval in ticks (0 = never)
+  RadioHuntingStrategy(AbstractGameModel gameModel, int latency, int bandwidth, int mergeInterval) {
+    super(gameModel);
+    if (latency < 0 || bandwidth < 1 || mergeInterval < 0) {
+      throw new IllegalArgumentException(String.format(
+          "Illegal radio model: latency %d, bandwidth %d, merge interval %d", latency, bandwidth, mergeInterval));
+    }
+    this.latency = latency;
+    this.bandwidth = bandwidth;
+    this.mergeInterval = mergeInterval;
+  }
+
+  private void init() {
+    PacManGameWorld world = gameModel.currentLevel.getWorld();
+    if (graph == null || graph.world != world) {
+      graph = new MazeGraph(world);
+    }
+    int pacTile = graph.tileNumber(gameModel.player.tile());
+    log.clear();
+    logStart = 0;
+    ghostBeliefs = new GhostBelief[gameModel.ghosts.length];
+    for (int id = 0; id < ghostBeliefs.length; id++) {
+      ghostBeliefs[id] = new GhostBelief(id, pacTile);
+      ghostBeliefs[id].target = mostLikelyTile(ghostBeliefs[id].belief);
+    }
+    tick = 0;
+    initialized = true;
+  }
+
+  @Override
+  void update() {
+    if (!initialized) {
+      init();
+    }
+    try {
+      for (Future<Void> result : WORKERS.invokeAll(Arrays.asList(ghostBeliefs))) {
+        result.get();
+      }
+    } catch (InterruptedException x) {
+      Thread.currentThread().interrupt();
+      throw new IllegalStateException("Ghost belief update interrupted", x);
+    } catch (ExecutionException x) {
+      throw new IllegalStateException("Ghost belief update failed", x.getCause());
+    }
+    broadcast();
+    if (mergeInterval > 0 && tick % mergeInterval == mergeInterval - 1) {
+      merge();
+    }
+    commonBelief = null;
+    tick++;
+  }
+
+  private void broadcast() {
+    for (GhostBelief sender : ghostBeliefs) {
+      if (sender.numSeen == 0) {
+        continue;
+      }
+      log.add(new Message(sender.ghostID, tick + latency, Arrays.copyOf(sender.seenTiles, sender.numSeen),
+          sender.pacTile));
+    }
+    //Drop the messages read by all ghosts, once they are half of the log
+    long read = logEnd();
+    for (GhostBelief ghostBelief : ghostBeliefs) {
+      read = Math.min(read, ghostBelief.nextMessage);
+    }
+    if (read - logStart > log.size() / 2) {
+      log.subList(0, (int) (read - logStart)).clear();
+      logStart = read;
+    }
+  }
+
+  private long logEnd() {
+    return logStart + log.size();
+  }
+
+  private Message message(long sequenceNumber) {
+    return log.get((int) (sequenceNumber - logStart));
+  }
+
+  private void merge() {
+    double[] mean = mean();
+    for (GhostBelief ghostBelief : ghostBeliefs) {
+      for (int n = 0; n < mean.length; n++) {
+        ghostBelief.belief[n] = (1 - MERGE_WEIGHT) * ghostBelief.belief[n] + MERGE_WEIGHT * mean[n];
+      }
+      ghostBelief.target = mostLikelyTile(ghostBelief.belief);
+    }
+  }
+
+  private double[] mean() {
+    double[] mean = new double[graph.size()];
+    for (GhostBelief ghostBelief : ghostBeliefs) {
+      for (int n = 0; n < mean.length; n++) {
+        mean[n] += ghostBelief.belief[n] / ghostBeliefs.length;
+      }
+    }
+    return mean;
+  }
+
+  @Override
+  V2i ghostHuntingTarget(int ghostID) {
+    if (!initialized) {
+      update();
+    }
+    return graph.tiles[ghostBeliefs[ghostID].target];
+  }
+
+  //The mean of the ghosts' beliefs
+  @Override
+  Map<V2i, Double> occupancy() {
+    if (!initialized) {
+      return null;
+    }
+    if (commonBelief == null) {
+      double[] mean = mean();
+      Map<V2i, Double> map = new HashMap<>();
+      for (int n = 0; n < mean.length; n++) {
+        if (mean[n] > 0) {
+          map.put(graph.tiles[n], mean[n]);
+        }
+      }
+      commonBelief = map;
+    }
+    return commonBelief;
+  }
+
+  @Override
+  void reset() {
+    initialized = false;
+  }
+
+  private void normalize(double[] values) {
+    double total = 0;
+    for (double value : values) {
+      total += value;
+    }
+    if (total == 0) {
+      //Everything has been wiped, Pac-Man could be anywhere
+      uniform(values);
+    } else {
+      for (int n = 0; n < values.length; n++) {
+        values[n] /= total;
+      }
+    }
+  }
+
+  private void uniform(double[] values) {
+    Arrays.fill(values, 1.0 / values.length);
+  }
+
+  private static int mostLikelyTile(double[] values) {
+    int best = 0;
+    for (int n = 1; n < values.length; n++) {
+      if (values[n] > values[best]) {
+        best = n;
+      }
+    }
+    return best;
+  }
+}
@@ -0,0 +1,278 @@
+package de.amr.games.pacman.controller.event;
+
+import static de.amr.games.pacman.lib.Logging.log;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.LockSupport;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+
+import de.amr.games.pacman.controller.PacManGameController;
+import de.amr.games.pacman.lib.RingBuffer;
+
+/**
+ * Delivers game events to a consumer running in its own thread.
+ * <p>
+ * Subscribe the sink at the controller's event bus instead of the slow consumer itself (statistics
+ * writers, replay recorders, network spectators). Publishing an event then only copies it into a
+ * {@link GameEventSnapshot} and enqueues the snapshot into a bounded lock-free ring buffer, so the
+ * consumer never stalls the simulation tick. The consumer only gets the snapshots, never the events
+ * themselves, because events reference the live game model and may be reused by the controller.
+ * <p>
+ * What happens if the consumer cannot keep up and the queue is full is decided by the
+ * {@link OverflowPolicy}. Events published while the sink is not running are dropped and counted.
+ */
+public class AsyncGameEventSink implements PacManGameEventListener {
+
+	public enum OverflowPolicy {
+		/** The new event is dropped. */
+		DROP,
+		/** The publishing thread waits until the consumer has made room. */
+		BLOCK,
+		/**
+		 * Only the latest overflowing event of each event class is kept. It is delivered when the
+		 * consumer has caught up with the queue, until then newer events of the same class replace it,
+		 * so the events of one class are always delivered in order. Useful for consumers which are only
+		 * interested in the most recent state.
+		 */
+		COALESCE;
+	}
+
+	private static final long WAIT_NANOS = TimeUnit.MILLISECONDS.toNanos(5);
+
+	private final String name;
+	private final PacManGameController controller;
+	private final RingBuffer<GameEventSnapshot> queue;
+	private final OverflowPolicy overflowPolicy;
+	private final Consumer<GameEventSnapshot> consumer;
+
+	// latest overflowing snapshot per event class (COALESCE), guarded by the map itself
+	private final Map<Class<?>, GameEventSnapshot> coalesced = new HashMap<>();
+	private volatile boolean coalescing;
+
+	// publishing threads waiting for room in the queue (BLOCK)
+	private final ReentrantLock lock = new ReentrantLock();
+	private final Condition notFull = lock.newCondition();
+	private final AtomicInteger waitingPublishers = new AtomicInteger();
+
+	// the consumer thread ends only after all publishing threads have left
+	private final AtomicInteger activePublishers = new AtomicInteger();
+
+	private final AtomicLong sequence = new AtomicLong();
+	private final AtomicLong deliveredCount = new AtomicLong();
+	private final AtomicLong droppedCount = new AtomicLong();
+	private final AtomicLong coalescedCount = new AtomicLong();
+	private final AtomicLong droppedWhileStopped = new AtomicLong();
+
+	private volatile boolean running;
+	private volatile boolean consumerParked;
+	private Thread thread;
+
+	/**
+	 * @param name           name of the consumer thread
+	 * @param capacity       queue capacity (rounded up to a power of two)
+	 * @param overflowPolicy what to do when the queue is full
+	 * @param controller     the game controller, provides the tick and the state of the snapshots
+	 * @param consumer       the consumer receiving the event snapshots in the sink thread
+	 */
+	public AsyncGameEventSink(String name, int capacity, OverflowPolicy overflowPolicy,
+			PacManGameController controller, Consumer<GameEventSnapshot> consumer) {
+		this.name = name;
+		this.queue = new RingBuffer<>(capacity);
+		this.overflowPolicy = overflowPolicy;
+		this.controller = controller;
+		this.consumer = consumer;
+	}
+
+	public synchronized void start() {
+		if (running) {
+			log("Cannot start: Event sink %s is already running", name);
+			return;
+		}
+		running = true;
+		thread = new Thread(this::deliverEvents, name);
+		thread.setDaemon(true);
+		thread.start();
+	}
+
+	/**
+	 * Stops accepting events and waits until the consumer thread has delivered all queued and
+	 * coalesced events. Logs the number of delivered, dropped and coalesced events.
+	 */
+	public synchronized void stop() {
+		if (!running) {
+			return;
+		}
+		running = false;
+		LockSupport.unpark(thread);
+		if (Thread.currentThread() != thread) {
+			try {
+				thread.join();
+			} catch (InterruptedException x) {
+				Thread.currentThread().interrupt();
+			}
+		}
+		log("Event sink %s stopped, %d events delivered, %d events dropped, %d events coalesced", name,
+				deliveredCount.get(), droppedCount.get(), coalescedCount.get());
+	}
+
+	public boolean isRunning() {
+		return running;
+	}
+
+	public long deliveredCount() {
+		return deliveredCount.get();
+	}
+
+	/**
+	 * @return number of events dropped because the queue was full (policy DROP) or because the sink
+	 *         was not running
+	 */
+	public long droppedCount() {
+		return droppedCount.get();
+	}
+
+	/**
+	 * @return number of events replaced by a newer event of the same class (policy COALESCE)
+	 */
+	public long coalescedCount() {
+		return coalescedCount.get();
+	}
+
+	public int queuedCount() {
+		return queue.size();
+	}
+
+	@Override
+	public void onGameEvent(PacManGameEvent event) {
+		activePublishers.incrementAndGet();
+		try {
+			if (!running) {
+				droppedCount.incrementAndGet();
+				if (droppedWhileStopped.getAndIncrement() == 0) {
+					log("Event sink %s is not running, events are dropped", name);
+				}
+				return;
+			}
+			GameEventSnapshot snapshot = new GameEventSnapshot(sequence.getAndIncrement(), controller.timerWheel().now(),
+					controller.state, event);
+			if (coalescing) {
+				coalesce(snapshot);
+			} else if (!queue.offer(snapshot)) {
+				handleOverflow(snapshot);
+			}
+			if (consumerParked) {
+				LockSupport.unpark(thread);
+			}
+		} finally {
+			activePublishers.decrementAndGet();
+		}
+	}
+
+	private void handleOverflow(GameEventSnapshot snapshot) {
+		switch (overflowPolicy) {
+		case DROP:
+			droppedCount.incrementAndGet();
+			break;
+		case BLOCK:
+			awaitRoom(snapshot);
+			break;
+		case COALESCE:
+			coalesce(snapshot);
+			break;
+		default:
+			throw new IllegalStateException("Unknown overflow policy: " + overflowPolicy);
+		}
+	}
+
+	private void awaitRoom(GameEventSnapshot snapshot) {
+		waitingPublishers.incrementAndGet();
+		lock.lock();
+		try {
+			while (!queue.offer(snapshot)) {
+				LockSupport.unpark(thread);
+				notFull.awaitNanos(WAIT_NANOS);
+			}
+		} catch (InterruptedException x) {
+			Thread.currentThread().interrupt();
+			droppedCount.incrementAndGet();
+		} finally {
+			lock.unlock();
+			waitingPublishers.decrementAndGet();
+		}
+	}
+
+	private void coalesce(GameEventSnapshot snapshot) {
+		synchronized (coalesced) {
+			if (coalesced.containsKey(snapshot.eventClass)) {
+				coalesced.put(snapshot.eventClass, snapshot);
+				coalescedCount.incrementAndGet();
+			} else if (!queue.offer(snapshot)) {
+				coalesced.put(snapshot.eventClass, snapshot);
+				coalescing = true;
+			}
+		}
+	}
+
+	private void deliverEvents() {
+		while (true) {
+			GameEventSnapshot snapshot = queue.poll();
+			if (snapshot != null) {
+				if (waitingPublishers.get() > 0) {
+					signalRoom();
+				}
+				deliver(snapshot);
+			} else if (coalescing) {
+				deliverCoalesced();
+			} else if (running || activePublishers.get() > 0) {
+				consumerParked = true;
+				if (queue.isEmpty() && !coalescing) {
+					LockSupport.parkNanos(this, WAIT_NANOS);
+				}
+				consumerParked = false;
+			} else if (queue.isEmpty() && !coalescing) {
+				break; // stopped and all events delivered
+			}
+		}
+	}
+
+	private void signalRoom() {
+		lock.lock();
+		try {
+			notFull.signalAll();
+		} finally {
+			lock.unlock();
+		}
+	}
+
+	private void deliverCoalesced() {
+		List<GameEventSnapshot> pending;
+		synchronized (coalesced) {
+			pending = new ArrayList<>(coalesced.values());
+			coalesced.clear();
+			coalescing = false;
+		}
+		pending.sort(Comparator.comparingLong(snapshot -> snapshot.sequence));
+		for (GameEventSnapshot snapshot : pending) {
+			deliver(snapshot);
+		}
+	}
+
+	private void deliver(GameEventSnapshot snapshot) {
+		try {
+			consumer.accept(snapshot);
+			deliveredCount.incrementAndGet();
+		} catch (Exception x) {
+			log("Event sink %s: consumer failed handling %s", name, snapshot);
+			x.printStackTrace();
+		}
+	}
+}
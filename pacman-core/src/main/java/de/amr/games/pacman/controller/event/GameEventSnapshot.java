@@ -0,0 +1,92 @@
+package de.amr.games.pacman.controller.event;
+
+import de.amr.games.pacman.controller.PacManGameState;
+import de.amr.games.pacman.model.common.AbstractGameModel;
+import de.amr.games.pacman.model.common.GameVariant;
+
+/**
+ * Immutable copy of a game event and of the game state it refers to, taken when the event is
+ * published.
+ * <p>
+ * Events reference the live game model, and some event instances are reused by the controller, so
+ * they must not be handed to another thread. A snapshot contains only values, so it can be queued
+ * and read by a consumer thread while the game goes on.
+ */
+public final class GameEventSnapshot {
+
+	/** Value of the payload fields not carried by the event. */
+	public static final int NONE = -1;
+
+	/** Sequence number of the snapshot, increasing in publishing order. */
+	public final long sequence;
+	/** Controller tick at which the event has been published. */
+	public final long tick;
+	public final Class<? extends PacManGameEvent> eventClass;
+	public final GameVariant gameVariant;
+	/** Controller state when the event has been published. */
+	public final PacManGameState gameState;
+	public final int levelNumber;
+	public final int lives;
+	public final int score;
+	public final int foodRemaining;
+	public final int playerTileX;
+	public final int playerTileY;
+
+	/** Payload of a {@link PacManGameStateChangedEvent}, {@code null} for other events. */
+	public final PacManGameState oldGameState;
+	public final PacManGameState newGameState;
+	/** Payload of a {@link DeadGhostCountChangeEvent}, {@link #NONE} for other events. */
+	public final int oldDeadGhostCount;
+	public final int newDeadGhostCount;
+	/** Payload of a {@link ScatterPhaseStartedEvent}, {@link #NONE} for other events. */
+	public final int scatterPhase;
+
+	/**
+	 * Copies the event and the game state. Must be called in the thread publishing the event.
+	 *
+	 * @param sequence  sequence number
+	 * @param tick      controller tick
+	 * @param gameState controller state
+	 * @param event     the event
+	 */
+	public GameEventSnapshot(long sequence, long tick, PacManGameState gameState, PacManGameEvent event) {
+		this.sequence = sequence;
+		this.tick = tick;
+		this.eventClass = event.getClass();
+		this.gameVariant = event.gameVariant;
+		this.gameState = gameState;
+		AbstractGameModel game = event.gameModel;
+		if (game != null && game.currentLevel != null) {
+			levelNumber = game.currentLevelNumber;
+			lives = game.lives;
+			score = game.score;
+			foodRemaining = game.currentLevel.foodRemaining;
+			playerTileX = game.player.tileX();
+			playerTileY = game.player.tileY();
+		} else {
+			levelNumber = lives = score = foodRemaining = 0;
+			playerTileX = playerTileY = NONE;
+		}
+		if (event instanceof PacManGameStateChangedEvent) {
+			PacManGameStateChangedEvent stateChange = (PacManGameStateChangedEvent) event;
+			oldGameState = stateChange.oldGameState;
+			newGameState = stateChange.newGameState;
+		} else {
+			oldGameState = newGameState = null;
+		}
+		if (event instanceof DeadGhostCountChangeEvent) {
+			DeadGhostCountChangeEvent deadGhosts = (DeadGhostCountChangeEvent) event;
+			oldDeadGhostCount = deadGhosts.oldCount;
+			newDeadGhostCount = deadGhosts.newCount;
+		} else {
+			oldDeadGhostCount = newDeadGhostCount = NONE;
+		}
+		scatterPhase = event instanceof ScatterPhaseStartedEvent ? ((ScatterPhaseStartedEvent) event).scatterPhase
+				: NONE;
+	}
+
+	@Override
+	public String toString() {
+		return String.format("#%d tick %d %s", sequence, tick, eventClass.getSimpleName());
+	}
+}
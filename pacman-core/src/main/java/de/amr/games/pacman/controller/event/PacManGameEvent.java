@@ -3,6 +3,10 @@ package de.amr.games.pacman.controller.event;
 import de.amr.games.pacman.model.common.AbstractGameModel;
 import de.amr.games.pacman.model.common.GameVariant;
 
+/**
+ * Base class of all game events. Events are immutable, so the controller may deliver the same
+ * instance more than once and listeners may keep references to events.
+ */
 public abstract class PacManGameEvent {
 
 	public final GameVariant gameVariant;
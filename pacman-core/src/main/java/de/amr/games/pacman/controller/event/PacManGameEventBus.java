@@ -0,0 +1,127 @@
+package de.amr.games.pacman.controller.event;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+
+/**
+ * Dispatches game events to subscribers.
+ * <p>
+ * Subscribers either receive all events or only events of a given class (including subclasses). For
+ * each event class, the bus keeps a precomputed array of the listeners interested in it, so
+ * publishing an event is a single table lookup followed by a loop over a plain array.
+ * <p>
+ * Subscribing and unsubscribing is thread-safe. The registrations and the dispatch table are
+ * replaced as a whole on every change (copy-on-write), so publishing never locks and listeners can
+ * (un)subscribe from other threads or while an event is being delivered.
+ */
+public class PacManGameEventBus {
+
+	private static final PacManGameEventListener[] NO_LISTENERS = {};
+
+	private static class Registration {
+
+		final Class<? extends PacManGameEvent> eventClass;
+		final PacManGameEventListener listener;
+
+		Registration(Class<? extends PacManGameEvent> eventClass, PacManGameEventListener listener) {
+			this.eventClass = eventClass;
+			this.listener = listener;
+		}
+	}
+
+	private final Object lock = new Object();
+	private volatile Registration[] registrations = new Registration[0];
+	private volatile Map<Class<?>, PacManGameEventListener[]> dispatchTable = new HashMap<>();
+
+	/**
+	 * Subscribes a listener for all events.
+	 *
+	 * @param listener the listener
+	 */
+	public void subscribe(PacManGameEventListener listener) {
+		register(PacManGameEvent.class, listener);
+	}
+
+	/**
+	 * Subscribes a handler for events of the given class and its subclasses.
+	 *
+	 * @param <E>        event type
+	 * @param eventClass event class
+	 * @param handler    event handler
+	 * @return the listener that has been subscribed, use it to unsubscribe the handler
+	 */
+	public <E extends PacManGameEvent> PacManGameEventListener subscribe(Class<E> eventClass,
+			Consumer<? super E> handler) {
+		PacManGameEventListener listener = event -> handler.accept(eventClass.cast(event));
+		register(eventClass, listener);
+		return listener;
+	}
+
+	/**
+	 * Removes all subscriptions of the given listener.
+	 *
+	 * @param listener the listener
+	 */
+	public void unsubscribe(PacManGameEventListener listener) {
+		synchronized (lock) {
+			registrations = Arrays.stream(registrations).filter(reg -> reg.listener != listener)
+					.toArray(Registration[]::new);
+			dispatchTable = new HashMap<>();
+		}
+	}
+
+	/**
+	 * @return number of subscriptions
+	 */
+	public int numSubscriptions() {
+		return registrations.length;
+	}
+
+	/**
+	 * Delivers the event to all interested listeners in the order of their subscription.
+	 *
+	 * @param event the event
+	 */
+	public void publish(PacManGameEvent event) {
+		PacManGameEventListener[] listeners = dispatchTable.get(event.getClass());
+		if (listeners == null) {
+			listeners = addDispatchEntry(event.getClass());
+		}
+		for (PacManGameEventListener listener : listeners) {
+			listener.onGameEvent(event);
+		}
+	}
+
+	private void register(Class<? extends PacManGameEvent> eventClass, PacManGameEventListener listener) {
+		synchronized (lock) {
+			Registration[] newRegistrations = Arrays.copyOf(registrations, registrations.length + 1);
+			newRegistrations[registrations.length] = new Registration(eventClass, listener);
+			registrations = newRegistrations;
+			dispatchTable = new HashMap<>();
+		}
+	}
+
+	private PacManGameEventListener[] addDispatchEntry(Class<?> eventClass) {
+		synchronized (lock) {
+			PacManGameEventListener[] listeners = dispatchTable.get(eventClass);
+			if (listeners != null) {
+				return listeners; // computed by other thread meanwhile
+			}
+			List<PacManGameEventListener> interested = new ArrayList<>();
+			for (Registration reg : registrations) {
+				if (reg.eventClass.isAssignableFrom(eventClass)) {
+					interested.add(reg.listener);
+				}
+			}
+			listeners = interested.isEmpty() ? NO_LISTENERS : interested.toArray(PacManGameEventListener[]::new);
+			Map<Class<?>, PacManGameEventListener[]> newTable = new HashMap<>(dispatchTable);
+			newTable.put(eventClass, listeners);
+			dispatchTable = newTable;
+			return listeners;
+		}
+	}
+}
@@ -0,0 +1,106 @@
+package de.amr.games.pacman.controller.stats;
+
+import static de.amr.games.pacman.lib.Logging.log;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.function.Consumer;
+
+import de.amr.games.pacman.controller.PacManGameController;
+import de.amr.games.pacman.controller.event.AsyncGameEventSink;
+import de.amr.games.pacman.controller.event.AsyncGameEventSink.OverflowPolicy;
+import de.amr.games.pacman.controller.event.GameEventSnapshot;
+
+/**
+ * Records the game events into a CSV file, one line per event.
+ * <p>
+ * The log is written by the consumer thread of an {@link AsyncGameEventSink}, so writing the file
+ * never stalls the game loop. It only reads the {@link GameEventSnapshot snapshots} taken when the
+ * events have been published, never the game model.
+ */
+public class GameEventLog implements Consumer<GameEventSnapshot>, AutoCloseable {
+
+	public static final int QUEUE_CAPACITY = 1024;
+
+	private static final String HEADER = "sequence,tick,event,variant,state,level,lives,score,food_remaining,player_x,player_y,"
+			+ "old_state,new_state,old_dead_ghosts,new_dead_ghosts,scatter_phase";
+
+	/**
+	 * Creates the log file and subscribes the log to the controller's events.
+	 *
+	 * @param controller     game controller
+	 * @param file           CSV file
+	 * @param overflowPolicy what happens to events when the writer cannot keep up
+	 * @return the log
+	 * @throws IOException if the file cannot be created
+	 */
+	public static GameEventLog record(PacManGameController controller, Path file, OverflowPolicy overflowPolicy)
+			throws IOException {
+		GameEventLog eventLog = new GameEventLog(controller, file, overflowPolicy);
+		controller.eventBus.subscribe(eventLog.sink);
+		return eventLog;
+	}
+
+	private final PacManGameController controller;
+	private final Path file;
+	private final BufferedWriter writer;
+	private final AsyncGameEventSink sink;
+	private long linesWritten;
+	private boolean failed;
+
+	private GameEventLog(PacManGameController controller, Path file, OverflowPolicy overflowPolicy) throws IOException {
+		this.controller = controller;
+		this.file = file;
+		writer = Files.newBufferedWriter(file);
+		writer.write(HEADER);
+		writer.newLine();
+		sink = new AsyncGameEventSink("GameEventLog", QUEUE_CAPACITY, overflowPolicy, controller, this);
+		sink.start();
+	}
+
+	public AsyncGameEventSink sink() {
+		return sink;
+	}
+
+	@Override
+	public void accept(GameEventSnapshot event) {
+		if (failed) {
+			return;
+		}
+		StringBuilder line = new StringBuilder(128);
+		line.append(event.sequence).append(',').append(event.tick).append(',')
+				.append(event.eventClass.getSimpleName()).append(',').append(event.gameVariant).append(',')
+				.append(event.gameState).append(',').append(event.levelNumber).append(',').append(event.lives)
+				.append(',').append(event.score).append(',').append(event.foodRemaining).append(',')
+				.append(event.playerTileX).append(',').append(event.playerTileY).append(',')
+				.append(event.oldGameState != null ? event.oldGameState : "").append(',')
+				.append(event.newGameState != null ? event.newGameState : "").append(',')
+				.append(event.oldDeadGhostCount).append(',').append(event.newDeadGhostCount).append(',')
+				.append(event.scatterPhase);
+		try {
+			writer.write(line.toString());
+			writer.newLine();
+			++linesWritten;
+		} catch (IOException x) {
+			failed = true;
+			log("Could not write game event log %s: %s", file, x.getMessage());
+		}
+	}
+
+	/**
+	 * Unsubscribes the log, writes the events still queued and closes the file.
+	 */
+	@Override
+	public void close() {
+		controller.eventBus.unsubscribe(sink);
+		sink.stop();
+		try {
+			writer.close();
+		} catch (IOException x) {
+			log("Could not close game event log %s: %s", file, x.getMessage());
+		}
+		log("Game event log: %d events written to %s", linesWritten, file);
+	}
+}
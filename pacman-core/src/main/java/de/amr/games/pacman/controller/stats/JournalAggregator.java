@@ -0,0 +1,245 @@
+package de.amr.games.pacman.controller.stats;
+
+import static de.amr.games.pacman.controller.stats.JournalColumns.DEATH_CAUSE;
+import static de.amr.games.pacman.controller.stats.JournalColumns.GAME;
+import static de.amr.games.pacman.controller.stats.JournalColumns.GHOSTS_EATEN;
+import static de.amr.games.pacman.controller.stats.JournalColumns.LEVEL;
+import static de.amr.games.pacman.controller.stats.JournalColumns.LIFE;
+import static de.amr.games.pacman.controller.stats.JournalColumns.OUTCOME;
+import static de.amr.games.pacman.controller.stats.JournalColumns.OUTCOME_DEATH;
+import static de.amr.games.pacman.controller.stats.JournalColumns.OUTCOME_LEVEL_COMPLETE;
+import static de.amr.games.pacman.controller.stats.JournalColumns.PELLETS;
+import static de.amr.games.pacman.controller.stats.JournalColumns.STATE_TICKS;
+import static de.amr.games.pacman.controller.stats.JournalColumns.TARGET_DISTANCE_SUM;
+import static de.amr.games.pacman.controller.stats.JournalColumns.TARGET_SAMPLES;
+import static de.amr.games.pacman.controller.stats.JournalColumns.TICKS;
+import static de.amr.games.pacman.controller.stats.JournalColumns.VARIANT;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.LongBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileChannel.MapMode;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Stream;
+
+import de.amr.games.pacman.controller.PacManGameState;
+import de.amr.games.pacman.model.common.Ghost;
+import de.amr.games.pacman.model.common.GameVariant;
+
+/**
+ * Aggregates the binary columnar statistics journals (see {@link JournalColumns}) of many sessions
+ * and prints a report per game variant.
+ * <p>
+ * Usage: {@code JournalAggregator <journal file or directory>...}
+ * <p>
+ * Each file contains the journal of one session. The files are memory-mapped and aggregated in
+ * parallel, one file per task. Only the needed columns are read, located by name, so journals
+ * written with additional columns can be aggregated too.
+ */
+public class JournalAggregator {
+
+	private static final int[] COLUMNS = { VARIANT, GAME, LEVEL, LIFE, TICKS, PELLETS, GHOSTS_EATEN, OUTCOME, DEATH_CAUSE,
+			TARGET_SAMPLES, TARGET_DISTANCE_SUM };
+
+	/**
+	 * Totals of one game variant.
+	 */
+	public static class Totals {
+
+		public long rows;
+		public long games;
+		public long lives;
+		public long ticks;
+		public long pellets;
+		public long ghostsEaten;
+		public long deaths;
+		public final long[] deathsByGhost = new long[4];
+		public long levelsCompleted;
+		public long completedLevelTicks;
+		public long targetSamples;
+		public long targetDistanceSum;
+		public final long[] stateTicks = new long[PacManGameState.values().length];
+
+		void add(Totals other) {
+			rows += other.rows;
+			games += other.games;
+			lives += other.lives;
+			ticks += other.ticks;
+			pellets += other.pellets;
+			ghostsEaten += other.ghostsEaten;
+			deaths += other.deaths;
+			levelsCompleted += other.levelsCompleted;
+			completedLevelTicks += other.completedLevelTicks;
+			targetSamples += other.targetSamples;
+			targetDistanceSum += other.targetDistanceSum;
+			for (int i = 0; i < deathsByGhost.length; ++i) {
+				deathsByGhost[i] += other.deathsByGhost[i];
+			}
+			for (int i = 0; i < stateTicks.length; ++i) {
+				stateTicks[i] += other.stateTicks[i];
+			}
+		}
+	}
+
+	public static void main(String[] args) throws IOException {
+		if (args.length == 0) {
+			System.err.println("Usage: JournalAggregator <journal file or directory>...");
+			System.exit(1);
+		}
+		List<Path> files = new ArrayList<>();
+		for (String arg : args) {
+			Path path = Paths.get(arg);
+			if (Files.isDirectory(path)) {
+				try (Stream<Path> entries = Files.list(path)) {
+					entries.filter(file -> file.toString().endsWith(".col")).forEach(files::add);
+				}
+			} else {
+				files.add(path);
+			}
+		}
+		long start = System.nanoTime();
+		Map<GameVariant, Totals> totals = aggregate(files);
+		System.out.printf("%d journals aggregated in %.2f milliseconds%n", files.size(), (System.nanoTime() - start) / 1e6);
+		totals.forEach(JournalAggregator::print);
+	}
+
+	/**
+	 * @param files columnar journal files
+	 * @return the totals of each game variant found in the files
+	 */
+	public static Map<GameVariant, Totals> aggregate(List<Path> files) {
+		return files.parallelStream().map(JournalAggregator::aggregate).reduce(new HashMap<>(), (left, right) -> {
+			Map<GameVariant, Totals> merged = new HashMap<>(left);
+			right.forEach((variant, variantTotals) -> merged.merge(variant, variantTotals, (a, b) -> {
+				Totals sum = new Totals();
+				sum.add(a);
+				sum.add(b);
+				return sum;
+			}));
+			return merged;
+		});
+	}
+
+	private static Map<GameVariant, Totals> aggregate(Path file) {
+		try (FileChannel channel = FileChannel.open(file)) {
+			ByteBuffer buffer = channel.map(MapMode.READ_ONLY, 0, channel.size());
+			if (buffer.getInt() != JournalColumns.MAGIC || buffer.getInt() != JournalColumns.VERSION) {
+				throw new IOException("Not a statistics journal: " + file);
+			}
+			int columnCount = buffer.getInt();
+			Map<String, Integer> columnIndex = new HashMap<>();
+			for (int column = 0; column < columnCount; ++column) {
+				byte[] name = new byte[buffer.getShort()];
+				buffer.get(name);
+				columnIndex.put(new String(name, StandardCharsets.UTF_8), column);
+			}
+			int[] fileColumn = new int[JournalColumns.COUNT];
+			for (int column = 0; column < JournalColumns.COUNT; ++column) {
+				fileColumn[column] = columnIndex.getOrDefault(JournalColumns.name(column), -1);
+			}
+			for (int column : COLUMNS) {
+				if (fileColumn[column] == -1) {
+					throw new IOException("Column " + JournalColumns.name(column) + " missing in " + file);
+				}
+			}
+			Map<GameVariant, Totals> totals = new HashMap<>();
+			Map<GameVariant, Set<Long>> games = new HashMap<>();
+			Map<GameVariant, Set<Long>> lives = new HashMap<>();
+			Map<Long, Long> levelTicks = new HashMap<>();
+			Set<Long> completedLevels = new HashSet<>();
+			Map<Long, GameVariant> levelVariant = new HashMap<>();
+			LongBuffer[] values = new LongBuffer[JournalColumns.COUNT];
+			while (buffer.remaining() >= 4) {
+				int rows = buffer.getInt();
+				for (int column = 0; column < JournalColumns.COUNT; ++column) {
+					if (fileColumn[column] != -1) {
+						int position = buffer.position() + fileColumn[column] * rows * Long.BYTES;
+						values[column] = buffer.duplicate().position(position).slice().asLongBuffer();
+					}
+				}
+				for (int row = 0; row < rows; ++row) {
+					GameVariant variant = GameVariant.values()[(int) values[VARIANT].get(row)];
+					Totals t = totals.computeIfAbsent(variant, v -> new Totals());
+					long game = values[GAME].get(row);
+					long level = game << 20 | values[LEVEL].get(row);
+					long ticks = values[TICKS].get(row);
+					++t.rows;
+					games.computeIfAbsent(variant, v -> new HashSet<>()).add(game);
+					// a life can span several rows, one per level
+					lives.computeIfAbsent(variant, v -> new HashSet<>()).add(game << 20 | values[LIFE].get(row));
+					t.ticks += ticks;
+					t.pellets += values[PELLETS].get(row);
+					t.ghostsEaten += values[GHOSTS_EATEN].get(row);
+					t.targetSamples += values[TARGET_SAMPLES].get(row);
+					t.targetDistanceSum += values[TARGET_DISTANCE_SUM].get(row);
+					for (PacManGameState state : PacManGameState.values()) {
+						if (values[STATE_TICKS + state.ordinal()] != null) {
+							t.stateTicks[state.ordinal()] += values[STATE_TICKS + state.ordinal()].get(row);
+						}
+					}
+					long outcome = values[OUTCOME].get(row);
+					if (outcome == OUTCOME_DEATH) {
+						++t.deaths;
+						int ghost = (int) values[DEATH_CAUSE].get(row);
+						if (ghost >= 0 && ghost < t.deathsByGhost.length) {
+							++t.deathsByGhost[ghost];
+						}
+					} else if (outcome == OUTCOME_LEVEL_COMPLETE) {
+						++t.levelsCompleted;
+						completedLevels.add(level);
+					}
+					levelTicks.merge(level, ticks, Long::sum);
+					levelVariant.put(level, variant);
+				}
+				buffer.position(buffer.position() + columnCount * rows * Long.BYTES);
+			}
+			for (long level : completedLevels) {
+				totals.get(levelVariant.get(level)).completedLevelTicks += levelTicks.get(level);
+			}
+			// a journal file contains one session
+			games.forEach((variant, numbers) -> totals.get(variant).games = numbers.size());
+			lives.forEach((variant, numbers) -> totals.get(variant).lives = numbers.size());
+			return totals;
+		} catch (IOException x) {
+			throw new UncheckedIOException(x);
+		}
+	}
+
+	private static void print(GameVariant variant, Totals t) {
+		double seconds = t.ticks / 60.0;
+		double huntingSeconds = t.stateTicks[PacManGameState.HUNTING.ordinal()] / 60.0;
+		System.out.printf("%n%s: %d games, %d lives, %d rows, %.1f hours played%n", variant, t.games, t.lives,
+				t.rows, seconds / 3600);
+		System.out.printf("  levels completed       %d, %.1f seconds per level%n", t.levelsCompleted,
+				t.levelsCompleted == 0 ? 0 : t.completedLevelTicks / 60.0 / t.levelsCompleted);
+		System.out.printf("  pellets per second     %.2f (hunting time)%n", huntingSeconds == 0 ? 0 : t.pellets / huntingSeconds);
+		System.out.printf("  ghosts eaten per life  %.2f%n", t.lives == 0 ? 0 : (double) t.ghostsEaten / t.lives);
+		System.out.printf("  deaths                 %d", t.deaths);
+		String[] ghostNames = { "Blinky", "Pinky", "Inky", "Clyde" };
+		for (int ghost = Ghost.BLINKY; ghost <= Ghost.CLYDE; ++ghost) {
+			System.out.printf(", %s %.0f%%", ghostNames[ghost],
+					t.deaths == 0 ? 0 : 100.0 * t.deathsByGhost[ghost] / t.deaths);
+		}
+		System.out.println();
+		System.out.printf("  target distance        %.2f tiles (%d samples)%n",
+				t.targetSamples == 0 ? 0 : (double) t.targetDistanceSum / t.targetSamples, t.targetSamples);
+		System.out.print("  time per state        ");
+		for (PacManGameState state : PacManGameState.values()) {
+			if (t.stateTicks[state.ordinal()] > 0) {
+				System.out.printf(" %s %.1f%%", state, 100.0 * t.stateTicks[state.ordinal()] / t.ticks);
+			}
+		}
+		System.out.println();
+	}
+}
@@ -0,0 +1,70 @@
+package de.amr.games.pacman.controller.stats;
+
+import de.amr.games.pacman.controller.PacManGameState;
+
+/**
+ * The columns of the statistics journal. Each row describes one life of the player in one level,
+ * all values are stored as {@code long}.
+ * <p>
+ * Binary columnar format: the file header consists of the magic number, the format version, the
+ * number of columns and the column names (UTF-8, each preceded by its length as {@code short}).
+ * It is followed by blocks of rows, each block starting with the number of rows, followed by the
+ * values of each column in column order. All numbers are big-endian.
+ */
+public final class JournalColumns {
+
+	public static final int MAGIC = 0x504d534a; // "PMSJ"
+	public static final int VERSION = 1;
+
+	/** Random identifier of the game session. */
+	public static final int SESSION = 0;
+	/** Ordinal of the game variant. */
+	public static final int VARIANT = 1;
+	/** Number of the game within the session, counting from 1. */
+	public static final int GAME = 2;
+	/** Level number. */
+	public static final int LEVEL = 3;
+	/** Number of the life within the game, counting from 1. */
+	public static final int LIFE = 4;
+	/** Controller tick at which the row has been started. */
+	public static final int START_TICK = 5;
+	/** Number of ticks covered by the row. */
+	public static final int TICKS = 6;
+	/** Number of pellets and energizers eaten. */
+	public static final int PELLETS = 7;
+	/** Number of ghosts eaten. */
+	public static final int GHOSTS_EATEN = 8;
+	/** How the row ended, see {@link #OUTCOME_LEVEL_COMPLETE} etc. */
+	public static final int OUTCOME = 9;
+	/** Personality (the ID for the original ghosts) of the ghost that killed the player or -1. */
+	public static final int DEATH_CAUSE = 10;
+	/** Number of samples of the ghost target accuracy. */
+	public static final int TARGET_SAMPLES = 11;
+	/** Sum of the Manhattan distances (in tiles) between the target tile of a chasing ghost and Pac-Man. */
+	public static final int TARGET_DISTANCE_SUM = 12;
+	/** First of the columns containing the ticks spent in each state, indexed by state ordinal. */
+	public static final int STATE_TICKS = 13;
+
+	public static final int COUNT = STATE_TICKS + PacManGameState.values().length;
+
+	public static final int OUTCOME_LEVEL_COMPLETE = 0;
+	public static final int OUTCOME_DEATH = 1;
+	public static final int OUTCOME_ABORTED = 2;
+
+	private static final String[] NAMES = new String[COUNT];
+	static {
+		String[] fixed = { "session", "variant", "game", "level", "life", "start_tick", "ticks", "pellets",
+				"ghosts_eaten", "outcome", "death_cause", "target_samples", "target_distance_sum" };
+		System.arraycopy(fixed, 0, NAMES, 0, fixed.length);
+		for (PacManGameState state : PacManGameState.values()) {
+			NAMES[STATE_TICKS + state.ordinal()] = "ticks_" + state.name().toLowerCase();
+		}
+	}
+
+	public static String name(int column) {
+		return NAMES[column];
+	}
+
+	private JournalColumns() {
+	}
+}
@@ -0,0 +1,141 @@
+package de.amr.games.pacman.controller.stats;
+
+import static de.amr.games.pacman.lib.Logging.log;
+import static java.nio.file.StandardOpenOption.CREATE;
+import static java.nio.file.StandardOpenOption.TRUNCATE_EXISTING;
+import static java.nio.file.StandardOpenOption.WRITE;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Appends batches of journal rows to a CSV file and to a binary columnar file (see
+ * {@link JournalColumns}). The files are written by a background thread, so writing a batch never
+ * blocks the game loop.
+ */
+public class JournalWriter implements AutoCloseable {
+
+	private final Path csvFile;
+	private final Path columnarFile;
+	private final FileChannel csv;
+	private final FileChannel columnar;
+	private final ExecutorService executor = Executors.newSingleThreadExecutor(runnable -> {
+		Thread thread = new Thread(runnable, "JournalWriter");
+		thread.setDaemon(true);
+		return thread;
+	});
+	private long rowsWritten;
+
+	/**
+	 * Creates the files and writes their headers.
+	 *
+	 * @param csvFile      CSV file
+	 * @param columnarFile binary columnar file
+	 * @throws IOException if a file cannot be created
+	 */
+	public JournalWriter(Path csvFile, Path columnarFile) throws IOException {
+		this.csvFile = csvFile;
+		this.columnarFile = columnarFile;
+		csv = FileChannel.open(csvFile, CREATE, WRITE, TRUNCATE_EXISTING);
+		columnar = FileChannel.open(columnarFile, CREATE, WRITE, TRUNCATE_EXISTING);
+		StringBuilder header = new StringBuilder();
+		byte[][] names = new byte[JournalColumns.COUNT][];
+		int namesLength = 0;
+		for (int column = 0; column < JournalColumns.COUNT; ++column) {
+			header.append(column == 0 ? "" : ",").append(JournalColumns.name(column));
+			names[column] = JournalColumns.name(column).getBytes(StandardCharsets.UTF_8);
+			namesLength += 2 + names[column].length;
+		}
+		write(csv, ByteBuffer.wrap(header.append('\n').toString().getBytes(StandardCharsets.UTF_8)));
+		ByteBuffer columnarHeader = ByteBuffer.allocate(12 + namesLength);
+		columnarHeader.putInt(JournalColumns.MAGIC).putInt(JournalColumns.VERSION).putInt(JournalColumns.COUNT);
+		for (byte[] name : names) {
+			columnarHeader.putShort((short) name.length).put(name);
+		}
+		write(columnar, columnarHeader.flip());
+	}
+
+	public Path csvFile() {
+		return csvFile;
+	}
+
+	public Path columnarFile() {
+		return columnarFile;
+	}
+
+	/**
+	 * Writes a batch of rows. The writer takes ownership of the arrays.
+	 *
+	 * @param columns the column values, {@code columns[column][row]}
+	 * @param rows    number of rows
+	 */
+	public void write(long[][] columns, int rows) {
+		executor.execute(() -> {
+			try {
+				writeCSV(columns, rows);
+				writeColumnar(columns, rows);
+				rowsWritten += rows;
+			} catch (IOException x) {
+				log("Could not write statistics journal: %s", x.getMessage());
+			}
+		});
+	}
+
+	private void writeCSV(long[][] columns, int rows) throws IOException {
+		StringBuilder text = new StringBuilder(rows * JournalColumns.COUNT * 4);
+		for (int row = 0; row < rows; ++row) {
+			for (int column = 0; column < JournalColumns.COUNT; ++column) {
+				if (column > 0) {
+					text.append(',');
+				}
+				if (column == JournalColumns.SESSION) {
+					text.append(String.format("%016x", columns[column][row]));
+				} else {
+					text.append(columns[column][row]);
+				}
+			}
+			text.append('\n');
+		}
+		write(csv, ByteBuffer.wrap(text.toString().getBytes(StandardCharsets.UTF_8)));
+	}
+
+	private void writeColumnar(long[][] columns, int rows) throws IOException {
+		ByteBuffer block = ByteBuffer.allocate(4 + JournalColumns.COUNT * rows * Long.BYTES);
+		block.putInt(rows);
+		for (long[] values : columns) {
+			block.asLongBuffer().put(values, 0, rows);
+			block.position(block.position() + rows * Long.BYTES);
+		}
+		write(columnar, block.flip());
+	}
+
+	private static void write(FileChannel channel, ByteBuffer buffer) throws IOException {
+		while (buffer.hasRemaining()) {
+			channel.write(buffer);
+		}
+	}
+
+	/**
+	 * Writes the pending batches and closes the files.
+	 */
+	@Override
+	public void close() {
+		executor.shutdown();
+		try {
+			executor.awaitTermination(1, TimeUnit.MINUTES);
+			csv.close();
+			columnar.close();
+		} catch (InterruptedException x) {
+			Thread.currentThread().interrupt();
+		} catch (IOException x) {
+			log("Could not close statistics journal: %s", x.getMessage());
+		}
+		log("Statistics journal: %d rows written to %s and %s", rowsWritten, csvFile, columnarFile);
+	}
+}
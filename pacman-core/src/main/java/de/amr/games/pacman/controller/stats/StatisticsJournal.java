@@ -0,0 +1,220 @@
+package de.amr.games.pacman.controller.stats;
+
+import static de.amr.games.pacman.controller.stats.JournalColumns.DEATH_CAUSE;
+import static de.amr.games.pacman.controller.stats.JournalColumns.GAME;
+import static de.amr.games.pacman.controller.stats.JournalColumns.GHOSTS_EATEN;
+import static de.amr.games.pacman.controller.stats.JournalColumns.LEVEL;
+import static de.amr.games.pacman.controller.stats.JournalColumns.LIFE;
+import static de.amr.games.pacman.controller.stats.JournalColumns.OUTCOME;
+import static de.amr.games.pacman.controller.stats.JournalColumns.PELLETS;
+import static de.amr.games.pacman.controller.stats.JournalColumns.SESSION;
+import static de.amr.games.pacman.controller.stats.JournalColumns.START_TICK;
+import static de.amr.games.pacman.controller.stats.JournalColumns.STATE_TICKS;
+import static de.amr.games.pacman.controller.stats.JournalColumns.TARGET_DISTANCE_SUM;
+import static de.amr.games.pacman.controller.stats.JournalColumns.TARGET_SAMPLES;
+import static de.amr.games.pacman.controller.stats.JournalColumns.TICKS;
+import static de.amr.games.pacman.controller.stats.JournalColumns.VARIANT;
+import static de.amr.games.pacman.model.common.GhostState.HUNTING_PAC;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+
+import de.amr.games.pacman.controller.PacManGameController;
+import de.amr.games.pacman.controller.PacManGameState;
+import de.amr.games.pacman.controller.event.AsyncGameEventSink;
+import de.amr.games.pacman.controller.event.DeadGhostCountChangeEvent;
+import de.amr.games.pacman.controller.event.PacManFoundFoodEvent;
+import de.amr.games.pacman.controller.event.PacManGameEvent;
+import de.amr.games.pacman.controller.event.PacManGameEventListener;
+import de.amr.games.pacman.controller.event.PacManGameStateChangedEvent;
+import de.amr.games.pacman.model.common.AbstractGameModel;
+import de.amr.games.pacman.model.common.Ghost;
+import de.amr.games.pacman.model.common.Pac;
+
+/**
+ * Records statistics per level and life of the player from the game events.
+ * <p>
+ * A row is started when the player gets ready and ends when the player gets ready the next time
+ * (after losing a life or completing a level) or when the game ends. It contains the ticks spent in
+ * each state, the pellets and ghosts eaten, the outcome (level completed, player killed and by which
+ * ghost, game aborted) and the accuracy of the ghosts' chasing targets, sampled whenever Pac-Man
+ * finds food. Time is measured in ticks of the controller's timer wheel.
+ * <p>
+ * Rows are collected column by column in memory and handed to a {@link JournalWriter} in batches.
+ * The journal reads the tick counter and the game model when it receives an event, so it must be
+ * subscribed to the event bus directly and run in the game loop thread. Consumers running in their
+ * own thread get event snapshots through an {@link AsyncGameEventSink}, see {@link GameEventLog}.
+ */
+public class StatisticsJournal implements PacManGameEventListener, AutoCloseable {
+
+	public static final int BATCH_ROWS = 64;
+
+	/**
+	 * Creates a journal writing to the given directory and subscribes it to the controller's event
+	 * bus.
+	 *
+	 * @param controller game controller
+	 * @param directory  directory of the journal files
+	 * @return the journal
+	 * @throws IOException if the journal files cannot be created
+	 */
+	public static StatisticsJournal record(PacManGameController controller, Path directory) throws IOException {
+		Files.createDirectories(directory);
+		long session = System.currentTimeMillis() << 20 ^ ProcessHandle.current().pid();
+		String name = String.format("journal-%016x", session);
+		JournalWriter writer = new JournalWriter(directory.resolve(name + ".csv"), directory.resolve(name + ".col"));
+		StatisticsJournal journal = new StatisticsJournal(controller, writer, session);
+		controller.eventBus.subscribe(journal);
+		return journal;
+	}
+
+	private final PacManGameController controller;
+	private final JournalWriter writer;
+	private final long session;
+	private long[][] batch = new long[JournalColumns.COUNT][BATCH_ROWS];
+	private int batchRows;
+
+	private final long[] row = new long[JournalColumns.COUNT];
+	private boolean rowStarted;
+	private long stateEnteredTick;
+	private int game, life;
+
+	public StatisticsJournal(PacManGameController controller, JournalWriter writer, long session) {
+		this.controller = controller;
+		this.writer = writer;
+		this.session = session;
+	}
+
+	public long session() {
+		return session;
+	}
+
+	private long now() {
+		return controller.timerWheel().now();
+	}
+
+	@Override
+	public void onGameEvent(PacManGameEvent event) {
+		if (event instanceof PacManGameStateChangedEvent) {
+			PacManGameStateChangedEvent stateChange = (PacManGameStateChangedEvent) event;
+			onStateChange(event, stateChange.oldGameState, stateChange.newGameState);
+		} else if (event instanceof PacManFoundFoodEvent) {
+			onFoodFound(event.gameModel);
+		} else if (event instanceof DeadGhostCountChangeEvent) {
+			DeadGhostCountChangeEvent deadGhosts = (DeadGhostCountChangeEvent) event;
+			if (rowStarted && deadGhosts.newCount > deadGhosts.oldCount) {
+				row[GHOSTS_EATEN] += deadGhosts.newCount - deadGhosts.oldCount;
+			}
+		}
+	}
+
+	private void onStateChange(PacManGameEvent event, PacManGameState oldState, PacManGameState newState) {
+		long now = now();
+		if (rowStarted && oldState != null) {
+			row[STATE_TICKS + oldState.ordinal()] += now - stateEnteredTick;
+		}
+		stateEnteredTick = now;
+		switch (newState) {
+		case INTRO:
+			endRow(now);
+			break;
+		case READY:
+			endRow(now);
+			if (oldState == PacManGameState.INTRO) {
+				++game;
+				life = 1;
+			} else if (oldState == PacManGameState.PACMAN_DYING) {
+				++life;
+			}
+			startRow(event, now);
+			break;
+		case LEVEL_COMPLETE:
+			row[OUTCOME] = JournalColumns.OUTCOME_LEVEL_COMPLETE;
+			break;
+		case PACMAN_DYING:
+			row[OUTCOME] = JournalColumns.OUTCOME_DEATH;
+			row[DEATH_CAUSE] = killer(event.gameModel);
+			break;
+		default:
+			break;
+		}
+	}
+
+	private int killer(AbstractGameModel game) {
+		Pac player = game.player;
+		for (Ghost ghost : game.ghosts) {
+			if (ghost.state == HUNTING_PAC && player.meets(ghost)) {
+				return ghost.personality;
+			}
+		}
+		return -1;
+	}
+
+	private void onFoodFound(AbstractGameModel game) {
+		if (!rowStarted) {
+			return;
+		}
+		++row[PELLETS];
+		if (controller.isScatteringPhase(controller.huntingPhase())) {
+			return;
+		}
+		Pac player = game.player;
+		for (Ghost ghost : game.ghosts) {
+			if (ghost.state == HUNTING_PAC && ghost.targetTile != null) {
+				++row[TARGET_SAMPLES];
+				row[TARGET_DISTANCE_SUM] += (long) ghost.targetTile.manhattanDistance(player.tile());
+			}
+		}
+	}
+
+	private void startRow(PacManGameEvent event, long now) {
+		Arrays.fill(row, 0);
+		row[SESSION] = session;
+		row[VARIANT] = event.gameVariant.ordinal();
+		row[GAME] = game;
+		row[LEVEL] = event.gameModel.currentLevelNumber;
+		row[LIFE] = life;
+		row[START_TICK] = now;
+		row[OUTCOME] = JournalColumns.OUTCOME_ABORTED;
+		row[DEATH_CAUSE] = -1;
+		rowStarted = true;
+	}
+
+	private void endRow(long now) {
+		if (!rowStarted) {
+			return;
+		}
+		row[TICKS] = now - row[START_TICK];
+		for (int column = 0; column < JournalColumns.COUNT; ++column) {
+			batch[column][batchRows] = row[column];
+		}
+		rowStarted = false;
+		if (++batchRows == BATCH_ROWS) {
+			flush();
+		}
+	}
+
+	private void flush() {
+		if (batchRows > 0) {
+			writer.write(batch, batchRows);
+			batch = new long[JournalColumns.COUNT][BATCH_ROWS];
+			batchRows = 0;
+		}
+	}
+
+	/**
+	 * Ends the current row, unsubscribes the journal and writes the remaining rows.
+	 */
+	@Override
+	public void close() {
+		controller.eventBus.unsubscribe(this);
+		if (rowStarted) {
+			row[STATE_TICKS + controller.state.ordinal()] += now() - stateEnteredTick;
+			endRow(now());
+		}
+		flush();
+		writer.close();
+	}
+}
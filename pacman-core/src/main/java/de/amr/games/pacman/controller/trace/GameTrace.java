@@ -0,0 +1,162 @@
+package de.amr.games.pacman.controller.trace;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+import de.amr.games.pacman.controller.trace.StateHasher.Field;
+import de.amr.games.pacman.model.common.GameVariant;
+import de.amr.games.pacman.ui.InputScript;
+
+/**
+ * The state hashes of a game run, one hash per {@link Field} and clock tick, together with
+ * everything needed to repeat the run: game variant, random seed, number of ghosts and keyboard
+ * input.
+ * <p>
+ * File format (gzip compressed, big endian):
+ *
+ * <pre>
+ * int    magic "PMGT"
+ * int    version
+ * UTF    game variant
+ * long   random seed
+ * int    number of ghosts
+ * UTF    input script
+ * int    number of fields, followed by the field names (UTF)
+ * int    number of ticks
+ * per tick:
+ *   int  bit mask of the fields which have changed since the previous tick
+ *   int  hash of each changed field, in field order
+ * </pre>
+ */
+public class GameTrace {
+
+	public static final int MAGIC = 0x504D4754; // "PMGT"
+	public static final int VERSION = 1;
+
+	public final GameVariant variant;
+	public final long seed;
+	public final int ghostCount;
+	public final InputScript inputScript;
+
+	private final int numFields = Field.ALL.length;
+	private int[] hashes = new int[1024 * Field.ALL.length];
+	private int numTicks;
+
+	public GameTrace(GameVariant variant, long seed, int ghostCount, InputScript inputScript) {
+		this.variant = variant;
+		this.seed = seed;
+		this.ghostCount = ghostCount;
+		this.inputScript = inputScript;
+	}
+
+	/**
+	 * Appends the hashes of the next tick.
+	 *
+	 * @param tickHashes hash of each field, indexed by the field ordinals
+	 */
+	public void add(int[] tickHashes) {
+		if ((numTicks + 1) * numFields > hashes.length) {
+			hashes = Arrays.copyOf(hashes, 2 * hashes.length);
+		}
+		System.arraycopy(tickHashes, 0, hashes, numTicks * numFields, numFields);
+		++numTicks;
+	}
+
+	public int numTicks() {
+		return numTicks;
+	}
+
+	/**
+	 * @param tick  clock tick
+	 * @param field field
+	 * @return hash of the field at the end of the tick
+	 */
+	public int hash(int tick, Field field) {
+		return hashes[tick * numFields + field.ordinal()];
+	}
+
+	public void write(Path file) throws IOException {
+		try (DataOutputStream out = new DataOutputStream(
+				new BufferedOutputStream(new GZIPOutputStream(Files.newOutputStream(file))))) {
+			out.writeInt(MAGIC);
+			out.writeInt(VERSION);
+			out.writeUTF(variant.name());
+			out.writeLong(seed);
+			out.writeInt(ghostCount);
+			out.writeUTF(inputScript.toString());
+			out.writeInt(numFields);
+			for (Field field : Field.ALL) {
+				out.writeUTF(field.name());
+			}
+			out.writeInt(numTicks);
+			for (int tick = 0; tick < numTicks; ++tick) {
+				int changed = 0;
+				for (int field = 0; field < numFields; ++field) {
+					if (tick == 0 || hashes[tick * numFields + field] != hashes[(tick - 1) * numFields + field]) {
+						changed |= 1 << field;
+					}
+				}
+				out.writeInt(changed);
+				for (int field = 0; field < numFields; ++field) {
+					if ((changed & (1 << field)) != 0) {
+						out.writeInt(hashes[tick * numFields + field]);
+					}
+				}
+			}
+		}
+	}
+
+	/**
+	 * Reads a trace file. The fields of the trace must be the fields of the current
+	 * {@link StateHasher}, traces recorded with other fields have to be recorded again.
+	 *
+	 * @param file trace file
+	 * @return the trace
+	 * @throws IOException if the file cannot be read or is not a trace with the current fields
+	 */
+	public static GameTrace read(Path file) throws IOException {
+		try (DataInputStream in = new DataInputStream(
+				new BufferedInputStream(new GZIPInputStream(Files.newInputStream(file))))) {
+			if (in.readInt() != MAGIC) {
+				throw new IOException("Not a game trace file: " + file);
+			}
+			int version = in.readInt();
+			if (version != VERSION) {
+				throw new IOException(String.format("Unsupported trace version %d in file %s", version, file));
+			}
+			GameVariant variant = GameVariant.valueOf(in.readUTF());
+			long seed = in.readLong();
+			int ghostCount = in.readInt();
+			InputScript inputScript = InputScript.parse(in.readUTF());
+			String[] fieldNames = new String[in.readInt()];
+			for (int i = 0; i < fieldNames.length; ++i) {
+				fieldNames[i] = in.readUTF();
+			}
+			if (!Arrays.equals(fieldNames, Arrays.stream(Field.ALL).map(Field::name).toArray(String[]::new))) {
+				throw new IOException(String.format("Trace file %s has the fields %s, record it again with the fields %s",
+						file, Arrays.toString(fieldNames), Arrays.toString(Field.ALL)));
+			}
+			GameTrace trace = new GameTrace(variant, seed, ghostCount, inputScript);
+			int numTicks = in.readInt();
+			int[] tickHashes = new int[fieldNames.length];
+			for (int tick = 0; tick < numTicks; ++tick) {
+				int changed = in.readInt();
+				for (int field = 0; field < tickHashes.length; ++field) {
+					if ((changed & (1 << field)) != 0) {
+						tickHashes[field] = in.readInt();
+					}
+				}
+				trace.add(tickHashes);
+			}
+			return trace;
+		}
+	}
+}
@@ -0,0 +1,129 @@
+package de.amr.games.pacman.controller.trace;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Stream;
+
+import de.amr.games.pacman.model.common.GameVariant;
+import de.amr.games.pacman.ui.InputScript;
+
+/**
+ * Regression check of the game behavior against golden traces, one trace file per game variant.
+ *
+ * <pre>
+ * GoldenTraces record &lt;dir&gt; [-ticks N] [-seed S] [-ghosts N] [-variants V,V,...]
+ * GoldenTraces verify &lt;dir&gt;
+ * </pre>
+ *
+ * <code>record</code> runs each game variant headless with a random input script derived from the
+ * seed and writes the traces into the directory. <code>verify</code> repeats the runs of all trace
+ * files in the directory and reports the first tick and the fields where a run differs from its
+ * trace. The exit code is 1 if any run differs.
+ */
+public class GoldenTraces {
+
+	private static final String SUFFIX = ".trace.gz";
+
+	public static void main(String[] args) throws IOException {
+		if (args.length < 2 || !args[0].equals("record") && !args[0].equals("verify")) {
+			usage();
+		}
+		Path dir = Paths.get(args[1]);
+		if (args[0].equals("record")) {
+			int numTicks = 7200;
+			long seed = 42;
+			int ghostCount = 4;
+			GameVariant[] variants = GameVariant.values();
+			for (int i = 2; i < args.length; ++i) {
+				if (i + 1 == args.length) {
+					usage();
+				}
+				switch (args[i]) {
+				case "-ticks":
+					numTicks = Integer.parseInt(args[++i]);
+					break;
+				case "-seed":
+					seed = Long.parseLong(args[++i]);
+					break;
+				case "-ghosts":
+					ghostCount = Integer.parseInt(args[++i]);
+					break;
+				case "-variants":
+					variants = Stream.of(args[++i].split(",")).map(GameVariant::valueOf).toArray(GameVariant[]::new);
+					break;
+				default:
+					usage();
+				}
+			}
+			Files.createDirectories(dir);
+			for (GameVariant variant : variants) {
+				record(dir.resolve(variant.name() + SUFFIX), variant, seed, ghostCount, numTicks);
+			}
+		} else {
+			if (!verify(dir)) {
+				System.exit(1);
+			}
+		}
+	}
+
+	private static void usage() {
+		System.err.println("Usage: GoldenTraces record <dir> [-ticks N] [-seed S] [-ghosts N] [-variants V,V,...]");
+		System.err.println("       GoldenTraces verify <dir>");
+		System.exit(1);
+	}
+
+	/**
+	 * Records a golden trace.
+	 *
+	 * @param file       trace file
+	 * @param variant    game variant
+	 * @param seed       seed of the game random generator and of the input script
+	 * @param ghostCount number of ghosts
+	 * @param numTicks   number of clock ticks
+	 * @throws IOException if the file cannot be written
+	 */
+	public static void record(Path file, GameVariant variant, long seed, int ghostCount, int numTicks)
+			throws IOException {
+		GameTrace trace = TraceRecorder.record(variant, seed, ghostCount, InputScript.random(seed, numTicks), numTicks);
+		trace.write(file);
+		System.out.printf("%s: %d ticks recorded into %s (%d bytes)%n", variant, numTicks, file, Files.size(file));
+	}
+
+	/**
+	 * Verifies all golden traces in a directory.
+	 *
+	 * @param dir directory with the trace files
+	 * @return if all runs match their traces
+	 * @throws IOException if a trace file cannot be read
+	 */
+	public static boolean verify(Path dir) throws IOException {
+		List<Path> files = new ArrayList<>();
+		try (Stream<Path> entries = Files.list(dir)) {
+			entries.filter(file -> file.toString().endsWith(SUFFIX)).sorted().forEach(files::add);
+		}
+		if (files.isEmpty()) {
+			System.err.printf("No golden traces found in %s%n", dir);
+			return false;
+		}
+		List<TraceDivergence> divergences = new ArrayList<>();
+		for (Path file : files) {
+			GameTrace trace = GameTrace.read(file);
+			TraceDivergence divergence = TraceRecorder.verify(trace);
+			if (divergence == null) {
+				System.out.printf("%s: %d ticks OK%n", trace.variant, trace.numTicks());
+			} else {
+				System.out.printf("%s: DIVERGES at tick %d%n", trace.variant, divergence.tick);
+				divergences.add(divergence);
+			}
+		}
+		for (TraceDivergence divergence : divergences) {
+			System.out.print(divergence.report());
+		}
+		System.out.printf("%d of %d golden traces verified%n", files.size() - divergences.size(), files.size());
+		return divergences.isEmpty();
+	}
+}
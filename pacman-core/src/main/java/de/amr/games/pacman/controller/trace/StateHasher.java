@@ -0,0 +1,277 @@
+package de.amr.games.pacman.controller.trace;
+
+import de.amr.games.pacman.controller.PacManGameController;
+import de.amr.games.pacman.lib.TickTimer;
+import de.amr.games.pacman.lib.V2i;
+import de.amr.games.pacman.model.common.AbstractGameModel;
+import de.amr.games.pacman.model.common.Creature;
+import de.amr.games.pacman.model.common.Ghost;
+import de.amr.games.pacman.model.pacman.PacManBonus;
+
+/**
+ * Computes a hash code for each part of the game state, so two runs of a game can be compared tick
+ * by tick and a difference can be attributed to the part of the state where it first shows up.
+ * <p>
+ * The highscore is not part of the state, it depends on the contents of the hiscore file.
+ */
+public class StateHasher {
+
+	/**
+	 * The parts of the game state which are hashed separately.
+	 */
+	public enum Field {
+		/** State of the game controller, attract mode, game running. */
+		GAME_STATE,
+		/** Ticks and duration of the state timer. */
+		STATE_TIMER,
+		/** Number of the hunting phase. */
+		HUNTING_PHASE,
+		/** Score and lives. */
+		SCORE,
+		/** Level number, intermission number. */
+		LEVEL,
+		/** Eaten food tiles. */
+		FOOD,
+		/** Pac-Man's position. */
+		PLAYER_POSITION,
+		/** Pac-Man's move and wish directions. */
+		PLAYER_DIR,
+		/** Pac-Man's speed, resting and starving ticks, death. */
+		PLAYER_MOTION,
+		/** Pac-Man's power timer. */
+		PLAYER_POWER,
+		/** Positions of the ghosts. */
+		GHOST_POSITIONS,
+		/** Move and wish directions of the ghosts. */
+		GHOST_DIRS,
+		/** States of the ghosts. */
+		GHOST_STATES,
+		/** Target tiles of the ghosts. */
+		GHOST_TARGETS,
+		/** Dot counters, Elroy modes and bounties of the ghosts. */
+		GHOST_COUNTERS,
+		/** Bonus symbol, position and timers. */
+		BONUS,
+		/** Global dot counter and ghost bounty. */
+		GLOBAL_COUNTERS;
+
+		public static final Field[] ALL = values();
+	}
+
+	private final PacManGameController controller;
+
+	public StateHasher(PacManGameController controller) {
+		this.controller = controller;
+	}
+
+	/**
+	 * Computes the hash codes of the current game state.
+	 *
+	 * @param hashes array receiving the hash code of each field, indexed by the field ordinals
+	 */
+	public void hash(int[] hashes) {
+		for (Field field : Field.ALL) {
+			hashes[field.ordinal()] = hash(field);
+		}
+	}
+
+	/**
+	 * @param field a part of the game state
+	 * @return the hash code of this part of the current game state
+	 */
+	public int hash(Field field) {
+		AbstractGameModel game = controller.game();
+		int h = 17;
+		switch (field) {
+		case GAME_STATE:
+			h = mix(h, controller.state == null ? -1 : controller.state.ordinal());
+			h = mix(h, controller.isAttractMode());
+			return mix(h, controller.isGameRunning());
+		case STATE_TIMER:
+			return controller.state == null ? h : mix(h, controller.stateTimer());
+		case HUNTING_PHASE:
+			return mix(h, controller.huntingPhase());
+		case SCORE:
+			h = mix(h, game.score);
+			return mix(h, game.lives);
+		case LEVEL:
+			h = mix(h, game.currentLevelNumber);
+			return mix(h, game.intermissionNumber);
+		case FOOD:
+			if (game.currentLevel != null) {
+				h = mix(h, game.currentLevel.foodRemaining);
+				h = mix(h, game.currentLevel.eatenFoodHash());
+			}
+			return h;
+		case PLAYER_POSITION:
+			return mixPosition(h, game.player);
+		case PLAYER_DIR:
+			return mixDirs(h, game.player);
+		case PLAYER_MOTION:
+			h = mix(h, game.player.speed);
+			h = mix(h, game.player.restingTicksLeft);
+			h = mix(h, game.player.starvingTicks);
+			h = mix(h, game.player.stuck);
+			return mix(h, game.player.dead);
+		case PLAYER_POWER:
+			return mix(h, game.player.powerTimer);
+		case GHOST_POSITIONS:
+			for (Ghost ghost : game.ghosts) {
+				h = mixPosition(h, ghost);
+			}
+			return h;
+		case GHOST_DIRS:
+			for (Ghost ghost : game.ghosts) {
+				h = mixDirs(h, ghost);
+			}
+			return h;
+		case GHOST_STATES:
+			for (Ghost ghost : game.ghosts) {
+				h = mix(h, ghost.state == null ? -1 : ghost.state.ordinal());
+			}
+			return h;
+		case GHOST_TARGETS:
+			for (Ghost ghost : game.ghosts) {
+				h = mix(h, ghost.targetTile);
+			}
+			return h;
+		case GHOST_COUNTERS:
+			for (Ghost ghost : game.ghosts) {
+				h = mix(h, ghost.dotCounter);
+				h = mix(h, ghost.elroy);
+				h = mix(h, ghost.bounty);
+			}
+			return h;
+		case BONUS:
+			PacManBonus bonus = game.bonus;
+			h = mixPosition(h, bonus);
+			h = mix(h, bonus.visible);
+			h = mix(h, bonus.symbol);
+			h = mix(h, bonus.points);
+			h = mix(h, bonus.edibleTicksLeft);
+			return mix(h, bonus.eatenTicksLeft);
+		case GLOBAL_COUNTERS:
+			h = mix(h, game.globalDotCounter);
+			h = mix(h, game.globalDotCounterEnabled);
+			return mix(h, game.ghostBounty);
+		default:
+			throw new IllegalArgumentException("Unknown field: " + field);
+		}
+	}
+
+	/**
+	 * @param field a part of the game state
+	 * @return readable text of this part of the current game state
+	 */
+	public String describe(Field field) {
+		AbstractGameModel game = controller.game();
+		StringBuilder text = new StringBuilder();
+		switch (field) {
+		case GAME_STATE:
+			return String.format("%s attractMode=%s gameRunning=%s", controller.state, controller.isAttractMode(),
+					controller.isGameRunning());
+		case STATE_TIMER:
+			return describe(controller.stateTimer());
+		case HUNTING_PHASE:
+			return String.valueOf(controller.huntingPhase());
+		case SCORE:
+			return String.format("score=%d lives=%d", game.score, game.lives);
+		case LEVEL:
+			return String.format("level=%d intermission=%d", game.currentLevelNumber, game.intermissionNumber);
+		case FOOD:
+			return game.currentLevel == null ? "no level"
+					: String.format("remaining=%d eaten=%d", game.currentLevel.foodRemaining,
+							game.currentLevel.eatenFoodCount());
+		case PLAYER_POSITION:
+			return describePosition(game.player);
+		case PLAYER_DIR:
+			return describeDirs(game.player);
+		case PLAYER_MOTION:
+			return String.format("speed=%s resting=%d starving=%d stuck=%s dead=%s", game.player.speed,
+					game.player.restingTicksLeft, game.player.starvingTicks, game.player.stuck, game.player.dead);
+		case PLAYER_POWER:
+			return describe(game.player.powerTimer);
+		case GHOST_POSITIONS:
+			for (Ghost ghost : game.ghosts) {
+				text.append(ghost.name).append(' ').append(describePosition(ghost)).append("; ");
+			}
+			return text.toString();
+		case GHOST_DIRS:
+			for (Ghost ghost : game.ghosts) {
+				text.append(ghost.name).append(' ').append(describeDirs(ghost)).append("; ");
+			}
+			return text.toString();
+		case GHOST_STATES:
+			for (Ghost ghost : game.ghosts) {
+				text.append(ghost.name).append(' ').append(ghost.state).append("; ");
+			}
+			return text.toString();
+		case GHOST_TARGETS:
+			for (Ghost ghost : game.ghosts) {
+				text.append(ghost.name).append(' ').append(ghost.targetTile).append("; ");
+			}
+			return text.toString();
+		case GHOST_COUNTERS:
+			for (Ghost ghost : game.ghosts) {
+				text.append(String.format("%s dots=%d elroy=%d bounty=%d; ", ghost.name, ghost.dotCounter, ghost.elroy,
+						ghost.bounty));
+			}
+			return text.toString();
+		case BONUS:
+			PacManBonus bonus = game.bonus;
+			return String.format("%s visible=%s symbol=%d points=%d edible=%d eaten=%d", describePosition(bonus),
+					bonus.visible, bonus.symbol, bonus.points, bonus.edibleTicksLeft, bonus.eatenTicksLeft);
+		case GLOBAL_COUNTERS:
+			return String.format("globalDotCounter=%d enabled=%s ghostBounty=%d", game.globalDotCounter,
+					game.globalDotCounterEnabled, game.ghostBounty);
+		default:
+			throw new IllegalArgumentException("Unknown field: " + field);
+		}
+	}
+
+	private static String describe(TickTimer timer) {
+		return String.format("ticked=%d duration=%d running=%s", timer.ticked(), timer.duration(), timer.isRunning());
+	}
+
+	private static String describePosition(Creature creature) {
+		return String.format("(%s,%s) tile=%s", creature.position.x, creature.position.y, creature.tile());
+	}
+
+	private static String describeDirs(Creature creature) {
+		return String.format("dir=%s wishDir=%s", creature.dir, creature.wishDir);
+	}
+
+	private static int mix(int h, int value) {
+		return 31 * h + value;
+	}
+
+	private static int mix(int h, long value) {
+		return mix(h, Long.hashCode(value));
+	}
+
+	private static int mix(int h, double value) {
+		return mix(h, Double.hashCode(value));
+	}
+
+	private static int mix(int h, boolean value) {
+		return mix(h, value ? 1 : 0);
+	}
+
+	private static int mix(int h, V2i tile) {
+		return tile == null ? mix(h, -1) : mix(mix(h, tile.x), tile.y);
+	}
+
+	private static int mix(int h, TickTimer timer) {
+		h = mix(h, timer.ticked());
+		h = mix(h, timer.duration());
+		return mix(h, timer.isRunning());
+	}
+
+	private static int mixPosition(int h, Creature creature) {
+		return mix(mix(h, creature.position.x), creature.position.y);
+	}
+
+	private static int mixDirs(int h, Creature creature) {
+		return mix(mix(h, creature.dir.ordinal()), creature.wishDir.ordinal());
+	}
+}
@@ -0,0 +1,55 @@
+package de.amr.games.pacman.controller.trace;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import de.amr.games.pacman.controller.trace.StateHasher.Field;
+
+/**
+ * The first clock tick where a game run differs from a recorded trace, with the differing fields.
+ */
+public class TraceDivergence {
+
+	/**
+	 * A field of the game state which differs from the recorded trace.
+	 */
+	public static class FieldDifference {
+
+		public final Field field;
+		public final int expectedHash;
+		public final int actualHash;
+		public final String actualState;
+
+		public FieldDifference(Field field, int expectedHash, int actualHash, String actualState) {
+			this.field = field;
+			this.expectedHash = expectedHash;
+			this.actualHash = actualHash;
+			this.actualState = actualState;
+		}
+	}
+
+	public final GameTrace trace;
+	public final long tick;
+	public final String gameState;
+	public final List<FieldDifference> differences = new ArrayList<>();
+
+	public TraceDivergence(GameTrace trace, long tick, String gameState) {
+		this.trace = trace;
+		this.tick = tick;
+		this.gameState = gameState;
+	}
+
+	/**
+	 * @return multi-line report of the divergence
+	 */
+	public String report() {
+		StringBuilder report = new StringBuilder();
+		report.append(String.format("%s (seed %d, %d ghosts): first divergence at tick %d of %d, game state %s%n",
+				trace.variant, trace.seed, trace.ghostCount, tick, trace.numTicks(), gameState));
+		for (FieldDifference difference : differences) {
+			report.append(String.format("  %-16s expected %08x, actual %08x: %s%n", difference.field,
+					difference.expectedHash, difference.actualHash, difference.actualState));
+		}
+		return report.toString();
+	}
+}
@@ -0,0 +1,109 @@
+package de.amr.games.pacman.controller.trace;
+
+import de.amr.games.pacman.controller.PacManGameController;
+import de.amr.games.pacman.controller.trace.StateHasher.Field;
+import de.amr.games.pacman.controller.trace.TraceDivergence.FieldDifference;
+import de.amr.games.pacman.lib.GameRandom;
+import de.amr.games.pacman.model.common.GameVariant;
+import de.amr.games.pacman.ui.HeadlessPacManGameUI;
+import de.amr.games.pacman.ui.InputScript;
+
+/**
+ * Runs a headless game and hashes the game state after each clock tick.
+ * <p>
+ * The run only depends on the game variant, the seed of the {@link GameRandom game random
+ * generator}, the number of ghosts and the keyboard input, so recording a trace and comparing a
+ * later run with it shows if a change of the code has changed the behavior of the game.
+ */
+public class TraceRecorder {
+
+	private final PacManGameController controller;
+	private final HeadlessPacManGameUI ui;
+	private final StateHasher hasher;
+	private final int[] hashes = new int[Field.ALL.length];
+
+	/**
+	 * Creates a new game controller and starts the game.
+	 *
+	 * @param variant     game variant
+	 * @param seed        seed of the game random generator
+	 * @param ghostCount  number of ghosts
+	 * @param inputScript keyboard input
+	 */
+	public TraceRecorder(GameVariant variant, long seed, int ghostCount, InputScript inputScript) {
+		GameRandom.seed(seed);
+		controller = new PacManGameController();
+		controller.ghostCount = ghostCount;
+		ui = new HeadlessPacManGameUI(controller, inputScript);
+		hasher = new StateHasher(controller);
+		controller.play(variant);
+	}
+
+	/**
+	 * Runs the next clock tick and hashes the game state.
+	 *
+	 * @return the hash of each field, indexed by the field ordinals, valid until the next step
+	 */
+	public int[] step() {
+		ui.step();
+		hasher.hash(hashes);
+		return hashes;
+	}
+
+	public PacManGameController controller() {
+		return controller;
+	}
+
+	public StateHasher hasher() {
+		return hasher;
+	}
+
+	/**
+	 * Records a trace.
+	 *
+	 * @param variant     game variant
+	 * @param seed        seed of the game random generator
+	 * @param ghostCount  number of ghosts
+	 * @param inputScript keyboard input
+	 * @param numTicks    number of clock ticks to record
+	 * @return the trace
+	 */
+	public static GameTrace record(GameVariant variant, long seed, int ghostCount, InputScript inputScript,
+			int numTicks) {
+		GameTrace trace = new GameTrace(variant, seed, ghostCount, inputScript);
+		TraceRecorder recorder = new TraceRecorder(variant, seed, ghostCount, inputScript);
+		for (int tick = 0; tick < numTicks; ++tick) {
+			trace.add(recorder.step());
+		}
+		return trace;
+	}
+
+	/**
+	 * Repeats the run of a recorded trace and compares the game state tick by tick. The run stops at
+	 * the first tick where any field differs.
+	 *
+	 * @param trace recorded trace
+	 * @return the first divergence or {@code null} if the run matches the trace
+	 */
+	public static TraceDivergence verify(GameTrace trace) {
+		TraceRecorder recorder = new TraceRecorder(trace.variant, trace.seed, trace.ghostCount, trace.inputScript);
+		for (int tick = 0; tick < trace.numTicks(); ++tick) {
+			int[] actual = recorder.step();
+			TraceDivergence divergence = null;
+			for (Field field : Field.ALL) {
+				int expected = trace.hash(tick, field);
+				if (actual[field.ordinal()] != expected) {
+					if (divergence == null) {
+						divergence = new TraceDivergence(trace, tick, recorder.hasher.describe(Field.GAME_STATE));
+					}
+					divergence.differences
+							.add(new FieldDifference(field, expected, actual[field.ordinal()], recorder.hasher.describe(field)));
+				}
+			}
+			if (divergence != null) {
+				return divergence;
+			}
+		}
+		return null;
+	}
+}
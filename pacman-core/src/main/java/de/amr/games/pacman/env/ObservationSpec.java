@@ -0,0 +1,104 @@
+package de.amr.games.pacman.env;
+
+import de.amr.games.pacman.model.common.GhostState;
+
+/**
+ * Layout of the observations of a {@link PacManEnv}.
+ * <p>
+ * An observation is a stack of tile maps (channels), stored channel by channel and row by row in a
+ * float array: the value of channel <code>c</code> at tile <code>(col, row)</code> is at index
+ * <code>(c * numRows + row) * numCols + col</code>.
+ * <p>
+ * Channels:
+ * <ul>
+ * <li>{@link #WALLS}: 1 for walls and the ghost house door
+ * <li>{@link #FOOD}: 1 for pellets not eaten yet
+ * <li>{@link #ENERGIZERS}: 1 for energizers not eaten yet
+ * <li>{@link #PAC_MAN}: 1 at the tile of Pac-Man
+ * <li>{@link #BONUS}: 1 at the tile of the edible bonus
+ * <li>{@link #GHOSTS} + <code>state.ordinal()</code>: number of ghosts in this {@link GhostState}
+ * on the tile
+ * </ul>
+ * Creatures in the portal tunnels outside of the map are shown at the nearest tile of the map.
+ */
+public class ObservationSpec {
+
+	public static final int WALLS = 0;
+	public static final int FOOD = 1;
+	public static final int ENERGIZERS = 2;
+	public static final int PAC_MAN = 3;
+	public static final int BONUS = 4;
+	public static final int GHOSTS = 5;
+
+	private static final GhostState[] GHOST_STATES = GhostState.values();
+
+	public final int numChannels = GHOSTS + GHOST_STATES.length;
+	public final int numRows;
+	public final int numCols;
+
+	public ObservationSpec(int numCols, int numRows) {
+		this.numCols = numCols;
+		this.numRows = numRows;
+	}
+
+	/**
+	 * @param ghostState a ghost state
+	 * @return the channel of the ghosts in this state
+	 */
+	public static int ghostChannel(GhostState ghostState) {
+		return GHOSTS + ghostState.ordinal();
+	}
+
+	/**
+	 * @param channel a channel
+	 * @return name of the channel, e.g. "GHOSTS_FRIGHTENED"
+	 */
+	public String channelName(int channel) {
+		switch (channel) {
+		case WALLS:
+			return "WALLS";
+		case FOOD:
+			return "FOOD";
+		case ENERGIZERS:
+			return "ENERGIZERS";
+		case PAC_MAN:
+			return "PAC_MAN";
+		case BONUS:
+			return "BONUS";
+		default:
+			if (channel < GHOSTS || channel >= numChannels) {
+				throw new IllegalArgumentException("Illegal channel: " + channel);
+			}
+			return "GHOSTS_" + GHOST_STATES[channel - GHOSTS];
+		}
+	}
+
+	/**
+	 * @return number of tiles of one channel
+	 */
+	public int channelSize() {
+		return numRows * numCols;
+	}
+
+	/**
+	 * @return number of values of an observation
+	 */
+	public int size() {
+		return numChannels * channelSize();
+	}
+
+	/**
+	 * @param channel channel
+	 * @param col     tile column
+	 * @param row     tile row
+	 * @return index of the value in the observation array
+	 */
+	public int index(int channel, int col, int row) {
+		return (channel * numRows + row) * numCols + col;
+	}
+
+	@Override
+	public String toString() {
+		return String.format("ObservationSpec[%d channels x %d rows x %d cols]", numChannels, numRows, numCols);
+	}
+}
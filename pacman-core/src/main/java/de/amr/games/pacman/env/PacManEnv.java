@@ -0,0 +1,286 @@
+package de.amr.games.pacman.env;
+
+import static de.amr.games.pacman.controller.PacManGameState.GAME_OVER;
+import static de.amr.games.pacman.controller.PacManGameState.HUNTING;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import de.amr.games.pacman.controller.PacManGameController;
+import de.amr.games.pacman.controller.PacManGameState;
+import de.amr.games.pacman.controller.event.PacManGameEvent;
+import de.amr.games.pacman.controller.event.PacManGameStateChangedEvent;
+import de.amr.games.pacman.lib.GameRandom;
+import de.amr.games.pacman.lib.V2i;
+import de.amr.games.pacman.model.common.AbstractGameModel;
+import de.amr.games.pacman.model.common.Creature;
+import de.amr.games.pacman.model.common.GameVariant;
+import de.amr.games.pacman.model.common.Ghost;
+import de.amr.games.pacman.model.world.PacManGameWorld;
+import de.amr.games.pacman.ui.PacManGameUI;
+
+/**
+ * Reinforcement learning environment: an agent plays Pac-Man against the ghosts of a game variant,
+ * e.g. the original ghosts ({@link GameVariant#PACMAN}), {@link GameVariant#OCCUPANCY} or
+ * {@link GameVariant#INDIVIDUALS}.
+ * <p>
+ * An episode is one game, from {@link #reset(long, float[])} until game over. Each
+ * {@link #step(int, float[])} runs one clock tick in which Pac-Man can move. The intro, the ready
+ * and dying delays, the level complete animation and the intermissions are skipped, the ticks
+ * while a killed ghost is shown run inside the step which killed the ghost.
+ * <p>
+ * The observation is written into an array provided by the caller, see {@link ObservationSpec},
+ * and the step result is reused, so steps do not allocate. The game is determined by the seed
+ * given to {@link #reset(long, float[])} and the actions. Each environment has its own random
+ * generator, so several environments can be stepped in one thread or in parallel threads, but an
+ * environment must not be used by two threads at the same time. For long training runs,
+ * logging should be switched off by {@link de.amr.games.pacman.lib.Logging#enabled}.
+ */
+public class PacManEnv {
+
+	/** Keep the current direction. */
+	public static final int ACTION_NONE = 0;
+	public static final int ACTION_LEFT = 1;
+	public static final int ACTION_RIGHT = 2;
+	public static final int ACTION_UP = 3;
+	public static final int ACTION_DOWN = 4;
+	public static final int NUM_ACTIONS = 5;
+
+	private static final String[] ACTION_KEYS = { null, "Left", "Right", "Up", "Down" };
+
+	/*
+	 * The user interface of the environment: presses the key of the current action, starts the game
+	 * in the intro and lets the timers of the states without player control expire immediately.
+	 */
+	private class EnvUI implements PacManGameUI {
+
+		String pressedKey;
+		int deaths;
+
+		@Override
+		public void onGameEvent(PacManGameEvent event) {
+			if (event instanceof PacManGameStateChangedEvent) {
+				switch (((PacManGameStateChangedEvent) event).newGameState) {
+				case PACMAN_DYING:
+					++deaths;
+					controller.stateTimer().forceExpiration();
+					break;
+				case READY:
+				case LEVEL_COMPLETE:
+				case LEVEL_STARTING:
+				case INTERMISSION:
+					controller.stateTimer().forceExpiration();
+					break;
+				default:
+					break;
+				}
+			}
+		}
+
+		@Override
+		public void reset() {
+			pressedKey = null;
+			deaths = 0;
+		}
+
+		@Override
+		public void update() {
+		}
+
+		@Override
+		public void showFlashMessage(String message, double seconds) {
+		}
+
+		@Override
+		public boolean keyPressed(String keySpec) {
+			if (controller.state == PacManGameState.INTRO) {
+				return keySpec.equals("Space");
+			}
+			return keySpec.equals(pressedKey);
+		}
+	}
+
+	public final GameVariant variant;
+
+	/** Maximum number of steps of an episode, 0 means no limit. */
+	public long maxEpisodeSteps;
+
+	private final PacManGameController controller;
+	private final EnvUI ui = new EnvUI();
+	private final ObservationSpec spec;
+	private final StepResult result = new StepResult();
+	private final Random random = new Random();
+
+	// walls, food and energizers of the world at the start of a level and the food tiles
+	private PacManGameWorld observedWorld;
+	private float[] worldChannels;
+	private int[] foodTiles;
+	private boolean[] energizer;
+
+	/**
+	 * @param variant game variant, defines the ghosts' hunting strategy
+	 */
+	public PacManEnv(GameVariant variant) {
+		this(variant, 4);
+	}
+
+	/**
+	 * @param variant    game variant, defines the ghosts' hunting strategy
+	 * @param ghostCount number of ghosts, more than 4 ghosts play in swarm mode
+	 */
+	public PacManEnv(GameVariant variant, int ghostCount) {
+		this.variant = variant;
+		controller = new PacManGameController();
+		controller.ghostCount = ghostCount;
+		controller.userInterface = ui;
+		controller.addGameEventListener(ui);
+		controller.play(variant);
+		PacManGameWorld world = game().currentLevel.world;
+		spec = new ObservationSpec(world.numCols(), world.numRows());
+		result.done = true;
+	}
+
+	public ObservationSpec observationSpec() {
+		return spec;
+	}
+
+	public PacManGameController controller() {
+		return controller;
+	}
+
+	private AbstractGameModel game() {
+		return controller.game();
+	}
+
+	/**
+	 * Starts a new episode.
+	 *
+	 * @param seed        seed of the game random generator
+	 * @param observation array of at least {@link ObservationSpec#size()} values receiving the first
+	 *                    observation
+	 * @return the result with reward 0
+	 */
+	public StepResult reset(long seed, float[] observation) {
+		random.setSeed(seed);
+		GameRandom.use(random);
+		ui.reset();
+		controller.play(variant);
+		runUntilPlayerControl();
+		result.reward = 0;
+		result.done = false;
+		result.truncated = false;
+		result.livesLost = 0;
+		result.steps = 0;
+		update(observation);
+		return result;
+	}
+
+	/**
+	 * Runs one step of the episode.
+	 *
+	 * @param action      one of the <code>ACTION_</code> constants, the new move direction of Pac-Man
+	 * @param observation array of at least {@link ObservationSpec#size()} values receiving the
+	 *                    observation after the step
+	 * @return the result of the step, valid until the next step or reset
+	 */
+	public StepResult step(int action, float[] observation) {
+		if (result.done) {
+			throw new IllegalStateException("Episode has ended, the environment must be reset");
+		}
+		if (action < 0 || action >= NUM_ACTIONS) {
+			throw new IllegalArgumentException("Illegal action: " + action);
+		}
+		GameRandom.use(random);
+		int score = game().score;
+		int deaths = ui.deaths;
+		ui.pressedKey = ACTION_KEYS[action];
+		controller.step();
+		ui.pressedKey = null;
+		runUntilPlayerControl();
+		result.reward = game().score - score;
+		result.livesLost = ui.deaths - deaths;
+		result.steps++;
+		result.done = controller.state == GAME_OVER;
+		result.truncated = !result.done && maxEpisodeSteps > 0 && result.steps >= maxEpisodeSteps;
+		result.done |= result.truncated;
+		update(observation);
+		return result;
+	}
+
+	private void runUntilPlayerControl() {
+		while (controller.state != HUNTING && controller.state != GAME_OVER) {
+			controller.step();
+		}
+	}
+
+	private void update(float[] observation) {
+		AbstractGameModel game = game();
+		result.score = game.score;
+		result.lives = game.lives;
+		result.level = game.currentLevelNumber;
+		observe(observation);
+	}
+
+	private void observe(float[] observation) {
+		if (observation.length < spec.size()) {
+			throw new IllegalArgumentException(
+					String.format("Observation array too small: %d values, %d needed", observation.length, spec.size()));
+		}
+		AbstractGameModel game = game();
+		PacManGameWorld world = game.currentLevel.world;
+		if (world != observedWorld) {
+			observeWorld(world);
+		}
+		int channelSize = spec.channelSize();
+		System.arraycopy(worldChannels, 0, observation, 0, worldChannels.length);
+		for (int i = 0; i < foodTiles.length; ++i) {
+			if (game.currentLevel.isFoodRemoved(foodTiles[i])) {
+				observation[(energizer[i] ? ObservationSpec.ENERGIZERS : ObservationSpec.FOOD) * channelSize
+						+ foodTiles[i]] = 0;
+			}
+		}
+		Arrays.fill(observation, ObservationSpec.PAC_MAN * channelSize, spec.size(), 0);
+		mark(observation, ObservationSpec.PAC_MAN, game.player);
+		if (game.bonus.edibleTicksLeft > 0) {
+			mark(observation, ObservationSpec.BONUS, game.bonus);
+		}
+		for (Ghost ghost : game.ghosts) {
+			if (ghost.state != null) {
+				mark(observation, ObservationSpec.ghostChannel(ghost.state), ghost);
+			}
+		}
+	}
+
+	private void mark(float[] observation, int channel, Creature creature) {
+		int col = Math.max(0, Math.min(creature.tileX(), spec.numCols - 1));
+		int row = Math.max(0, Math.min(creature.tileY(), spec.numRows - 1));
+		observation[spec.index(channel, col, row)] += 1;
+	}
+
+	private void observeWorld(PacManGameWorld world) {
+		if (world.numCols() != spec.numCols || world.numRows() != spec.numRows) {
+			throw new IllegalStateException(String.format("World size %dx%d differs from observation size %dx%d",
+					world.numCols(), world.numRows(), spec.numCols, spec.numRows));
+		}
+		worldChannels = new float[ObservationSpec.PAC_MAN * spec.channelSize()];
+		int numFoodTiles = 0;
+		int[] food = new int[spec.channelSize()];
+		boolean[] energizers = new boolean[spec.channelSize()];
+		for (int row = 0; row < spec.numRows; ++row) {
+			for (int col = 0; col < spec.numCols; ++col) {
+				V2i tile = new V2i(col, row);
+				if (world.isWall(tile) || world.isGhostHouseDoor(tile)) {
+					worldChannels[spec.index(ObservationSpec.WALLS, col, row)] = 1;
+				} else if (world.isFoodTile(tile)) {
+					energizers[numFoodTiles] = world.isEnergizerTile(tile);
+					food[numFoodTiles++] = world.index(tile);
+					worldChannels[spec.index(world.isEnergizerTile(tile) ? ObservationSpec.ENERGIZERS : ObservationSpec.FOOD,
+							col, row)] = 1;
+				}
+			}
+		}
+		foodTiles = Arrays.copyOf(food, numFoodTiles);
+		energizer = Arrays.copyOf(energizers, numFoodTiles);
+		observedWorld = world;
+	}
+}
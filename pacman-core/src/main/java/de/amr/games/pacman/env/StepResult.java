@@ -0,0 +1,38 @@
+package de.amr.games.pacman.env;
+
+/**
+ * Result of a step of a {@link PacManEnv}. The environment reuses the same instance for each
+ * step, so the values are valid until the next step or reset.
+ */
+public class StepResult {
+
+	/** Points scored in this step. */
+	public double reward;
+
+	/** If the episode has ended, by game over or by reaching the step limit. */
+	public boolean done;
+
+	/** If the episode has been ended by reaching the step limit and not by game over. */
+	public boolean truncated;
+
+	/** Number of lives lost in this step. */
+	public int livesLost;
+
+	/** Score of the game. */
+	public int score;
+
+	/** Remaining lives. */
+	public int lives;
+
+	/** Game level number, counting from 1. */
+	public int level;
+
+	/** Number of steps since the last reset. */
+	public long steps;
+
+	@Override
+	public String toString() {
+		return String.format("StepResult[reward=%s done=%s truncated=%s livesLost=%d score=%d lives=%d level=%d steps=%d]",
+				reward, done, truncated, livesLost, score, lives, level, steps);
+	}
+}
@@ -22,7 +22,7 @@ public enum Direction {
 
 	public static List<Direction> shuffled() {
 		List<Direction> dirs = Arrays.asList(values());
-		Collections.shuffle(dirs);
+		Collections.shuffle(dirs, GameRandom.get());
 		return dirs;
 	}
 
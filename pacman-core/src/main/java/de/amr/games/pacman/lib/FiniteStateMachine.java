@@ -2,13 +2,8 @@ package de.amr.games.pacman.lib;
 
 import static de.amr.games.pacman.lib.Logging.log;
 
-import java.lang.reflect.InvocationTargetException;
-import java.util.ArrayList;
-import java.util.EnumMap;
-import java.util.List;
-import java.util.Map;
+import java.util.Arrays;
 import java.util.function.BiConsumer;
-import java.util.stream.Stream;
 
 /**
  * Finite-state machine, a graph of vertices (states) connected by transitions.
@@ -16,6 +11,13 @@ import java.util.stream.Stream;
  * {@link #changeState(Enum)} method.
  * <p>
  * Each transition triggers firing of a state change event.
+ * <p>
+ * State data is stored in an array indexed by the ordinal of the state and the listeners are
+ * stored in an array that is replaced when a listener is added or removed, so changing and
+ * updating the state does not allocate any objects.
+ * <p>
+ * If the state machine is created with a {@link TimerWheel}, the state timers are driven by the
+ * wheel which is ticked once per state update, instead of ticking the timer of the current state.
  * 
  * @author Armin Reichert
  * 
@@ -23,23 +25,14 @@ import java.util.stream.Stream;
  */
 public class FiniteStateMachine<S extends Enum<S>> {
 
-	@SuppressWarnings({ "unchecked" })
-	private static <STATE_KEY extends Enum<STATE_KEY>> Map<STATE_KEY, Vertex> createStateMap(Class<STATE_KEY> keyClass,
-			STATE_KEY[] stateKeys) {
-		try {
-			EnumMap<STATE_KEY, Vertex> enumMap = EnumMap.class.getDeclaredConstructor(Class.class)
-					.newInstance(keyClass);
-			return enumMap;
-		} catch (InstantiationException | IllegalAccessException | IllegalArgumentException | InvocationTargetException
-				| NoSuchMethodException | SecurityException x) {
-			throw new RuntimeException(x);
-		}
-	}
-
 	private static class Vertex {
 
-		public final TickTimer timer = new TickTimer();
+		public final TickTimer timer;
 		public Runnable onEnter, onUpdate, onExit;
+
+		public Vertex(TimerWheel wheel) {
+			timer = new TickTimer(wheel);
+		}
 	}
 
 	public static boolean logging = true;
@@ -47,26 +40,62 @@ public class FiniteStateMachine<S extends Enum<S>> {
 	public S previousState;
 	public S state;
 
-	private final Map<S, Vertex> stateMap;
-	private final List<BiConsumer<S, S>> changeListeners = new ArrayList<>();
+	private final Vertex[] vertices;
+	private final TimerWheel timerWheel;
+	private volatile BiConsumer<S, S>[] changeListeners = listenerArray(0);
+
+	@SuppressWarnings("unchecked")
+	private static <S extends Enum<S>> BiConsumer<S, S>[] listenerArray(int length) {
+		return (BiConsumer<S, S>[]) new BiConsumer<?, ?>[length];
+	}
 
 	public FiniteStateMachine(Class<S> enumClass, S[] stateIdentifiers) {
-		stateMap = createStateMap(enumClass, stateIdentifiers);
-		Stream.of(stateIdentifiers).forEach(id -> stateMap.put(id, new Vertex()));
+		this(enumClass, stateIdentifiers, null);
+	}
+
+	/**
+	 * @param enumClass        the enum class of the state identifiers
+	 * @param stateIdentifiers the state identifiers
+	 * @param timerWheel       timer wheel driving the state timers or {@code null} if the timer of
+	 *                         the current state is ticked on each update
+	 */
+	public FiniteStateMachine(Class<S> enumClass, S[] stateIdentifiers, TimerWheel timerWheel) {
+		this.timerWheel = timerWheel;
+		vertices = new Vertex[enumClass.getEnumConstants().length];
+		for (S id : stateIdentifiers) {
+			vertices[id.ordinal()] = new Vertex(timerWheel);
+		}
+	}
+
+	/**
+	 * @return the timer wheel driving the state timers or {@code null}
+	 */
+	public TimerWheel timerWheel() {
+		return timerWheel;
 	}
 
 	public void configure(S gameState, Runnable onEnter, Runnable onUpdate, Runnable onExit) {
-		vertex(gameState).onEnter = onEnter;
-		vertex(gameState).onUpdate = onUpdate;
-		vertex(gameState).onExit = onExit;
+		Vertex vertex = vertex(gameState);
+		vertex.onEnter = onEnter;
+		vertex.onUpdate = onUpdate;
+		vertex.onExit = onExit;
 	}
 
-	public void addStateChangeListener(BiConsumer<S, S> listener) {
-		changeListeners.add(listener);
+	public synchronized void addStateChangeListener(BiConsumer<S, S> listener) {
+		BiConsumer<S, S>[] listeners = Arrays.copyOf(changeListeners, changeListeners.length + 1);
+		listeners[listeners.length - 1] = listener;
+		changeListeners = listeners;
 	}
 
-	public void removeStateChangeListener(BiConsumer<S, S> listener) {
-		changeListeners.remove(listener);
+	public synchronized void removeStateChangeListener(BiConsumer<S, S> listener) {
+		BiConsumer<S, S>[] listeners = listenerArray(changeListeners.length);
+		int n = 0;
+		for (BiConsumer<S, S> l : changeListeners) {
+			if (l != listener) {
+				listeners[n++] = l;
+			}
+		}
+		changeListeners = Arrays.copyOf(listeners, n);
 	}
 
 	public S changeState(S newState) {
@@ -75,8 +104,13 @@ public class FiniteStateMachine<S extends Enum<S>> {
 			if (logging) {
 				log("Exit game state %s", state);
 			}
-			if (vertex(state).onExit != null) {
-				vertex(state).onExit.run();
+			Vertex vertex = vertex(state);
+			if (vertex.onExit != null) {
+				vertex.onExit.run();
+			}
+			if (timerWheel != null) {
+				// a manually ticked timer stops counting when its state is left
+				vertex.timer.stop();
 			}
 		}
 		previousState = state;
@@ -84,10 +118,11 @@ public class FiniteStateMachine<S extends Enum<S>> {
 		if (logging) {
 			log("Enter game state %s", state);
 		}
-		vertex(state).timer.reset();
-		vertex(state).timer.start();
-		if (vertex(state).onEnter != null) {
-			vertex(state).onEnter.run();
+		Vertex vertex = vertex(state);
+		vertex.timer.reset();
+		vertex.timer.start();
+		if (vertex.onEnter != null) {
+			vertex.onEnter.run();
 		}
 		fireStateChange(previousState, state);
 		return newState;
@@ -98,24 +133,33 @@ public class FiniteStateMachine<S extends Enum<S>> {
 	}
 
 	private Vertex vertex(S id) {
-		return stateMap.get(id);
+		return vertices[id.ordinal()];
 	}
 
 	protected void fireStateChange(S oldState, S newState) {
-		// create copy to avoid concurrent modification
-		new ArrayList<>(changeListeners).stream().forEach(listener -> listener.accept(oldState, newState));
+		// listeners added or removed by a listener are not affected by this state change
+		for (BiConsumer<S, S> listener : changeListeners) {
+			listener.accept(oldState, newState);
+		}
 	}
 
 	public void updateState() {
 		try {
-			if (vertex(state).onUpdate != null) {
-				vertex(state).onUpdate.run();
+			Vertex vertex = vertex(state);
+			if (vertex.onUpdate != null) {
+				vertex.onUpdate.run();
 			}
+			// the update may have changed the state, the timer of the current state is ticked
 			TickTimer stateTimer = vertex(state).timer;
 			if (!stateTimer.isRunning() && !stateTimer.hasExpired()) { // TODO check this
 				stateTimer.start();
 			}
-			stateTimer.tick();
+			if (timerWheel != null) {
+				// a timer started in this tick counts its first tick now, as when ticked manually
+				timerWheel.tick();
+			} else {
+				stateTimer.tick();
+			}
 		} catch (Exception x) {
 			Logging.log("Error updating state %s", state);
 			x.printStackTrace();
@@ -131,4 +175,4 @@ public class FiniteStateMachine<S extends Enum<S>> {
 		}
 		changeState(previousState);
 	}
-}
\ No newline at end of file
+}
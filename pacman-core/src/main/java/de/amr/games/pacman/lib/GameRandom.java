@@ -0,0 +1,47 @@
+package de.amr.games.pacman.lib;
+
+import java.util.Random;
+
+/**
+ * The random generator of the game.
+ * <p>
+ * All random decisions of the game model and controller (ghosts wandering, bonus timing and
+ * placement, escape directions of the autopilot etc.) are drawn from this generator, so a game can
+ * be replayed tick by tick by seeding it with the same seed before the game starts.
+ * <p>
+ * Each thread has its own generator, so several games can run in parallel threads (e.g. headless
+ * training environments) and each of them is still determined by its seed.
+ */
+public class GameRandom {
+
+	private static final ThreadLocal<Random> RANDOM = ThreadLocal.withInitial(Random::new);
+
+	private GameRandom() {
+	}
+
+	/**
+	 * @return the random generator of the game in the current thread
+	 */
+	public static Random get() {
+		return RANDOM.get();
+	}
+
+	/**
+	 * Replaces the random generator of the current thread by one with the given seed.
+	 *
+	 * @param seed seed
+	 */
+	public static void seed(long seed) {
+		RANDOM.set(new Random(seed));
+	}
+
+	/**
+	 * Makes the given generator the random generator of the current thread, e.g. to run several
+	 * games in one thread, each with its own generator.
+	 *
+	 * @param random random generator
+	 */
+	public static void use(Random random) {
+		RANDOM.set(random);
+	}
+}
@@ -10,7 +10,10 @@ import java.time.ZonedDateTime;
 import java.util.Properties;
 
 /**
- * Hiscore management.
+ * Hiscore stored in an XML properties file.
+ * <p>
+ * Hiscores are now recorded in a {@link HiscoreStore}, this class is only used to import the
+ * hiscore files of older versions.
  * 
  * @author Armin Reichert
  *
@@ -0,0 +1,411 @@
+package de.amr.games.pacman.lib;
+
+import static de.amr.games.pacman.lib.Logging.log;
+import static java.nio.file.StandardCopyOption.ATOMIC_MOVE;
+import static java.nio.file.StandardCopyOption.REPLACE_EXISTING;
+import static java.nio.file.StandardOpenOption.CREATE;
+import static java.nio.file.StandardOpenOption.READ;
+import static java.nio.file.StandardOpenOption.TRUNCATE_EXISTING;
+import static java.nio.file.StandardOpenOption.WRITE;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZonedDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.CRC32;
+
+/**
+ * Append-only hiscore log with an in-memory leaderboard per table (game variant).
+ * <p>
+ * Each score is appended as a binary record protected by a CRC32 checksum and the file is synced
+ * before the append returns, so a crash can at most lose the record being written. A torn or
+ * corrupt record at the end of the file is ignored when reading and cut off by the next append.
+ * <p>
+ * The file is read completely once when the store is opened. Afterwards, only the records
+ * appended by other processes since the last access are read. Appending and compacting take an
+ * exclusive lock on the file, so several processes (e.g. headless game sessions) can record scores
+ * concurrently.
+ * <p>
+ * When the file contains many more records than the leaderboards, it is compacted: the
+ * leaderboards are written to a temporary file which atomically replaces the log. Processes still
+ * holding the old file notice the replacement when they acquire the lock and reopen the file.
+ * <p>
+ * There is one store per file in a JVM, see {@link #open(Path)}: file locks are held by the JVM, so
+ * two stores of the same file would fail to lock it when used by two threads at the same time.
+ * <p>
+ * If the file cannot be used, the store logs the error and keeps the scores in memory only.
+ *
+ * @author Armin Reichert
+ */
+public class HiscoreStore {
+
+	/** Default number of entries per leaderboard. */
+	public static final int DEFAULT_CAPACITY = 10;
+
+	private static final int MAGIC = 0x50484953; // "PHIS"
+	private static final int VERSION = 1;
+	private static final int HEADER_BYTES = 8;
+	private static final int MAX_PAYLOAD_BYTES = 512;
+
+	private static final Map<Path, HiscoreStore> STORES = new HashMap<>();
+
+	/**
+	 * A leaderboard entry.
+	 */
+	public static class Entry {
+
+		public final String table;
+		public final int points;
+		public final int level;
+		public final long epochMillis;
+
+		public Entry(String table, int points, int level, long epochMillis) {
+			this.table = table;
+			this.points = points;
+			this.level = level;
+			this.epochMillis = epochMillis;
+		}
+
+		public ZonedDateTime time() {
+			return Instant.ofEpochMilli(epochMillis).atZone(ZoneId.systemDefault());
+		}
+
+		@Override
+		public String toString() {
+			return String.format("%s: %d points in level %d (%s)", table, points, level, time());
+		}
+	}
+
+	private final Path file;
+	private final int capacity;
+	private final Map<String, List<Entry>> leaderboards = new HashMap<>();
+	private FileChannel channel;
+	private Object fileKey;
+	private long readPosition;
+	private int recordCount;
+
+	/**
+	 * Returns the store of the given file, opening it if it is not open yet. When the store is opened,
+	 * all records of the file are read. The file is created if it does not exist.
+	 *
+	 * @param file     hiscore file
+	 * @param capacity maximum number of entries per leaderboard, ignored if the store is already open
+	 * @return the store of the file, shared by all callers in this JVM
+	 */
+	public static synchronized HiscoreStore open(Path file, int capacity) {
+		return STORES.computeIfAbsent(file.toAbsolutePath().normalize(), path -> new HiscoreStore(path, capacity));
+	}
+
+	public static HiscoreStore open(Path file) {
+		return open(file, DEFAULT_CAPACITY);
+	}
+
+	@SuppressWarnings("try")
+	private HiscoreStore(Path file, int capacity) {
+		this.file = file;
+		this.capacity = capacity;
+		try {
+			open();
+			try (FileLock lock = lock()) {
+				readNewRecords();
+			}
+			log("Hiscore file %s: %d records, %d leaderboards", file, recordCount, leaderboards.size());
+			compactIfBloated();
+		} catch (IOException x) {
+			fail("Could not open hiscore file", x);
+		}
+	}
+
+	public Path file() {
+		return file;
+	}
+
+	/**
+	 * @param table table name, e.g. the game variant
+	 * @return the best entry of the table or {@code null}
+	 */
+	public synchronized Entry best(String table) {
+		List<Entry> entries = leaderboards.get(table);
+		return entries == null || entries.isEmpty() ? null : entries.get(0);
+	}
+
+	/**
+	 * @param table table name, e.g. the game variant
+	 * @return the leaderboard of the table, best entry first
+	 */
+	public synchronized List<Entry> leaderboard(String table) {
+		List<Entry> entries = leaderboards.get(table);
+		return entries == null ? Collections.emptyList() : Collections.unmodifiableList(new ArrayList<>(entries));
+	}
+
+	/**
+	 * Records a score.
+	 *
+	 * @param table  table name, e.g. the game variant
+	 * @param points score
+	 * @param level  level reached
+	 * @return {@code true} if the score entered the leaderboard
+	 */
+	public synchronized boolean add(String table, int points, int level) {
+		return add(new Entry(table, points, level, System.currentTimeMillis()), false);
+	}
+
+	/**
+	 * Imports the hiscore of a legacy XML hiscore file (see {@link Hiscore}) if the table is empty.
+	 *
+	 * @param table      table name
+	 * @param legacyFile legacy hiscore file
+	 */
+	public synchronized void importLegacyHiscore(String table, File legacyFile) {
+		if (best(table) != null || !legacyFile.exists()) {
+			return;
+		}
+		Hiscore hiscore = new Hiscore(legacyFile);
+		hiscore.load();
+		if (hiscore.points > 0
+				&& add(new Entry(table, hiscore.points, hiscore.level, hiscore.time.toInstant().toEpochMilli()), true)) {
+			log("Hiscore of %s imported from %s", table, legacyFile);
+		}
+	}
+
+	@SuppressWarnings("try")
+	private boolean add(Entry entry, boolean onlyIntoEmptyTable) {
+		if (channel == null) {
+			return (!onlyIntoEmptyTable || best(entry.table) == null) && insert(entry);
+		}
+		try {
+			boolean inserted;
+			try (FileLock lock = lock()) {
+				readNewRecords();
+				if (onlyIntoEmptyTable && best(entry.table) != null) {
+					return false;
+				}
+				ByteBuffer record = encode(entry);
+				long position = readPosition;
+				while (record.hasRemaining()) {
+					position += channel.write(record, position);
+				}
+				channel.force(false);
+				readPosition = position;
+				++recordCount;
+				inserted = insert(entry);
+			}
+			compactIfBloated();
+			return inserted;
+		} catch (IOException x) {
+			fail("Could not write hiscore file", x);
+			return insert(entry);
+		}
+	}
+
+	/**
+	 * Replaces the file by a file containing only the leaderboard entries.
+	 */
+	public synchronized void compact() {
+		compact(true);
+	}
+
+	private void compactIfBloated() {
+		if (isBloated()) {
+			compact(false);
+		}
+	}
+
+	private boolean isBloated() {
+		int entries = leaderboards.values().stream().mapToInt(List::size).sum();
+		return recordCount > 2 * entries + 100;
+	}
+
+	@SuppressWarnings("try")
+	private void compact(boolean always) {
+		if (channel == null) {
+			return;
+		}
+		Path tmp = file.resolveSibling(file.getFileName() + ".tmp");
+		try {
+			try (FileLock lock = lock()) {
+				readNewRecords();
+				if (!always && !isBloated()) {
+					// compacted by another process meanwhile
+					return;
+				}
+				int entries = 0;
+				try (FileChannel out = FileChannel.open(tmp, CREATE, WRITE, TRUNCATE_EXISTING)) {
+					write(out, header());
+					for (List<Entry> leaderboard : leaderboards.values()) {
+						for (Entry entry : leaderboard) {
+							write(out, encode(entry));
+							++entries;
+						}
+					}
+					out.force(true);
+				}
+				Files.move(tmp, file, ATOMIC_MOVE, REPLACE_EXISTING);
+				log("Hiscore file compacted from %d to %d records", recordCount, entries);
+			}
+			channel.close();
+			open();
+			try (FileLock lock = lock()) {
+				readNewRecords();
+			}
+		} catch (IOException x) {
+			fail("Could not compact hiscore file", x);
+		}
+	}
+
+	private void open() throws IOException {
+		channel = FileChannel.open(file, CREATE, READ, WRITE);
+		fileKey = Files.readAttributes(file, BasicFileAttributes.class).fileKey();
+		leaderboards.clear();
+		readPosition = 0;
+		recordCount = 0;
+	}
+
+	// locks the current file, reopens the file if it has been replaced by another process
+	private FileLock lock() throws IOException {
+		while (true) {
+			FileLock lock = channel.lock();
+			Object currentKey = Files.readAttributes(file, BasicFileAttributes.class).fileKey();
+			if (currentKey == null || currentKey.equals(fileKey)) {
+				return lock;
+			}
+			lock.release();
+			channel.close();
+			open();
+		}
+	}
+
+	// reads the records appended since the last call, requires the lock
+	private void readNewRecords() throws IOException {
+		long size = channel.size();
+		if (readPosition == 0) {
+			if (size < HEADER_BYTES) {
+				channel.truncate(0);
+				write(channel, header());
+				channel.force(true);
+				readPosition = HEADER_BYTES;
+				return;
+			}
+			ByteBuffer header = read(0, HEADER_BYTES);
+			if (header.getInt() != MAGIC || header.getInt() != VERSION) {
+				throw new IOException("Not a hiscore file: " + file);
+			}
+			readPosition = HEADER_BYTES;
+		}
+		if (size == readPosition) {
+			return;
+		}
+		ByteBuffer buffer = read(readPosition, (int) (size - readPosition));
+		CRC32 crc = new CRC32();
+		while (buffer.remaining() >= 4) {
+			int start = buffer.position();
+			int length = buffer.getInt();
+			if (length < 14 || length > MAX_PAYLOAD_BYTES || buffer.remaining() < length + 4) {
+				buffer.position(start);
+				break;
+			}
+			ByteBuffer payload = buffer.slice();
+			payload.limit(length);
+			crc.reset();
+			crc.update(payload.duplicate());
+			buffer.position(buffer.position() + length);
+			if ((int) crc.getValue() != buffer.getInt()) {
+				buffer.position(start);
+				break;
+			}
+			insert(decode(payload));
+			++recordCount;
+		}
+		readPosition += buffer.position();
+		if (readPosition < size) {
+			// the lock is held, so this is not a record being written but the remains of a crash
+			log("Hiscore file %s: dropped %d bytes of incomplete or corrupt records", file, size - readPosition);
+			channel.truncate(readPosition);
+		}
+	}
+
+	private ByteBuffer read(long position, int length) throws IOException {
+		ByteBuffer buffer = ByteBuffer.allocate(length);
+		while (buffer.hasRemaining()) {
+			if (channel.read(buffer, position + buffer.position()) < 0) {
+				break;
+			}
+		}
+		return buffer.flip();
+	}
+
+	private static void write(FileChannel out, ByteBuffer buffer) throws IOException {
+		while (buffer.hasRemaining()) {
+			out.write(buffer);
+		}
+	}
+
+	private static ByteBuffer header() {
+		return ByteBuffer.allocate(HEADER_BYTES).putInt(MAGIC).putInt(VERSION).flip();
+	}
+
+	// record = payload length, payload, CRC32 of payload
+	private static ByteBuffer encode(Entry entry) {
+		byte[] table = entry.table.getBytes(StandardCharsets.UTF_8);
+		int length = 2 + table.length + 4 + 4 + 8;
+		if (length > MAX_PAYLOAD_BYTES) {
+			throw new IllegalArgumentException("Hiscore table name too long: " + entry.table);
+		}
+		ByteBuffer record = ByteBuffer.allocate(4 + length + 4);
+		record.putInt(length);
+		record.putShort((short) table.length).put(table);
+		record.putInt(entry.points).putInt(entry.level).putLong(entry.epochMillis);
+		CRC32 crc = new CRC32();
+		crc.update(record.array(), 4, length);
+		record.putInt((int) crc.getValue());
+		return record.flip();
+	}
+
+	private static Entry decode(ByteBuffer payload) {
+		byte[] table = new byte[payload.getShort()];
+		payload.get(table);
+		return new Entry(new String(table, StandardCharsets.UTF_8), payload.getInt(), payload.getInt(), payload.getLong());
+	}
+
+	private boolean insert(Entry entry) {
+		List<Entry> entries = leaderboards.computeIfAbsent(entry.table, table -> new ArrayList<>(capacity + 1));
+		int index = 0;
+		while (index < entries.size() && (entries.get(index).points > entry.points
+				|| entries.get(index).points == entry.points && entries.get(index).epochMillis <= entry.epochMillis)) {
+			++index;
+		}
+		if (index >= capacity) {
+			return false;
+		}
+		entries.add(index, entry);
+		if (entries.size() > capacity) {
+			entries.remove(capacity);
+		}
+		return true;
+	}
+
+	private void fail(String message, IOException x) {
+		log("%s %s: %s, hiscores are kept in memory only", message, file, x.getMessage());
+		if (channel != null) {
+			try {
+				channel.close();
+			} catch (IOException e) {
+				// ignore
+			}
+			channel = null;
+		}
+	}
+}
@@ -13,7 +13,13 @@ public class Logging {
 
 	public static final DateTimeFormatter TIME_FORMAT = DateTimeFormatter.ofPattern("HH:mm:ss.SSS");
 
+	/** Logging can be switched off, e.g. for headless runs of many games. */
+	public static boolean enabled = true;
+
 	public static void log(String msg, Object... args) {
+		if (!enabled) {
+			return;
+		}
 		String timestamp = TIME_FORMAT.format(LocalTime.now());
 		String message = String.format(msg, args);
 		System.err.printf("[%s] %s\n", timestamp, message);
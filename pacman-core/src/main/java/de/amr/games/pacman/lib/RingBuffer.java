@@ -0,0 +1,103 @@
+package de.amr.games.pacman.lib;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Bounded lock-free queue for any number of producer and consumer threads.
+ * <p>
+ * Each slot carries a sequence number telling whether it is free for the producer or filled for
+ * the consumer of the current lap around the buffer (D. Vyukov's bounded MPMC queue). Neither
+ * {@link #offer(Object)} nor {@link #poll()} ever block or allocate.
+ *
+ * @param <T> element type
+ */
+public class RingBuffer<T> {
+
+	private final int mask;
+	private final AtomicReferenceArray<T> elements;
+	private final AtomicLongArray sequences;
+	private final AtomicLong head = new AtomicLong(); // next position to read
+	private final AtomicLong tail = new AtomicLong(); // next position to write
+
+	/**
+	 * @param capacity minimum capacity, rounded up to the next power of two
+	 */
+	public RingBuffer(int capacity) {
+		if (capacity < 1 || capacity > (1 << 30)) {
+			throw new IllegalArgumentException("Illegal ring buffer capacity: " + capacity);
+		}
+		int size = Integer.highestOneBit(capacity);
+		if (size < capacity) {
+			size <<= 1;
+		}
+		mask = size - 1;
+		elements = new AtomicReferenceArray<>(size);
+		sequences = new AtomicLongArray(size);
+		for (int i = 0; i < size; ++i) {
+			sequences.set(i, i);
+		}
+	}
+
+	public int capacity() {
+		return mask + 1;
+	}
+
+	/**
+	 * @return approximate number of elements, exact if no other thread is accessing the buffer
+	 */
+	public int size() {
+		return (int) Math.max(0, tail.get() - head.get());
+	}
+
+	public boolean isEmpty() {
+		return size() == 0;
+	}
+
+	/**
+	 * @param element element to add, not {@code null}
+	 * @return {@code true} if the element has been added, {@code false} if the buffer is full
+	 */
+	public boolean offer(T element) {
+		if (element == null) {
+			throw new IllegalArgumentException("Ring buffer does not accept null elements");
+		}
+		while (true) {
+			long pos = tail.get();
+			int slot = (int) pos & mask;
+			long diff = sequences.get(slot) - pos;
+			if (diff == 0) {
+				if (tail.compareAndSet(pos, pos + 1)) {
+					elements.set(slot, element);
+					sequences.set(slot, pos + 1);
+					return true;
+				}
+			} else if (diff < 0) {
+				return false; // slot still occupied from previous lap
+			}
+			// else: other producer was faster, retry
+		}
+	}
+
+	/**
+	 * @return the oldest element or {@code null} if the buffer is empty
+	 */
+	public T poll() {
+		while (true) {
+			long pos = head.get();
+			int slot = (int) pos & mask;
+			long diff = sequences.get(slot) - (pos + 1);
+			if (diff == 0) {
+				if (head.compareAndSet(pos, pos + 1)) {
+					T element = elements.getAndSet(slot, null);
+					sequences.set(slot, pos + mask + 1);
+					return element;
+				}
+			} else if (diff < 0) {
+				return null; // slot not yet filled
+			}
+			// else: other consumer was faster, retry
+		}
+	}
+}
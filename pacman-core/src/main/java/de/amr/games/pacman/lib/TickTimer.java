@@ -5,14 +5,17 @@ import static de.amr.games.pacman.lib.TickTimer.TickTimerState.READY;
 import static de.amr.games.pacman.lib.TickTimer.TickTimerState.RUNNING;
 import static de.amr.games.pacman.lib.TickTimer.TickTimerState.STOPPED;
 
-import java.util.Collection;
-import java.util.HashSet;
+import java.util.Arrays;
 import java.util.function.Consumer;
 
 import de.amr.games.pacman.lib.TickTimerEvent.Type;
 
 /**
  * A simple, but useful, passive timer counting ticks.
+ * <p>
+ * A timer created with a {@link TimerWheel} is driven by the wheel: it must not be ticked, the
+ * ticks are counted by the wheel and the expiration is scheduled as a timeout of the wheel. So
+ * running timers cost nothing until they expire.
  * 
  * @author Armin Reichert
  */
@@ -22,32 +25,69 @@ public class TickTimer {
 		READY, RUNNING, STOPPED, EXPIRED;
 	}
 
-	private final Collection<Consumer<TickTimerEvent>> subscribers = new HashSet<>();
+	private Consumer<TickTimerEvent>[] subscribers = subscriberArray(0);
 	private TickTimerState state;
 	private long duration;
-	private long ticked; // 0 .. duration - 1
+	private long ticked; // 0 .. duration - 1, when wheel-driven: ticks before last start
+
+	private final TimerWheel wheel;
+	private long startTick;
+	private TimerWheel.Timeout expiration, halfExpiration;
 
 	public TickTimer() {
+		this(null);
+	}
+
+	/**
+	 * @param wheel the timer wheel driving this timer or {@code null} if the timer is ticked manually
+	 */
+	public TickTimer(TimerWheel wheel) {
+		this.wheel = wheel;
 		reset();
 	}
 
+	@SuppressWarnings("unchecked")
+	private static Consumer<TickTimerEvent>[] subscriberArray(int length) {
+		return (Consumer<TickTimerEvent>[]) new Consumer<?>[length];
+	}
+
+	public boolean isWheelDriven() {
+		return wheel != null;
+	}
+
 	public void addEventListener(Consumer<TickTimerEvent> subscriber) {
-		subscribers.add(subscriber);
+		if (!Arrays.asList(subscribers).contains(subscriber)) {
+			subscribers = Arrays.copyOf(subscribers, subscribers.length + 1);
+			subscribers[subscribers.length - 1] = subscriber;
+		}
 	}
 
 	public void removeEventListener(Consumer<TickTimerEvent> subscriber) {
-		subscribers.remove(subscriber);
+		Consumer<TickTimerEvent>[] remaining = subscriberArray(subscribers.length);
+		int n = 0;
+		for (Consumer<TickTimerEvent> s : subscribers) {
+			if (!s.equals(subscriber)) {
+				remaining[n++] = s;
+			}
+		}
+		subscribers = Arrays.copyOf(remaining, n);
 	}
 
-	private void fireEvent(TickTimerEvent e) {
-		subscribers.forEach(subscriber -> subscriber.accept(e));
+	private void fireEvent(Type type, long ticks) {
+		if (subscribers.length > 0) {
+			TickTimerEvent e = new TickTimerEvent(type, ticks);
+			for (Consumer<TickTimerEvent> subscriber : subscribers) {
+				subscriber.accept(e);
+			}
+		}
 	}
 
 	public void reset(long durationTicks) {
+		cancelTimeouts();
 		state = READY;
 		ticked = 0;
 		duration = durationTicks;
-		fireEvent(new TickTimerEvent(Type.RESET, duration));
+		fireEvent(Type.RESET, duration);
 	}
 
 	public void reset() {
@@ -64,7 +104,11 @@ public class TickTimer {
 		}
 		if (state == STOPPED || state == READY) {
 			state = RUNNING;
-			fireEvent(new TickTimerEvent(Type.STARTED));
+			if (wheel != null) {
+				startTick = wheel.now();
+				scheduleTimeouts();
+			}
+			fireEvent(Type.STARTED, 0);
 		} else {
 			throw new IllegalStateException("Timer cannot be started from state " + state);
 		}
@@ -75,12 +119,17 @@ public class TickTimer {
 			return;
 		}
 		if (state == RUNNING) {
+			ticked = ticked();
+			cancelTimeouts();
 			state = STOPPED;
-			fireEvent(new TickTimerEvent(Type.STOPPED));
+			fireEvent(Type.STOPPED, 0);
 		}
 	}
 
 	public void tick() {
+		if (wheel != null) {
+			throw new IllegalStateException("Timer is driven by a timer wheel and cannot be ticked");
+		}
 		if (state == STOPPED) {
 			return;
 		}
@@ -89,18 +138,47 @@ public class TickTimer {
 		}
 		++ticked;
 		if (ticked == duration / 2) {
-			fireEvent(new TickTimerEvent(Type.HALF_EXPIRED, ticked));
+			fireEvent(Type.HALF_EXPIRED, ticked);
 		}
 		if (ticked == duration) {
 			state = EXPIRED;
-			fireEvent(new TickTimerEvent(Type.EXPIRED, ticked));
+			fireEvent(Type.EXPIRED, ticked);
+			return;
+		}
+	}
+
+	// same events at the same ticks as when ticked manually
+	private void scheduleTimeouts() {
+		if (duration == Long.MAX_VALUE) {
 			return;
 		}
+		long offset = startTick - wheel.now();
+		if (duration / 2 - ticked >= 1) {
+			halfExpiration = wheel.schedule(offset + duration / 2 - ticked, () -> fireEvent(Type.HALF_EXPIRED, duration / 2));
+		}
+		if (duration - ticked >= 1) {
+			expiration = wheel.schedule(offset + duration - ticked, () -> {
+				ticked = duration;
+				state = EXPIRED;
+				cancelTimeouts();
+				fireEvent(Type.EXPIRED, ticked);
+			});
+		}
+	}
+
+	private void cancelTimeouts() {
+		if (wheel != null) {
+			wheel.cancel(halfExpiration);
+			wheel.cancel(expiration);
+			halfExpiration = expiration = null;
+		}
 	}
 
 	public void forceExpiration() {
+		ticked = ticked();
+		cancelTimeouts();
 		state = EXPIRED;
-		fireEvent(new TickTimerEvent(Type.EXPIRED, ticked));
+		fireEvent(Type.EXPIRED, ticked);
 	}
 
 	public boolean hasExpired() {
@@ -120,18 +198,18 @@ public class TickTimer {
 	}
 
 	public long ticked() {
-		return ticked;
+		return wheel != null && state == RUNNING ? ticked + Math.max(0, wheel.now() - startTick) : ticked;
 	}
 
 	public long ticksRemaining() {
-		return duration == Long.MAX_VALUE ? Long.MAX_VALUE : duration - ticked;
+		return duration == Long.MAX_VALUE ? Long.MAX_VALUE : duration - ticked();
 	}
 
 	public boolean isRunningSeconds(double seconds) {
-		return ticked == (long) (seconds * 60);
+		return ticked() == (long) (seconds * 60);
 	}
 
 	public boolean hasJustStarted() {
-		return ticked == 1;
+		return ticked() == 1;
 	}
 }
\ No newline at end of file
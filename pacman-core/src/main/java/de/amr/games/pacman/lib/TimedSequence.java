@@ -2,11 +2,18 @@ package de.amr.games.pacman.lib;
 
 import java.util.Collections;
 import java.util.List;
+import java.util.function.LongSupplier;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
 /**
  * Timed sequence of things, for example of images or spritesheet regions
+ * <p>
+ * By default, a sequence is advanced by each call of {@link #animate()}. A sequence driven by a
+ * {@link #clock(LongSupplier) clock} instead computes its frame from the clock's tick and the tick
+ * when it was started, <code>frame = ((now - start - delay) / frameDuration) % numFrames</code>. It
+ * is not changed by reading its frame, so it keeps running when it is not rendered and may be read
+ * from another thread than the one starting and stopping it.
  * 
  * @author Armin Reichert
  */
@@ -45,10 +52,14 @@ public class TimedSequence<T> {
 	protected long frameRunningTicks;
 	protected int frameIndex;
 	protected long loopIndex;
-	protected boolean running;
+	protected volatile boolean running;
 	protected boolean complete;
 	protected Runnable onStart;
 
+	protected LongSupplier clock;
+	protected volatile long startTick;
+	protected volatile long stopTick;
+
 	protected TimedSequence() {
 		repetitions = 1;
 		frameDurationTicks = 6; // 0.1 sec
@@ -56,6 +67,9 @@ public class TimedSequence<T> {
 	}
 
 	public TimedSequence<T> reset() {
+		if (clock != null) {
+			startTick = stopTick = clock.getAsLong();
+		}
 		delayRemainingTicks = delay;
 		totalRunningTicks = 0;
 		frameRunningTicks = 0;
@@ -66,6 +80,22 @@ public class TimedSequence<T> {
 		return this;
 	}
 
+	/**
+	 * Lets the sequence be driven by the given clock instead of calls of {@link #animate()}. The
+	 * {@link #onStart(Runnable) start code} is not executed for a clock-driven sequence.
+	 * 
+	 * @param clock monotonic tick source, for example the game controller's timer wheel
+	 * @return this sequence
+	 */
+	public TimedSequence<T> clock(LongSupplier clock) {
+		this.clock = clock;
+		return reset();
+	}
+
+	public boolean isClockDriven() {
+		return clock != null;
+	}
+
 	public TimedSequence<T> onStart(Runnable code) {
 		onStart = code;
 		return this;
@@ -107,26 +137,36 @@ public class TimedSequence<T> {
 	}
 
 	public TimedSequence<T> run() {
+		if (clock != null && !running) {
+			// continue where the sequence has been stopped
+			startTick += clock.getAsLong() - stopTick;
+		}
 		running = true;
 		return this;
 	}
 
 	public TimedSequence<T> stop() {
+		if (clock != null && running) {
+			stopTick = clock.getAsLong();
+		}
 		running = false;
 		return this;
 	}
 
 	public T animate() {
-		T currentThing = things.get(frameIndex);
+		T currentThing = things.get(frameIndex());
 		advance();
 		return currentThing;
 	}
 
 	public T frame() {
-		return things.get(frameIndex);
+		return things.get(frameIndex());
 	}
 
 	public void advance() {
+		if (clock != null) {
+			return;
+		}
 		if (running) {
 			if (delayRemainingTicks > 0) {
 				delayRemainingTicks--;
@@ -162,7 +202,23 @@ public class TimedSequence<T> {
 	}
 
 	public int frameIndex() {
-		return frameIndex;
+		if (clock == null) {
+			return frameIndex;
+		}
+		long frameNumber = ticksSinceStart() / frameDurationTicks;
+		if (frameNumber < 0) {
+			return 0;
+		}
+		if (repetitions < Integer.MAX_VALUE && frameNumber >= (long) things.size() * repetitions) {
+			return things.size() - 1;
+		}
+		return (int) (frameNumber % things.size());
+	}
+
+	// may be negative while the sequence is delayed
+	private long ticksSinceStart() {
+		long now = running ? clock.getAsLong() : stopTick;
+		return now - startTick - delay;
 	}
 
 	public long getFrameDuration() {
@@ -178,14 +234,17 @@ public class TimedSequence<T> {
 	}
 
 	public boolean isRunning() {
-		return running;
+		return clock == null ? running : running && !isComplete();
 	}
 
 	public boolean isComplete() {
-		return complete;
+		if (clock == null) {
+			return complete;
+		}
+		return repetitions < Integer.MAX_VALUE && ticksSinceStart() >= duration() * repetitions;
 	}
 
 	public boolean hasStarted() {
-		return running || complete;
+		return clock == null ? running || complete : running || stopTick > startTick;
 	}
 }
\ No newline at end of file
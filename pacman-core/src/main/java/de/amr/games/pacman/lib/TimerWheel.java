@@ -0,0 +1,165 @@
+package de.amr.games.pacman.lib;
+
+/**
+ * Hierarchical timing wheel counting ticks.
+ * <p>
+ * Callbacks are scheduled for a deadline tick and run when the wheel is ticked to that deadline.
+ * The wheel has several levels of 64 slots each, a slot on level <em>k</em> covering 64<sup>k</sup>
+ * ticks. When the lower levels have turned around, the timeouts of the next slot on the higher
+ * level are moved down. So a tick costs O(expiring timeouts) plus the (amortized) cascading, no
+ * matter how many timeouts are scheduled, and scheduling and canceling take constant time.
+ * <p>
+ * The wheel is not thread-safe, it is ticked, and its timeouts are scheduled, by the game loop. Only
+ * the current tick may be read from other threads, for example by clock-driven animations.
+ *
+ * @see TickTimer
+ */
+public class TimerWheel {
+
+	/**
+	 * A scheduled callback.
+	 */
+	public static class Timeout {
+
+		private final Runnable callback;
+		private long deadline;
+		private int level, slot;
+		private Timeout prev, next;
+		private boolean scheduled;
+
+		private Timeout(long deadline, Runnable callback) {
+			this.deadline = deadline;
+			this.callback = callback;
+		}
+
+		public long deadline() {
+			return deadline;
+		}
+
+		public boolean isScheduled() {
+			return scheduled;
+		}
+	}
+
+	private static final int BITS = 6;
+	private static final int SLOTS = 1 << BITS;
+	private static final int MASK = SLOTS - 1;
+	private static final int LEVELS = 6;
+	private static final long RANGE = 1L << (BITS * LEVELS);
+
+	private final Timeout[][] slots = new Timeout[LEVELS][SLOTS];
+	private volatile long now;
+	private int size;
+
+	/**
+	 * @return the current tick
+	 */
+	public long now() {
+		return now;
+	}
+
+	/**
+	 * @return number of scheduled timeouts
+	 */
+	public int size() {
+		return size;
+	}
+
+	/**
+	 * Schedules a callback.
+	 *
+	 * @param delayTicks number of ticks until the callback runs, at least 1
+	 * @param callback   callback
+	 * @return the timeout which can be used to cancel the callback
+	 */
+	public Timeout schedule(long delayTicks, Runnable callback) {
+		if (delayTicks < 1) {
+			throw new IllegalArgumentException("Timeout delay must be at least one tick but is " + delayTicks);
+		}
+		Timeout timeout = new Timeout(now + delayTicks, callback);
+		insert(timeout);
+		return timeout;
+	}
+
+	/**
+	 * Cancels the timeout if it is scheduled.
+	 *
+	 * @param timeout a timeout or {@code null}
+	 */
+	public void cancel(Timeout timeout) {
+		if (timeout != null && timeout.scheduled) {
+			remove(timeout);
+		}
+	}
+
+	/**
+	 * Advances the wheel by one tick and runs the callbacks of all timeouts with that deadline.
+	 */
+	public void tick() {
+		++now;
+		int topLevel = 0;
+		while (topLevel < LEVELS - 1 && (now & ((1L << (BITS * (topLevel + 1))) - 1)) == 0) {
+			++topLevel;
+		}
+		for (int level = topLevel; level > 0; --level) {
+			cascade(level, (int) ((now >>> (BITS * level)) & MASK));
+		}
+		int slot = (int) (now & MASK);
+		while (slots[0][slot] != null) {
+			Timeout timeout = slots[0][slot];
+			remove(timeout);
+			timeout.callback.run();
+		}
+	}
+
+	private void cascade(int level, int slot) {
+		Timeout timeout = slots[level][slot];
+		slots[level][slot] = null;
+		while (timeout != null) {
+			Timeout next = timeout.next;
+			--size;
+			insert(timeout);
+			timeout = next;
+		}
+	}
+
+	private void insert(Timeout timeout) {
+		long delta = timeout.deadline - now;
+		int level = 0;
+		long deadline = timeout.deadline;
+		if (delta >= RANGE) {
+			// parked in the top level, gets cascaded again until it is in range
+			level = LEVELS - 1;
+			deadline = now + RANGE - 1;
+		} else {
+			while (delta >= (1L << (BITS * (level + 1)))) {
+				++level;
+			}
+		}
+		int slot = (int) ((deadline >>> (BITS * level)) & MASK);
+		timeout.level = level;
+		timeout.slot = slot;
+		timeout.prev = null;
+		timeout.next = slots[level][slot];
+		if (timeout.next != null) {
+			timeout.next.prev = timeout;
+		}
+		slots[level][slot] = timeout;
+		timeout.scheduled = true;
+		++size;
+	}
+
+	private void remove(Timeout timeout) {
+		if (timeout.prev != null) {
+			timeout.prev.next = timeout.next;
+		} else {
+			slots[timeout.level][timeout.slot] = timeout.next;
+		}
+		if (timeout.next != null) {
+			timeout.next.prev = timeout.prev;
+		}
+		timeout.prev = timeout.next = null;
+		timeout.scheduled = false;
+		--size;
+	}
+}
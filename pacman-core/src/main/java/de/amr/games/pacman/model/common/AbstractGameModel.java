@@ -2,14 +2,13 @@ package de.amr.games.pacman.model.common;
 
 import static de.amr.games.pacman.lib.Logging.log;
 import static de.amr.games.pacman.model.common.Ghost.BLINKY;
+import static de.amr.games.pacman.model.common.Ghost.CLYDE;
 import static de.amr.games.pacman.model.world.PacManGameWorld.HTS;
 
-import java.io.File;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.stream.Stream;
 
-import de.amr.games.pacman.lib.Hiscore;
 import de.amr.games.pacman.model.pacman.PacManBonus;
 
 /**
@@ -24,12 +23,14 @@ public abstract class AbstractGameModel {
 	public int intermissionNumber; // 1,2,3
 	public Pac player;
 	public Ghost[] ghosts;
+	public final CreatureGrid creatureGrid = new CreatureGrid();
+	public final GhostStateIndex ghostStateIndex = new GhostStateIndex();
 	public PacManBonus bonus;
 	public String[] bonusNames;
 	public int[] bonusValues;
 	public int lives;
 	public int score;
-	public String highscoreFileName;
+	public String highscoreFileName; // legacy hiscore file, imported into the hiscore store
 	public int highscoreLevel, highscorePoints;
 	public int ghostBounty;
 	public List<Byte> levelSymbols;
@@ -50,7 +51,7 @@ public abstract class AbstractGameModel {
 		player.powerTimer.reset();
 
 		for (Ghost ghost : ghosts) {
-			ghost.placeAt(currentLevel.world.ghostHome(ghost.id), HTS, 0);
+			ghost.placeAt(currentLevel.world.ghostHome(ghost.homeSeat()), HTS, 0);
 			ghost.dir = ghost.wishDir = ghost.startDir;
 			ghost.visible = false;
 			ghost.speed = 0;
@@ -77,12 +78,11 @@ public abstract class AbstractGameModel {
 	public void reset() {
 		score = 0;
 		lives = 3;
+		globalDotCounter = 0;
+		globalDotCounterEnabled = false;
 		initLevel(1);
 		levelSymbols = new ArrayList<>();
 		levelSymbols.add(currentLevel.bonusSymbol);
-		Hiscore hiscore = loadHighScore();
-		highscoreLevel = hiscore.level;
-		highscorePoints = hiscore.points;
 	}
 
 	/**
@@ -90,6 +90,7 @@ public abstract class AbstractGameModel {
 	 */
 	public void initLevel(int levelNumber) {
 		createLevel(levelNumber);
+		resetCreatureIndices();
 		ghostBounty = 200;
 		for (Ghost ghost : ghosts) {
 			ghost.dotCounter = 0;
@@ -100,6 +101,11 @@ public abstract class AbstractGameModel {
 		currentLevelNumber = levelNumber;
 	}
 
+	private void resetCreatureIndices() {
+		creatureGrid.reset(currentLevel.world.numCols(), currentLevel.world.numRows(), player, ghosts);
+		ghostStateIndex.reset(player, ghosts);
+	}
+
 	/**
 	 * @param levelNumber 1-based game level number
 	 */
@@ -117,6 +123,41 @@ public abstract class AbstractGameModel {
 	 */
 	public abstract int mapNumber(int mazeNumber);
 
+	/**
+	 * Sets the number of ghosts. The original four ghosts are always kept, the swarm ghosts added to
+	 * them get their personalities from the given sequence, which is repeated as often as needed. Swarm
+	 * ghosts start in the ghost house, sharing the seats of Pinky, Inky and Clyde. Must be called
+	 * before a game is started.
+	 *
+	 * @param numGhosts     number of ghosts, at least 4
+	 * @param personalities personalities of the swarm ghosts in order, e.g. {@code BLINKY, PINKY}
+	 */
+	public void setGhostCount(int numGhosts, int... personalities) {
+		if (numGhosts < 4) {
+			throw new IllegalArgumentException("Illegal number of ghosts: " + numGhosts);
+		}
+		if (personalities.length == 0 && numGhosts > 4) {
+			throw new IllegalArgumentException("No personalities for swarm ghosts specified");
+		}
+		Ghost[] swarm = new Ghost[numGhosts];
+		System.arraycopy(ghosts, 0, swarm, 0, 4);
+		for (int id = 4; id < numGhosts; ++id) {
+			int personality = personalities[(id - 4) % personalities.length];
+			if (personality < BLINKY || personality > CLYDE) {
+				throw new IllegalArgumentException("Illegal ghost personality: " + personality);
+			}
+			Ghost ghost = id < ghosts.length && ghosts[id].personality == personality ? ghosts[id]
+					: new Ghost(id, personality, ghosts[personality].name + " " + id, ghosts[Ghost.homeSeat(id)].startDir);
+			ghost.world = ghosts[0].world;
+			swarm[id] = ghost;
+		}
+		ghosts = swarm;
+		if (currentLevel != null) {
+			resetCreatureIndices();
+		}
+		log("%s: %d ghosts", getClass().getSimpleName(), ghosts.length);
+	}
+
 	public Stream<Ghost> ghosts() {
 		return Stream.of(ghosts);
 	}
@@ -126,21 +167,4 @@ public abstract class AbstractGameModel {
 	}
 
 	public abstract long getHuntingPhaseDuration(int phase);
-
-	public Hiscore loadHighScore() {
-		File dir = new File(System.getProperty("user.home"));
-		Hiscore hiscore = new Hiscore(new File(dir, highscoreFileName));
-		hiscore.load();
-		return hiscore;
-	}
-
-	public void saveHighscore() {
-		Hiscore hiscore = loadHighScore();
-		if (highscorePoints > hiscore.points) {
-			hiscore.points = highscorePoints;
-			hiscore.level = highscoreLevel;
-			hiscore.save();
-			log("New hiscore saved: %d points in level %d.", hiscore.points, hiscore.level);
-		}
-	}
 }
\ No newline at end of file
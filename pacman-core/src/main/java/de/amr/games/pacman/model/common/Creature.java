@@ -1,15 +1,16 @@
 package de.amr.games.pacman.model.common;
 
+import static de.amr.games.pacman.model.world.PacManGameWorld.TS;
 import static de.amr.games.pacman.model.world.PacManGameWorld.t;
 import static java.lang.Math.abs;
 
 import java.util.List;
 import java.util.Optional;
-import java.util.Random;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
 import de.amr.games.pacman.lib.Direction;
+import de.amr.games.pacman.lib.GameRandom;
 import de.amr.games.pacman.lib.V2d;
 import de.amr.games.pacman.lib.V2i;
 import de.amr.games.pacman.model.world.PacManGameWorld;
@@ -79,6 +80,20 @@ public class Creature extends GameEntity {
 		return PacManGameWorld.tile(position);
 	}
 
+	/**
+	 * @return x-coordinate of the current tile (same as {@code tile().x} but without allocation)
+	 */
+	public int tileX() {
+		return (int) position.x / TS;
+	}
+
+	/**
+	 * @return y-coordinate of the current tile (same as {@code tile().y} but without allocation)
+	 */
+	public int tileY() {
+		return (int) position.y / TS;
+	}
+
 	/**
 	 * @return the current pixel offset
 	 */
@@ -105,7 +120,7 @@ public class Creature extends GameEntity {
 	}
 
 	public boolean meets(Creature other) {
-		return tile().equals(other.tile());
+		return tileX() == other.tileX() && tileY() == other.tileY();
 	}
 
 	@Override
@@ -246,7 +261,7 @@ public class Creature extends GameEntity {
 
 	public Optional<Direction> randomMoveDirection() {
 		List<Direction> dirs = accessibleDirections(tile(), dir.opposite()).collect(Collectors.toList());
-		return dirs.isEmpty() ? Optional.empty() : Optional.of(dirs.get(new Random().nextInt(dirs.size())));
+		return dirs.isEmpty() ? Optional.empty() : Optional.of(dirs.get(GameRandom.get().nextInt(dirs.size())));
 	}
 
 	public Stream<Direction> accessibleDirections(V2i tile, Direction... excludedDirections) {
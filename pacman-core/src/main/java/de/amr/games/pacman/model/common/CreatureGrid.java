@@ -0,0 +1,173 @@
+package de.amr.games.pacman.model.common;
+
+/**
+ * Tile occupancy of the creatures of a game.
+ * <p>
+ * Each creature gets a slot (Pac-Man first, then the ghosts in the order of their IDs). For each
+ * tile, the grid stores a bit set of the slots of the creatures on that tile. {@link #update()}
+ * only touches the creatures which have changed their tile, so asking which creatures are on a
+ * tile, e.g. for collision detection, costs a table lookup instead of comparing the tiles of all
+ * creatures, no matter how many ghosts there are.
+ * <p>
+ * Tiles outside of the map (the creatures can leave the map through the portals) are covered by a
+ * margin around the map. Creatures beyond the margin are looked up by comparing their tiles.
+ */
+public class CreatureGrid {
+
+	private static final int MARGIN = 2;
+
+	private Creature[] creatures = new Creature[0];
+	private int[] tileX = new int[0];
+	private int[] tileY = new int[0];
+	private int cols, rows, words;
+	private long[] cells = new long[0];
+
+	/**
+	 * Sets the map size and the tracked creatures.
+	 *
+	 * @param numCols number of map columns
+	 * @param numRows number of map rows
+	 * @param player  Pac-Man or Ms. Pac-Man, gets slot 0
+	 * @param ghosts  the ghosts, get the slots 1, 2, ...
+	 */
+	public void reset(int numCols, int numRows, Pac player, Ghost[] ghosts) {
+		creatures = new Creature[1 + ghosts.length];
+		creatures[0] = player;
+		System.arraycopy(ghosts, 0, creatures, 1, ghosts.length);
+		tileX = new int[creatures.length];
+		tileY = new int[creatures.length];
+		cols = numCols + 2 * MARGIN;
+		rows = numRows + 2 * MARGIN;
+		words = (creatures.length + 63) / 64;
+		cells = new long[cols * rows * words];
+		for (int slot = 0; slot < creatures.length; ++slot) {
+			tileX[slot] = creatures[slot].tileX();
+			tileY[slot] = creatures[slot].tileY();
+			set(slot);
+		}
+	}
+
+	/**
+	 * Moves the creatures which have changed their tile since the last update to their new tile.
+	 */
+	public void update() {
+		for (int slot = 0; slot < creatures.length; ++slot) {
+			Creature creature = creatures[slot];
+			move(slot, creature.tileX(), creature.tileY());
+		}
+	}
+
+	void move(int slot, int x, int y) {
+		if (x != tileX[slot] || y != tileY[slot]) {
+			unset(slot);
+			tileX[slot] = x;
+			tileY[slot] = y;
+			set(slot);
+		}
+	}
+
+	public int size() {
+		return creatures.length;
+	}
+
+	public Creature creature(int slot) {
+		return creatures[slot];
+	}
+
+	private int cell(int x, int y) {
+		x += MARGIN;
+		y += MARGIN;
+		return x >= 0 && x < cols && y >= 0 && y < rows ? y * cols + x : -1;
+	}
+
+	private void set(int slot) {
+		int cell = cell(tileX[slot], tileY[slot]);
+		if (cell != -1) {
+			cells[cell * words + (slot >>> 6)] |= 1L << slot;
+		}
+	}
+
+	private void unset(int slot) {
+		int cell = cell(tileX[slot], tileY[slot]);
+		if (cell != -1) {
+			cells[cell * words + (slot >>> 6)] &= ~(1L << slot);
+		}
+	}
+
+	/**
+	 * Finds the next creature on the given tile. Iterate over all creatures on a tile by
+	 * <code>for (int slot = grid.nextAt(x, y, 0); slot != -1; slot = grid.nextAt(x, y, slot + 1))</code>.
+	 *
+	 * @param x        tile x-coordinate
+	 * @param y        tile y-coordinate
+	 * @param fromSlot first slot to consider
+	 * @return the lowest slot {@code >= fromSlot} of a creature on the tile or -1
+	 */
+	public int nextAt(int x, int y, int fromSlot) {
+		int cell = cell(x, y);
+		if (cell == -1) {
+			for (int slot = fromSlot; slot < creatures.length; ++slot) {
+				if (tileX[slot] == x && tileY[slot] == y) {
+					return slot;
+				}
+			}
+			return -1;
+		}
+		for (int word = fromSlot >>> 6; word < words; ++word) {
+			long bits = cells[cell * words + word];
+			if (word == fromSlot >>> 6) {
+				bits &= -1L << fromSlot;
+			}
+			if (bits != 0) {
+				return word * 64 + Long.numberOfTrailingZeros(bits);
+			}
+		}
+		return -1;
+	}
+
+	/**
+	 * @param x     tile x-coordinate
+	 * @param y     tile y-coordinate
+	 * @param state ghost state
+	 * @return the ghost with the lowest ID in the given state on the given tile or {@code null}
+	 */
+	public Ghost ghostAt(int x, int y, GhostState state) {
+		for (int slot = nextAt(x, y, 1); slot != -1; slot = nextAt(x, y, slot + 1)) {
+			Ghost ghost = (Ghost) creatures[slot];
+			if (ghost.state == state) {
+				return ghost;
+			}
+		}
+		return null;
+	}
+
+	/**
+	 * @param creature a creature
+	 * @param state    ghost state
+	 * @return the ghost with the lowest ID in the given state on the tile of the given creature or
+	 *         {@code null}
+	 */
+	public Ghost ghostMeeting(Creature creature, GhostState state) {
+		return ghostAt(creature.tileX(), creature.tileY(), state);
+	}
+
+	/**
+	 * @param x     tile x-coordinate
+	 * @param y     tile y-coordinate
+	 * @param k     distance in tiles
+	 * @param state ghost state
+	 * @return if a ghost in the given state is at most {@code k} tiles (Manhattan distance) away from
+	 *         the given tile
+	 */
+	public boolean anyGhostWithin(int x, int y, int k, GhostState state) {
+		for (int dy = -k; dy <= k; ++dy) {
+			int dxMax = k - Math.abs(dy);
+			for (int dx = -dxMax; dx <= dxMax; ++dx) {
+				if (ghostAt(x + dx, y + dy, state) != null) {
+					return true;
+				}
+			}
+		}
+		return false;
+	}
+}
@@ -94,6 +94,14 @@ public class GameLevel {
 		return eaten.get(world.index(tile));
 	}
 
+	/**
+	 * @param tileIndex index of a tile, see {@link PacManGameWorld#index(V2i)}
+	 * @return if the food on this tile has been eaten
+	 */
+	public boolean isFoodRemoved(int tileIndex) {
+		return eaten.get(tileIndex);
+	}
+
 	public boolean containsFood(V2i tile) {
 		return world.isFoodTile(tile) && !isFoodRemoved(tile);
 	}
@@ -102,6 +110,13 @@ public class GameLevel {
 		return world.isFoodTile(tile) && isFoodRemoved(tile);
 	}
 
+	/**
+	 * @return hash code of the set of eaten food tiles
+	 */
+	public int eatenFoodHash() {
+		return eaten.hashCode();
+	}
+
 	public void removeFood(V2i tile) {
 		if (!isFoodRemoved(tile)) {
 			eaten.set(world.index(tile));
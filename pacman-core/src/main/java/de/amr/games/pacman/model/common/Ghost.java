@@ -16,9 +16,16 @@ public class Ghost extends Creature {
 
 	public static final int BLINKY = 0, PINKY = 1, INKY = 2, CLYDE = 3, SUE = 3;
 
-	/** The unique ID of the ghost (0..3). */
+	/** The unique ID of the ghost (0..3, swarm ghosts have IDs from 4 on). */
 	public final int id;
 
+	/**
+	 * The original ghost ({@link #BLINKY}, {@link #PINKY}, {@link #INKY} or {@link #CLYDE}) whose
+	 * hunting behavior, scatter target and look this ghost has. Equal to the ID for the original
+	 * ghosts.
+	 */
+	public final int personality;
+
 	/** The readable name of the ghost. */
 	public String name;
 
@@ -46,11 +53,32 @@ public class Ghost extends Creature {
 	}
 
 	public Ghost(int ghostID, String ghostName, Direction ghostStartDir) {
+		this(ghostID, ghostID, ghostName, ghostStartDir);
+	}
+
+	public Ghost(int ghostID, int ghostPersonality, String ghostName, Direction ghostStartDir) {
 		id = ghostID;
+		personality = ghostPersonality;
 		name = ghostName;
 		dir = wishDir = startDir = ghostStartDir;
 	}
 
+	/**
+	 * @param ghostID ghost ID
+	 * @return the home position of the ghost with this ID (0 = house entry, 1 = center seat, 2 = left
+	 *         seat, 3 = right seat). Swarm ghosts share the seats of Pinky, Inky and Clyde.
+	 */
+	public static int homeSeat(int ghostID) {
+		return ghostID == BLINKY ? BLINKY : 1 + (ghostID - 1) % 3;
+	}
+
+	/**
+	 * @return the home position of this ghost, see {@link #homeSeat(int)}
+	 */
+	public int homeSeat() {
+		return homeSeat(id);
+	}
+
 	public boolean is(GhostState ghostState) {
 		return state == ghostState;
 	}
@@ -137,7 +165,7 @@ public class Ghost extends Creature {
 			setOffset(HTS, 0);
 			dir = wishDir = Direction.DOWN;
 			forcedOnTrack = false;
-			targetTile = (id == 0) ? world.houseSeatCenter() : world.ghostHome(id);
+			targetTile = homeSeat() == 0 ? world.houseSeatCenter() : world.ghostHome(homeSeat());
 			state = GhostState.ENTERING_HOUSE;
 			return;
 		}
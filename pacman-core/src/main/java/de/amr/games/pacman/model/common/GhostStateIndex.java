@@ -0,0 +1,133 @@
+package de.amr.games.pacman.model.common;
+
+/**
+ * Index of the ghost states of a game: the state of each ghost as a byte array and the number of
+ * ghosts in each state. The hunting tick of the controller uses it to select the ghosts in some
+ * state and to count the dead ghosts without streaming over all ghosts.
+ * <p>
+ * The index is a copy, not a store: the ghost objects stay the owners of their state, and only the
+ * state is indexed. {@link #capture()} copies the states of all ghosts into the index in one pass
+ * without allocating anything, state changes during the tick are reported by
+ * {@link #stateChanged(int)}.
+ * <p>
+ * The slots are the same as in the {@link CreatureGrid}: Pac-Man has slot 0, the ghost with ID
+ * <code>i</code> has slot <code>i + 1</code>.
+ */
+public class GhostStateIndex {
+
+	/** State value of Pac-Man, who has no ghost state, and of ghosts not placed yet. */
+	public static final byte NO_STATE = -1;
+
+	private static final GhostState[] GHOST_STATES = GhostState.values();
+
+	private Creature[] creatures = new Creature[0];
+	private final int[] stateCount = new int[GHOST_STATES.length];
+
+	/** Number of slots (Pac-Man plus the ghosts). */
+	public int size;
+
+	/** Ordinal of the ghost state or {@link #NO_STATE}. */
+	public byte[] state = new byte[0];
+
+	/**
+	 * Sets the indexed creatures and captures the ghost states.
+	 *
+	 * @param player Pac-Man or Ms. Pac-Man, gets slot 0
+	 * @param ghosts the ghosts, get the slots 1, 2, ...
+	 */
+	public void reset(Pac player, Ghost[] ghosts) {
+		size = 1 + ghosts.length;
+		creatures = new Creature[size];
+		creatures[0] = player;
+		System.arraycopy(ghosts, 0, creatures, 1, ghosts.length);
+		state = new byte[size];
+		capture();
+	}
+
+	/**
+	 * @param ghost a ghost
+	 * @return the slot of the ghost
+	 */
+	public static int slot(Ghost ghost) {
+		return ghost.id + 1;
+	}
+
+	/**
+	 * Copies the current states of all ghosts into the index.
+	 */
+	public void capture() {
+		capture(null);
+	}
+
+	/**
+	 * Copies the current states of all ghosts into the index and moves all creatures to their
+	 * current tile in the given grid in the same pass.
+	 *
+	 * @param grid creature grid with the same creatures or {@code null}
+	 */
+	public void capture(CreatureGrid grid) {
+		for (int i = 0; i < stateCount.length; ++i) {
+			stateCount[i] = 0;
+		}
+		state[0] = NO_STATE;
+		for (int slot = 0; slot < size; ++slot) {
+			Creature creature = creatures[slot];
+			if (grid != null) {
+				grid.move(slot, creature.tileX(), creature.tileY());
+			}
+			if (slot > 0) {
+				GhostState ghostState = ((Ghost) creature).state;
+				if (ghostState == null) {
+					state[slot] = NO_STATE; // not placed yet
+				} else {
+					state[slot] = (byte) ghostState.ordinal();
+					stateCount[ghostState.ordinal()]++;
+				}
+			}
+		}
+	}
+
+	/**
+	 * Updates the indexed state of a ghost after the state has changed, so the counters stay correct
+	 * until the next capture.
+	 *
+	 * @param slot slot of the ghost
+	 */
+	public void stateChanged(int slot) {
+		if (state[slot] != NO_STATE) {
+			stateCount[state[slot]]--;
+		}
+		GhostState ghostState = ghost(slot).state;
+		if (ghostState == null) {
+			state[slot] = NO_STATE;
+		} else {
+			state[slot] = (byte) ghostState.ordinal();
+			stateCount[ghostState.ordinal()]++;
+		}
+	}
+
+	/**
+	 * @param ghostState ghost state
+	 * @return number of ghosts in this state
+	 */
+	public int count(GhostState ghostState) {
+		return stateCount[ghostState.ordinal()];
+	}
+
+	/**
+	 * @param slot       slot
+	 * @param ghostState ghost state
+	 * @return if the creature in this slot is a ghost in the given state
+	 */
+	public boolean is(int slot, GhostState ghostState) {
+		return state[slot] == ghostState.ordinal();
+	}
+
+	/**
+	 * @param slot slot of a ghost
+	 * @return the ghost in this slot
+	 */
+	public Ghost ghost(int slot) {
+		return (Ghost) creatures[slot];
+	}
+}
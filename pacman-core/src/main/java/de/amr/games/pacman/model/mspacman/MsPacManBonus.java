@@ -1,6 +1,9 @@
 package de.amr.games.pacman.model.mspacman;
 
+import java.util.Random;
+
 import de.amr.games.pacman.lib.Direction;
+import de.amr.games.pacman.lib.GameRandom;
 import de.amr.games.pacman.model.pacman.PacManBonus;
 
 public class MsPacManBonus extends PacManBonus {
@@ -10,6 +13,7 @@ public class MsPacManBonus extends PacManBonus {
 		edibleTicksLeft = ticks;
 		stuck = false;
 		speed = 0.25f; // TODO what is the correct speed?
+		Random random = GameRandom.get();
 		if (random.nextBoolean()) {
 			placeAt(world.portalLeft(random.nextInt(world.numPortals())), 0, 0);
 			targetTile = world.portalRight(random.nextInt(world.numPortals()));
@@ -9,15 +9,15 @@ import static de.amr.games.pacman.model.common.Ghost.INKY;
 import static de.amr.games.pacman.model.common.Ghost.PINKY;
 import static de.amr.games.pacman.model.common.Ghost.SUE;
 
-import java.util.Random;
 import java.util.stream.Stream;
 
+import de.amr.games.pacman.lib.GameRandom;
 import de.amr.games.pacman.model.common.AbstractGameModel;
 import de.amr.games.pacman.model.common.GameLevel;
 import de.amr.games.pacman.model.common.Ghost;
 import de.amr.games.pacman.model.common.Pac;
 import de.amr.games.pacman.model.world.MapBasedPacManGameWorld;
-import de.amr.games.pacman.model.world.WorldMap;
+import de.amr.games.pacman.model.world.WorldMapCache;
 
 /**
  * Game model of the Ms. Pac-Man game variant.
@@ -81,11 +81,11 @@ public class MsPacManGame extends AbstractGameModel {
 	public MsPacManGame() {
 		highscoreFileName = "hiscore-mspacman.xml";
 
-		// validate maps
+		// validate maps, they are parsed and indexed only once and then taken from the cache
 		for (int mapNumber = 1; mapNumber <= 4; ++mapNumber) {
 			String mapPath = "/mspacman/maps/map" + mapNumber + ".txt";
 			try {
-				WorldMap.from(mapPath);
+				WorldMapCache.get(mapPath);
 			} catch (Exception x) {
 				log("Map '%s' contains errors", mapPath);
 			}
@@ -139,13 +139,12 @@ public class MsPacManGame extends AbstractGameModel {
 	protected void createLevel(int levelNumber) {
 		int mazeNumber = mazeNumber(levelNumber);
 		int mapNumber = mapNumber(mazeNumber);
-		WorldMap map = WorldMap.from("/mspacman/maps/map" + mapNumber + ".txt");
-		world.setMap(map);
+		world.setMap("/mspacman/maps/map" + mapNumber + ".txt");
 		currentLevel = new GameLevel(MSPACMAN_LEVELS[levelNumber <= 21 ? levelNumber - 1 : 20]);
 		currentLevel.setWorld(world);
 		currentLevel.mazeNumber = mazeNumber;
 		if (levelNumber > 7) {
-			currentLevel.bonusSymbol = (byte) new Random().nextInt(7);
+			currentLevel.bonusSymbol = (byte) GameRandom.get().nextInt(7);
 		}
 		log("Ms. Pac-Man level %d created, maze index is %d", levelNumber, mazeNumber);
 	}
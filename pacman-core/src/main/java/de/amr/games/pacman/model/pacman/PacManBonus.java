@@ -1,7 +1,5 @@
 package de.amr.games.pacman.model.pacman;
 
-import java.util.Random;
-
 import de.amr.games.pacman.model.common.Creature;
 
 /**
@@ -11,8 +9,6 @@ import de.amr.games.pacman.model.common.Creature;
  */
 public class PacManBonus extends Creature {
 
-	public Random random = new Random();
-
 	/** ID of the bonus symbol. */
 	public byte symbol;
 
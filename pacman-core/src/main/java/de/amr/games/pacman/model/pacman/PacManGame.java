@@ -19,7 +19,6 @@ import de.amr.games.pacman.model.common.GameLevel;
 import de.amr.games.pacman.model.common.Ghost;
 import de.amr.games.pacman.model.common.Pac;
 import de.amr.games.pacman.model.world.MapBasedPacManGameWorld;
-import de.amr.games.pacman.model.world.WorldMap;
 
 /**
  * Game model of the classic Pac-Man game.
@@ -68,18 +67,31 @@ public class PacManGame extends AbstractGameModel {
 		//@formatter:on
 	};
 
-	private final MapBasedPacManGameWorld world = new MapBasedPacManGameWorld();
-
-	public PacManGame() {
-		highscoreFileName = "hiscore-pacman.xml";
-
+	private static MapBasedPacManGameWorld createClassicWorld() {
+		MapBasedPacManGameWorld world = new MapBasedPacManGameWorld();
 		String mapPath = "/pacman/maps/map1.txt";
 		try {
-			WorldMap map = WorldMap.from(mapPath);
-			world.setMap(map);
+			world.setMap(mapPath);
 		} catch (Exception x) {
 			log("Map '%s' contains errors", mapPath);
 		}
+		return world;
+	}
+
+	private final MapBasedPacManGameWorld world;
+
+	public PacManGame() {
+		this(createClassicWorld());
+	}
+
+	/**
+	 * Creates a Pac-Man game played in the given world.
+	 * 
+	 * @param world the world, e.g. a procedurally generated one
+	 */
+	public PacManGame(MapBasedPacManGameWorld world) {
+		this.world = world;
+		highscoreFileName = "hiscore-pacman.xml";
 
 		bonusNames = Stream.of(BonusSymbol.values()).map(Enum<BonusSymbol>::name).toArray(String[]::new);
 		bonusValues = BONUS_VALUES;
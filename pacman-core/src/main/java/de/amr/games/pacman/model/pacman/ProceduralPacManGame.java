@@ -0,0 +1,15 @@
+package de.amr.games.pacman.model.pacman;
+
+import de.amr.games.pacman.model.world.ProceduralPacManGameWorld;
+
+/**
+ * Pac-Man game played in a procedurally generated world of arbitrary size. Used for headless runs
+ * measuring how the game scales with the map size.
+ */
+public class ProceduralPacManGame extends PacManGame {
+
+	public ProceduralPacManGame(int width, int height, long seed) {
+		super(new ProceduralPacManGameWorld(width, height, seed));
+		highscoreFileName = String.format("hiscore-pacman-%dx%d.xml", width, height);
+	}
+}
@@ -0,0 +1,359 @@
+package de.amr.games.pacman.model.world;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.List;
+
+import de.amr.games.pacman.lib.Direction;
+import de.amr.games.pacman.lib.V2i;
+
+/**
+ * A world map together with the values and tile indexes derived from it.
+ * <p>
+ * For each tile, an attribute bitmask (wall, food, intersection etc.) is stored. In addition, the
+ * map contains the table of the shortest path distances between all pairs of accessible tiles,
+ * using the portals, if the map is not too large. The table is computed on the first call of
+ * {@link #distance(V2i, V2i)} unless it has been precomputed by the {@link WorldMapCompiler}.
+ * Instances are immutable and can be shared by any number of worlds, game models and threads.
+ *
+ * @see WorldMapCache
+ * @see WorldMapCompiler
+ */
+public class IndexedWorldMap {
+
+	public static final byte ATTR_WALL = 1, ATTR_FOOD = 2, ATTR_ENERGIZER = 4, ATTR_DOOR = 8, ATTR_TUNNEL = 16,
+			ATTR_INTERSECTION = 32, ATTR_UPWARDS_BLOCKED = 64, ATTR_GHOST_HOUSE = -128;
+
+	/** Distance table value for unreachable tiles. */
+	public static final int UNREACHABLE = -1;
+
+	/** Maps with more accessible tiles (e.g. large generated mazes) have no distance table. */
+	public static final int MAX_DISTANCE_TABLE_TILES = 4096;
+
+	public final WorldMap map;
+	public final V2i size;
+	public final V2i house_top_left;
+	public final V2i house_bottom_right;
+	public final V2i house_entry;
+	public final V2i house_seat_left;
+	public final V2i house_seat_center;
+	public final V2i house_seat_right;
+	public final List<V2i> scatterTiles;
+	public final V2i pacman_home;
+	public final V2i bonus_home;
+	public final List<V2i> upwardsBlockedTiles;
+	public final List<Integer> portalRows;
+	public final List<V2i> energizerTiles;
+
+	private final BitSet portals = new BitSet();
+	private final byte[] attributes;
+
+	// distance table: accessible tiles are numbered consecutively, entry width is 1 or 2 bytes
+	private static class DistanceTable {
+
+		final ByteBuffer distances;
+		final int width;
+
+		DistanceTable(ByteBuffer distances, int width) {
+			this.distances = distances;
+			this.width = width;
+		}
+	}
+
+	private final int[] accessibleTileNumbers;
+	private final int numAccessibleTiles;
+	private volatile DistanceTable distanceTable; // null until first used
+
+	/**
+	 * Creates the indexed map by computing all derived data, except the distance table.
+	 *
+	 * @param map a world map
+	 */
+	public IndexedWorldMap(WorldMap map) {
+		this(map, null, null, null, 0);
+	}
+
+	/**
+	 * Creates the indexed map from precomputed data, see {@link WorldMapCompiler}.
+	 */
+	IndexedWorldMap(WorldMap map, int[] portalRows, byte[] attributes, ByteBuffer distances, int distanceWidth) {
+		this.map = map;
+
+		size = map.vector("size");
+		house_top_left = map.vector("house_top_left");
+		house_bottom_right = map.vector("house_bottom_right");
+		house_entry = map.vector("house_entry");
+		house_seat_left = map.vector("house_seat_left");
+		house_seat_center = map.vector("house_seat_center");
+		house_seat_right = map.vector("house_seat_right");
+		pacman_home = map.vector("pacman_home");
+		bonus_home = map.vectorOpt("bonus_home").orElse(V2i.NULL);
+		scatterTiles = Collections.unmodifiableList(map.vector_list("scatter"));
+		upwardsBlockedTiles = Collections.unmodifiableList(map.vector_list("upwards_blocked"));
+
+		// find portal tiles
+		List<Integer> rows = new ArrayList<>();
+		if (portalRows != null) {
+			Arrays.stream(portalRows).forEach(rows::add);
+		} else {
+			for (int y = 0; y < size.y; ++y) {
+				if (map.data(0, y) == WorldMap.TUNNEL && map.data(size.x - 1, y) == WorldMap.TUNNEL) {
+					rows.add(y);
+				}
+			}
+		}
+		rows.forEach(portals::set);
+		this.portalRows = Collections.unmodifiableList(rows);
+
+		this.attributes = attributes != null ? attributes : computeAttributes();
+
+		List<V2i> energizers = new ArrayList<>();
+		for (int i = 0; i < this.attributes.length; ++i) {
+			if ((this.attributes[i] & ATTR_ENERGIZER) != 0) {
+				energizers.add(new V2i(i % size.x, i / size.x));
+			}
+		}
+		energizerTiles = Collections.unmodifiableList(energizers);
+
+		accessibleTileNumbers = new int[size.x * size.y];
+		int n = 0;
+		for (int i = 0; i < accessibleTileNumbers.length; ++i) {
+			accessibleTileNumbers[i] = isAccessible(i) ? n++ : -1;
+		}
+		numAccessibleTiles = n;
+
+		if (distances != null) {
+			distanceTable = new DistanceTable(distances, distanceWidth);
+		}
+	}
+
+	private DistanceTable distanceTable() {
+		DistanceTable table = distanceTable;
+		if (table == null) {
+			synchronized (this) {
+				table = distanceTable;
+				if (table == null) {
+					table = computeDistanceTable();
+					distanceTable = table;
+				}
+			}
+		}
+		return table;
+	}
+
+	private DistanceTable computeDistanceTable() {
+		if (numAccessibleTiles > MAX_DISTANCE_TABLE_TILES) {
+			return new DistanceTable(ByteBuffer.allocate(0), 0);
+		}
+		short[] table = computeDistances();
+		int max = 0;
+		for (short d : table) {
+			max = Math.max(max, d);
+		}
+		int width = max < 255 ? 1 : 2;
+		ByteBuffer distances = ByteBuffer.allocate(table.length * width);
+		for (short d : table) {
+			if (width == 1) {
+				distances.put((byte) d);
+			} else {
+				distances.putShort(d);
+			}
+		}
+		distances.flip();
+		return new DistanceTable(distances, width);
+	}
+
+	private byte[] computeAttributes() {
+		byte[] attr = new byte[size.x * size.y];
+		for (int y = 0; y < size.y; ++y) {
+			for (int x = 0; x < size.x; ++x) {
+				V2i tile = new V2i(x, y);
+				byte content = map.data(x, y);
+				int bits = 0;
+				if (content == WorldMap.WALL) {
+					bits |= ATTR_WALL;
+				} else if (content == WorldMap.PILL) {
+					bits |= ATTR_FOOD;
+				} else if (content == WorldMap.ENERGIZER) {
+					bits |= ATTR_FOOD | ATTR_ENERGIZER;
+				} else if (content == WorldMap.DOOR) {
+					bits |= ATTR_DOOR;
+				} else if (content == WorldMap.TUNNEL) {
+					bits |= ATTR_TUNNEL;
+				}
+				if (isInsideGhostHouse(tile)) {
+					bits |= ATTR_GHOST_HOUSE;
+				}
+				if (upwardsBlockedTiles.contains(tile)) {
+					bits |= ATTR_UPWARDS_BLOCKED;
+				}
+				// intersections ("waypoints") are tiles with at least 3 accessible neighbor tiles
+				if (!isInsideGhostHouse(tile) && data(tile.plus(Direction.DOWN.vec)) != WorldMap.DOOR) {
+					int accessibleNeighbors = 0;
+					for (Direction dir : Direction.values()) {
+						if (data(tile.plus(dir.vec)) != WorldMap.WALL) {
+							++accessibleNeighbors;
+						}
+					}
+					if (accessibleNeighbors >= 3) {
+						bits |= ATTR_INTERSECTION;
+					}
+				}
+				attr[index(tile)] = (byte) bits;
+			}
+		}
+		return attr;
+	}
+
+	private boolean isAccessible(int index) {
+		return (attributes[index] & (ATTR_WALL | ATTR_DOOR)) == 0;
+	}
+
+	/**
+	 * Breadth-first search from each accessible tile. Tiles in portal rows at the left and right map
+	 * border are neighbors.
+	 */
+	private short[] computeDistances() {
+		int n = numAccessibleTiles;
+		short[] table = new short[n * n];
+		Arrays.fill(table, (short) UNREACHABLE);
+		int[] queue = new int[size.x * size.y];
+		int[] neighbors = new int[4];
+		for (int source = 0; source < accessibleTileNumbers.length; ++source) {
+			if (accessibleTileNumbers[source] == -1) {
+				continue;
+			}
+			int row = accessibleTileNumbers[source] * n;
+			int head = 0, tail = 0;
+			queue[tail++] = source;
+			table[row + accessibleTileNumbers[source]] = 0;
+			while (head < tail) {
+				int current = queue[head++];
+				short dist = table[row + accessibleTileNumbers[current]];
+				int numNeighbors = neighbors(current, neighbors);
+				for (int k = 0; k < numNeighbors; ++k) {
+					int neighbor = neighbors[k], number = accessibleTileNumbers[neighbor];
+					if (number != -1 && table[row + number] == UNREACHABLE) {
+						table[row + number] = (short) (dist + 1);
+						queue[tail++] = neighbor;
+					}
+				}
+			}
+		}
+		return table;
+	}
+
+	private int neighbors(int index, int[] result) {
+		int x = index % size.x, y = index / size.x, count = 0;
+		boolean portalRow = portals.get(y);
+		if (x > 0) {
+			result[count++] = index - 1;
+		} else if (portalRow) {
+			result[count++] = index + size.x - 1;
+		}
+		if (x < size.x - 1) {
+			result[count++] = index + 1;
+		} else if (portalRow) {
+			result[count++] = index - size.x + 1;
+		}
+		if (y > 0) {
+			result[count++] = index - size.x;
+		}
+		if (y < size.y - 1) {
+			result[count++] = index + size.x;
+		}
+		return count;
+	}
+
+	/**
+	 * @param tile some tile
+	 * @return map content at the tile or {@link WorldMap#UNDEFINED} if the tile is outside of the map
+	 */
+	public byte data(V2i tile) {
+		return insideMap(tile) ? map.data(tile) : WorldMap.UNDEFINED;
+	}
+
+	/**
+	 * @param tile some tile
+	 * @return attribute bitmask of the tile or 0 if the tile is outside of the map
+	 */
+	public byte attributes(V2i tile) {
+		return insideMap(tile) ? attributes[index(tile)] : 0;
+	}
+
+	byte[] attributes() {
+		return attributes;
+	}
+
+	ByteBuffer distances() {
+		return distanceTable().distances.duplicate();
+	}
+
+	int distanceWidth() {
+		return distanceTable().width;
+	}
+
+	public boolean hasDistanceTable() {
+		DistanceTable table = distanceTable;
+		return table != null ? table.width > 0 : numAccessibleTiles <= MAX_DISTANCE_TABLE_TILES;
+	}
+
+	public boolean insideMap(V2i tile) {
+		return 0 <= tile.x && tile.x < size.x && 0 <= tile.y && tile.y < size.y;
+	}
+
+	public int index(V2i tile) {
+		return size.x * tile.y + tile.x;
+	}
+
+	public boolean isInsideGhostHouse(V2i tile) {
+		return tile.x >= house_top_left.x && tile.x <= house_bottom_right.x //
+				&& tile.y >= house_top_left.y && tile.y <= house_bottom_right.y;
+	}
+
+	public boolean isUpwardsBlocked(V2i tile) {
+		return (attributes(tile) & ATTR_UPWARDS_BLOCKED) != 0;
+	}
+
+	public boolean isPortal(V2i tile) {
+		return (tile.x == -1 || tile.x == size.x) && tile.y >= 0 && portals.get(tile.y);
+	}
+
+	public boolean isIntersection(V2i tile) {
+		return (attributes(tile) & ATTR_INTERSECTION) != 0;
+	}
+
+	public boolean isEnergizerTile(V2i tile) {
+		return (attributes(tile) & ATTR_ENERGIZER) != 0;
+	}
+
+	/**
+	 * @param from some tile
+	 * @param to   some tile
+	 * @return length of the shortest path between the tiles (using the portals) or
+	 *         {@link #UNREACHABLE} if one of the tiles is not accessible or there is no path
+	 */
+	public int distance(V2i from, V2i to) {
+		if (!hasDistanceTable()) {
+			throw new IllegalStateException("Map has no distance table, it has more than " + MAX_DISTANCE_TABLE_TILES
+					+ " accessible tiles");
+		}
+		if (!insideMap(from) || !insideMap(to)) {
+			return UNREACHABLE;
+		}
+		int i = accessibleTileNumbers[index(from)], j = accessibleTileNumbers[index(to)];
+		if (i == -1 || j == -1) {
+			return UNREACHABLE;
+		}
+		DistanceTable table = distanceTable();
+		int offset = (i * numAccessibleTiles + j) * table.width;
+		if (table.width == 1) {
+			int d = table.distances.get(offset) & 0xFF;
+			return d == 0xFF ? UNREACHABLE : d;
+		}
+		return table.distances.getShort(offset);
+	}
+}
@@ -1,9 +1,5 @@
 package de.amr.games.pacman.model.world;
 
-import java.util.BitSet;
-import java.util.List;
-import java.util.stream.Collectors;
-import java.util.stream.IntStream;
 import java.util.stream.Stream;
 
 import de.amr.games.pacman.lib.Direction;
@@ -16,55 +12,19 @@ import de.amr.games.pacman.lib.V2i;
  */
 public class MapBasedPacManGameWorld implements PacManGameWorld {
 
-	private WorldMap map;
-	private V2i size;
-	private V2i house_top_left;
-	private V2i house_bottom_right;
-	private V2i house_entry;
-	private V2i house_seat_left;
-	private V2i house_seat_center;
-	private V2i house_seat_right;
-	private List<V2i> scatterTiles;
-	private V2i pacman_home;
-	private V2i bonus_home;
-	private List<V2i> upwardsBlockedTiles;
-	private List<Integer> portalRows;
-	private BitSet intersections;
-	private List<V2i> energizerTiles;
+	private IndexedWorldMap map;
+
+	/**
+	 * Uses the map with the given resource path. The map is loaded and indexed only on first use.
+	 * 
+	 * @param resourcePath resource path of the map
+	 */
+	public void setMap(String resourcePath) {
+		map = WorldMapCache.get(resourcePath);
+	}
 
 	public void setMap(WorldMap map) {
-		this.map = map;
-
-		size = map.vector("size");
-		house_top_left = map.vector("house_top_left");
-		house_bottom_right = map.vector("house_bottom_right");
-		house_entry = map.vector("house_entry");
-		house_seat_left = map.vector("house_seat_left");
-		house_seat_center = map.vector("house_seat_center");
-		house_seat_right = map.vector("house_seat_right");
-		pacman_home = map.vector("pacman_home");
-		bonus_home = map.vectorOpt("bonus_home").orElse(V2i.NULL);
-		scatterTiles = map.vector_list("scatter");
-		upwardsBlockedTiles = map.vector_list("upwards_blocked");
-
-		// find portal tiles
-		portalRows = IntStream.range(0, size.y)
-				.filter(y -> map.data(0, y) == WorldMap.TUNNEL && map.data(size.x - 1, y) == WorldMap.TUNNEL)
-				.mapToObj(Integer::valueOf).collect(Collectors.toList());
-
-		// find intersections ("waypoints"), i.e. tiles with at least 3 accessible neighbor tiles
-		intersections = new BitSet();
-		//@formatter:off
-		tiles()
-			.filter(tile -> !isInsideGhostHouse(tile))
-			.filter(tile -> !isGhostHouseDoor(tile.plus(Direction.DOWN.vec)))
-			.filter(tile -> neighborTiles(tile).filter(neighbor-> !isWall(neighbor)).count() >= 3)
-			.map(tile -> index(tile))
-			.forEach(intersections::set);
-		//@formatter:on
-
-		// find energizer tiles
-		energizerTiles = tiles().filter(tile -> map.data(tile) == WorldMap.ENERGIZER).collect(Collectors.toList());
+		this.map = new IndexedWorldMap(map);
 	}
 
 	@Override
@@ -73,118 +33,118 @@ public class MapBasedPacManGameWorld implements PacManGameWorld {
 	}
 
 	public boolean isInsideGhostHouse(V2i tile) {
-		return tile.x >= house_top_left.x && tile.x <= house_bottom_right.x //
-				&& tile.y >= house_top_left.y && tile.y <= house_bottom_right.y;
+		return map.isInsideGhostHouse(tile);
 	}
 
 	@Override
 	public int numCols() {
-		return size.x;
+		return map.size.x;
 	}
 
 	@Override
 	public int numRows() {
-		return size.y;
+		return map.size.y;
 	}
 
 	@Override
 	public V2i pacHome() {
-		return pacman_home;
+		return map.pacman_home;
 	}
 
 	@Override
 	public V2i ghostHome(int ghostID) {
-		return ghostID == 0 ? house_entry
-				: ghostID == 1 ? house_seat_center : ghostID == 2 ? house_seat_left : house_seat_right;
+		return ghostID == 0 ? map.house_entry
+				: ghostID == 1 ? map.house_seat_center : ghostID == 2 ? map.house_seat_left : map.house_seat_right;
 	}
 
 	@Override
 	public V2i ghostScatterTile(int ghostID) {
-		return scatterTiles.get(ghostID);
+		return map.scatterTiles.get(ghostID);
 	}
 
 	@Override
 	public int numPortals() {
-		return portalRows.size();
+		return map.portalRows.size();
 	}
 
 	@Override
 	public V2i portalLeft(int i) {
-		return new V2i(-1, portalRows.get(i));
+		return new V2i(-1, map.portalRows.get(i));
 	}
 
 	@Override
 	public V2i portalRight(int i) {
-		return new V2i(size.x, portalRows.get(i));
+		return new V2i(map.size.x, map.portalRows.get(i));
 	}
 
 	@Override
 	public boolean isUpwardsBlocked(V2i tile) {
-		return upwardsBlockedTiles.contains(tile);
+		return map.isUpwardsBlocked(tile);
 	}
 
 	@Override
 	public V2i houseEntry() {
-		return house_entry;
+		return map.house_entry;
 	}
 
 	@Override
 	public V2i houseSeatCenter() {
-		return house_seat_center;
+		return map.house_seat_center;
 	}
 
 	@Override
 	public V2i houseSeatLeft() {
-		return house_seat_left;
+		return map.house_seat_left;
 	}
 
 	@Override
 	public V2i houseSeatRight() {
-		return house_seat_right;
+		return map.house_seat_right;
 	}
 
 	@Override
 	public boolean isWall(V2i tile) {
-		return insideMap(tile) && map.data(tile) == WorldMap.WALL;
+		return map.data(tile) == WorldMap.WALL;
 	}
 
 	@Override
 	public boolean isTunnel(V2i tile) {
-		return insideMap(tile) && map.data(tile) == WorldMap.TUNNEL;
+		return map.data(tile) == WorldMap.TUNNEL;
 	}
 
 	@Override
 	public boolean isGhostHouseDoor(V2i tile) {
-		return insideMap(tile) && map.data(tile) == WorldMap.DOOR;
+		return map.data(tile) == WorldMap.DOOR;
 	}
 
 	@Override
 	public boolean isPortal(V2i tile) {
-		return (tile.x == -1 || tile.x == size.x) && portalRows.contains(tile.y);
+		return map.isPortal(tile);
 	}
 
 	@Override
 	public boolean isIntersection(V2i tile) {
-		return intersections.get(index(tile));
+		return map.isIntersection(tile);
 	}
 
 	@Override
 	public boolean isFoodTile(V2i tile) {
-		return insideMap(tile) && (map.data(tile) == WorldMap.PILL || map.data(tile) == WorldMap.ENERGIZER);
+		byte content = map.data(tile);
+		return content == WorldMap.PILL || content == WorldMap.ENERGIZER;
 	}
 
 	@Override
 	public boolean isEnergizerTile(V2i tile) {
-		return energizerTiles.contains(tile);
+		return map.isEnergizerTile(tile);
 	}
 
 	@Override
 	public Stream<V2i> energizerTiles() {
-		return energizerTiles.stream();
+		return map.energizerTiles.stream();
 	}
 
 	@Override
 	public V2i bonusHomeTile() {
-		return bonus_home;
+		return map.bonus_home;
 	}
 }
\ No newline at end of file
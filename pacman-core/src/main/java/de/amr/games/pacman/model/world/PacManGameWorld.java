@@ -5,6 +5,7 @@ import java.util.stream.Stream;
 
 import de.amr.games.pacman.lib.V2d;
 import de.amr.games.pacman.lib.V2i;
+import de.amr.games.pacman.model.common.Ghost;
 
 /**
  * Interface of the world as seen by game controller.
@@ -75,13 +76,13 @@ public interface PacManGameWorld {
 	V2i pacHome();
 
 	/**
-	 * @param ghost a ghost
+	 * @param ghost home seat of a ghost, see {@link Ghost#homeSeat()}
 	 * @return ghost's home position
 	 */
 	V2i ghostHome(int ghost);
 
 	/**
-	 * @param ghost a ghost
+	 * @param ghost personality of a ghost, see {@link Ghost#personality}
 	 * @return ghost scattering target (outside of the accessible maze)
 	 */
 	V2i ghostScatterTile(int ghost);
@@ -0,0 +1,311 @@
+package de.amr.games.pacman.model.world;
+
+import static de.amr.games.pacman.lib.Logging.log;
+
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+import de.amr.games.pacman.lib.V2i;
+
+/**
+ * World with a randomly generated maze of arbitrary size, used to test how the game scales with the
+ * map size.
+ * <p>
+ * The maze is a random spanning tree over a grid of cells (every second tile) where all dead ends
+ * have been removed by opening additional walls ("braided"), so like in the original mazes, there
+ * are no dead ends. In the center, the ghost house of the original Pac-Man map is placed. The bonus
+ * appears on the corridor below the house and Pac-Man starts on the nearest horizontal corridor of
+ * the maze below the house. The four corner cells get energizers and all other corridor tiles
+ * outside of the house area get pellets. Every 32 tile rows there is a portal connecting the left
+ * and right border. The top three and bottom two tile rows are reserved for the score and counters,
+ * like in the original map.
+ * <p>
+ * The same size and seed always produce the same maze.
+ */
+public class ProceduralPacManGameWorld extends MapBasedPacManGameWorld {
+
+	public static final int MIN_WIDTH = 28, MIN_HEIGHT = 36;
+
+	//@formatter:off
+	private static final String[] HOUSE = {
+		"          ",
+		" ###--### ",
+		" #      # ",
+		" #      # ",
+		" #      # ",
+		" ######## ",
+		"          ",
+	};
+	//@formatter:on
+
+	private static final int HOUSE_WIDTH = 10, HOUSE_HEIGHT = 7;
+	private static final int FIRST_MAZE_ROW = 3, LAST_MAZE_ROW_DISTANCE = 3;
+	private static final int PORTAL_DISTANCE_CELLS = 16;
+
+	public final long seed;
+
+	private final int width, height;
+	private final byte[][] content;
+	private final Random rnd;
+	private int houseX, houseY;
+	private V2i pacManHome;
+
+	/**
+	 * @param width  number of tile columns, at least {@link #MIN_WIDTH}
+	 * @param height number of tile rows, at least {@link #MIN_HEIGHT}
+	 * @param seed   seed of the random generator
+	 */
+	public ProceduralPacManGameWorld(int width, int height, long seed) {
+		if (width < MIN_WIDTH || height < MIN_HEIGHT) {
+			throw new IllegalArgumentException(String.format("World size must be at least %dx%d but is %dx%d", MIN_WIDTH,
+					MIN_HEIGHT, width, height));
+		}
+		this.width = width;
+		this.height = height;
+		this.seed = seed;
+		this.rnd = new Random(seed);
+		this.content = new byte[height][width];
+		long start = System.nanoTime();
+		generate();
+		setMap(new WorldMap(content, definitions()));
+		log("Procedural world %dx%d (seed %d) generated in %.2f milliseconds", width, height, seed,
+				(System.nanoTime() - start) / 1e6);
+	}
+
+	// cells are the tiles at odd columns and at rows FIRST_MAZE_ROW + 1 + 2k
+
+	private int numCellCols() {
+		return (width - 1) / 2;
+	}
+
+	private int numCellRows() {
+		return (height - LAST_MAZE_ROW_DISTANCE - FIRST_MAZE_ROW) / 2;
+	}
+
+	private int cellX(int col) {
+		return 1 + 2 * col;
+	}
+
+	private int cellY(int row) {
+		return FIRST_MAZE_ROW + 1 + 2 * row;
+	}
+
+	private boolean isOpen(int x, int y) {
+		return content[y][x] != WorldMap.WALL;
+	}
+
+	private boolean insideHouseArea(int x, int y, int margin) {
+		return x >= houseX - margin && x < houseX + HOUSE_WIDTH + margin && y >= houseY - margin
+				&& y < houseY + HOUSE_HEIGHT + margin;
+	}
+
+	private void generate() {
+		for (byte[] row : content) {
+			Arrays.fill(row, WorldMap.WALL);
+		}
+		houseX = width / 2 - HOUSE_WIDTH / 2;
+		houseY = cellY(numCellRows() / 2) - HOUSE_HEIGHT / 2;
+		int cols = numCellCols(), rows = numCellRows();
+		BitSet excluded = new BitSet(cols * rows);
+		for (int row = 0; row < rows; ++row) {
+			for (int col = 0; col < cols; ++col) {
+				if (insideHouseArea(cellX(col), cellY(row), 1)) {
+					excluded.set(row * cols + col);
+				}
+			}
+		}
+		carveSpanningTree(cols, rows, excluded);
+		braid(cols, rows, excluded);
+		placeHouse();
+		placePortals(rows);
+		placeFood(cols, rows);
+		placePacMan();
+	}
+
+	private void carveSpanningTree(int cols, int rows, BitSet excluded) {
+		BitSet visited = new BitSet(cols * rows);
+		Deque<Integer> stack = new ArrayDeque<>();
+		int[] candidates = new int[4];
+		stack.push(0);
+		visited.set(0);
+		content[cellY(0)][cellX(0)] = WorldMap.SPACE;
+		while (!stack.isEmpty()) {
+			int cell = stack.peek();
+			int col = cell % cols, row = cell / cols;
+			int n = 0;
+			if (col > 0) {
+				candidates[n++] = cell - 1;
+			}
+			if (col < cols - 1) {
+				candidates[n++] = cell + 1;
+			}
+			if (row > 0) {
+				candidates[n++] = cell - cols;
+			}
+			if (row < rows - 1) {
+				candidates[n++] = cell + cols;
+			}
+			int unvisited = 0;
+			for (int i = 0; i < n; ++i) {
+				if (!visited.get(candidates[i]) && !excluded.get(candidates[i])) {
+					candidates[unvisited++] = candidates[i];
+				}
+			}
+			if (unvisited == 0) {
+				stack.pop();
+				continue;
+			}
+			int next = candidates[rnd.nextInt(unvisited)];
+			connect(cell, next, cols);
+			visited.set(next);
+			stack.push(next);
+		}
+	}
+
+	private void connect(int cell, int other, int cols) {
+		int x1 = cellX(cell % cols), y1 = cellY(cell / cols);
+		int x2 = cellX(other % cols), y2 = cellY(other / cols);
+		content[y1][x1] = WorldMap.SPACE;
+		content[(y1 + y2) / 2][(x1 + x2) / 2] = WorldMap.SPACE;
+		content[y2][x2] = WorldMap.SPACE;
+	}
+
+	private void braid(int cols, int rows, BitSet excluded) {
+		int[] candidates = new int[4];
+		for (int cell = 0; cell < cols * rows; ++cell) {
+			if (excluded.get(cell)) {
+				continue;
+			}
+			int col = cell % cols, row = cell / cols, x = cellX(col), y = cellY(row);
+			int openWalls = 0, n = 0;
+			if (col > 0) {
+				if (isOpen(x - 1, y)) {
+					++openWalls;
+				} else if (!excluded.get(cell - 1)) {
+					candidates[n++] = cell - 1;
+				}
+			}
+			if (col < cols - 1) {
+				if (isOpen(x + 1, y)) {
+					++openWalls;
+				} else if (!excluded.get(cell + 1)) {
+					candidates[n++] = cell + 1;
+				}
+			}
+			if (row > 0) {
+				if (isOpen(x, y - 1)) {
+					++openWalls;
+				} else if (!excluded.get(cell - cols)) {
+					candidates[n++] = cell - cols;
+				}
+			}
+			if (row < rows - 1) {
+				if (isOpen(x, y + 1)) {
+					++openWalls;
+				} else if (!excluded.get(cell + cols)) {
+					candidates[n++] = cell + cols;
+				}
+			}
+			if (openWalls < 2 && n > 0) {
+				connect(cell, candidates[rnd.nextInt(n)], cols);
+			}
+		}
+	}
+
+	private void placeHouse() {
+		for (int dy = 0; dy < HOUSE_HEIGHT; ++dy) {
+			for (int dx = 0; dx < HOUSE_WIDTH; ++dx) {
+				char c = HOUSE[dy].charAt(dx);
+				content[houseY + dy][houseX + dx] = c == '#' ? WorldMap.WALL : c == '-' ? WorldMap.DOOR : WorldMap.SPACE;
+			}
+		}
+		// connect the corridor around the house with the maze, starting from a cell row or column
+		int rowInHouse = houseY + ((cellY(0) - houseY) & 1);
+		int colInHouse = houseX + 1 - (houseX & 1);
+		carveUntilOpen(houseX - 1, rowInHouse, -1, 0);
+		carveUntilOpen(houseX + HOUSE_WIDTH, rowInHouse, 1, 0);
+		carveUntilOpen(colInHouse, houseY - 1, 0, -1);
+		carveUntilOpen(colInHouse, houseY + HOUSE_HEIGHT, 0, 1);
+	}
+
+	private void carveUntilOpen(int x, int y, int dx, int dy) {
+		while (x > 0 && x < width - 1 && y > FIRST_MAZE_ROW && y < height - LAST_MAZE_ROW_DISTANCE && !isOpen(x, y)) {
+			content[y][x] = WorldMap.SPACE;
+			x += dx;
+			y += dy;
+		}
+	}
+
+	private void placePortals(int rows) {
+		for (int row = PORTAL_DISTANCE_CELLS / 2; row < rows; row += PORTAL_DISTANCE_CELLS) {
+			int y = cellY(row);
+			if (y >= houseY - 1 && y <= houseY + HOUSE_HEIGHT) {
+				y = houseY - 2 - ((houseY - 2 - cellY(0)) & 1); // avoid house rows
+			}
+			content[y][0] = WorldMap.TUNNEL;
+			content[y][width - 1] = WorldMap.TUNNEL;
+			carveUntilOpen(1, y, 1, 0);
+			carveUntilOpen(width - 2, y, -1, 0);
+		}
+	}
+
+	private void placeFood(int cols, int rows) {
+		for (int y = 0; y < height; ++y) {
+			for (int x = 0; x < width; ++x) {
+				if (content[y][x] == WorldMap.SPACE && !insideHouseArea(x, y, 0)) {
+					content[y][x] = WorldMap.PILL;
+				}
+			}
+		}
+		content[cellY(0)][cellX(0)] = WorldMap.ENERGIZER;
+		content[cellY(0)][cellX(cols - 1)] = WorldMap.ENERGIZER;
+		content[cellY(rows - 1)][cellX(0)] = WorldMap.ENERGIZER;
+		content[cellY(rows - 1)][cellX(cols - 1)] = WorldMap.ENERGIZER;
+	}
+
+	// Pac-Man stands between two tiles, so he starts on the pair of open tiles in the maze below the
+	// house area nearest to the house center, without pellets like in the original map
+	private void placePacMan() {
+		int centerX = houseX + HOUSE_WIDTH / 2 - 1, topY = houseY + HOUSE_HEIGHT;
+		for (int distance = 0; distance < width + height; ++distance) {
+			for (int dy = 0; dy <= distance && topY + dy < height - LAST_MAZE_ROW_DISTANCE; ++dy) {
+				int y = topY + dy;
+				for (int x : new int[] { centerX - (distance - dy), centerX + (distance - dy) }) {
+					if (x > 0 && x + 1 < width - 1 && isOpen(x, y) && isOpen(x + 1, y)) {
+						pacManHome = new V2i(x, y);
+						content[y][x] = WorldMap.SPACE;
+						content[y][x + 1] = WorldMap.SPACE;
+						return;
+					}
+				}
+			}
+		}
+		// the corridor below the house is always open
+		pacManHome = new V2i(centerX, topY - 1);
+	}
+
+	private Map<String, Object> definitions() {
+		// house entry and seats as in the original Pac-Man map, relative to the house area. The house
+		// rectangle covers the walls and the interior, not the corridor around the house.
+		Map<String, Object> definitions = new HashMap<>();
+		definitions.put("size", new V2i(width, height));
+		definitions.put("house_top_left", new V2i(houseX + 1, houseY + 1));
+		definitions.put("house_bottom_right", new V2i(houseX + HOUSE_WIDTH - 2, houseY + HOUSE_HEIGHT - 2));
+		definitions.put("house_entry", new V2i(houseX + 4, houseY));
+		definitions.put("house_seat_left", new V2i(houseX + 2, houseY + 3));
+		definitions.put("house_seat_center", new V2i(houseX + 4, houseY + 3));
+		definitions.put("house_seat_right", new V2i(houseX + 6, houseY + 3));
+		definitions.put("pacman_home", pacManHome);
+		definitions.put("bonus_home", new V2i(houseX + 4, houseY + HOUSE_HEIGHT - 1));
+		definitions.put("scatter.0", new V2i(width - 3, 0));
+		definitions.put("scatter.1", new V2i(2, 0));
+		definitions.put("scatter.2", new V2i(width - 1, height - 2));
+		definitions.put("scatter.3", new V2i(0, height - 2));
+		return definitions;
+	}
+}
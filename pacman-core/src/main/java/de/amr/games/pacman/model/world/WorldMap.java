@@ -6,6 +6,7 @@ import java.io.BufferedReader;
 import java.io.IOException;
 import java.io.InputStreamReader;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -17,6 +18,9 @@ import de.amr.games.pacman.lib.V2i;
 
 /**
  * Map of the game world, created from a textual representation.
+ * <p>
+ * A map is not modified after it has been parsed. Use {@link WorldMapCache} to avoid parsing the
+ * same map again.
  * 
  * @author Armin Reichert
  */
@@ -58,11 +62,37 @@ public class WorldMap {
 		}
 	}
 
-	private final ValueDefinitionParser parser = new ValueDefinitionParser();
-	private final Map<String, Object> definitions = new HashMap<>();
+	/**
+	 * @param text textual map representation
+	 * @return the parsed map
+	 */
+	public static WorldMap fromText(String text) {
+		WorldMap map = new WorldMap();
+		map.parse(text.lines());
+		return map;
+	}
+
+	private final Map<String, Object> definitions;
 	private byte[][] content;
 
+	private WorldMap() {
+		definitions = new HashMap<>();
+	}
+
+	/**
+	 * Creates a map from already parsed data, see {@link WorldMapCompiler}.
+	 */
+	WorldMap(byte[][] content, Map<String, Object> definitions) {
+		this.content = content;
+		this.definitions = definitions;
+	}
+
+	Map<String, Object> definitions() {
+		return Collections.unmodifiableMap(definitions);
+	}
+
 	private void parse(Stream<String> lines) {
+		ValueDefinitionParser parser = new ValueDefinitionParser();
 		List<String> dataLines = new ArrayList<>();
 		lines.forEach(line -> {
 			if (line.startsWith("!")) {
@@ -0,0 +1,62 @@
+package de.amr.games.pacman.model.world;
+
+import static de.amr.games.pacman.lib.Logging.log;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Cache of the indexed world maps, keyed by resource path.
+ * <p>
+ * Each map resource is read and indexed only once per JVM. If the build has compiled the map (see
+ * {@link WorldMapCompiler}), no parsing is needed at all. All game models, levels and sessions
+ * using the same map share the same (immutable) instance.
+ */
+public class WorldMapCache {
+
+	private static final Map<String, IndexedWorldMap> cache = new ConcurrentHashMap<>();
+
+	/**
+	 * @param resourcePath resource path of the map, e.g. <code>/pacman/maps/map1.txt</code>
+	 * @return the indexed map, loaded on first access
+	 */
+	public static IndexedWorldMap get(String resourcePath) {
+		return cache.computeIfAbsent(resourcePath, WorldMapCache::load);
+	}
+
+	private static IndexedWorldMap load(String resourcePath) {
+		long start = System.nanoTime();
+		byte[] text = readResource(resourcePath);
+		if (text == null) {
+			throw new IllegalArgumentException("Map not found: " + resourcePath);
+		}
+		// use the map compiled at build time if it is up-to-date
+		byte[] compiled = readResource(resourcePath.replaceFirst("\\.txt$", ".bin"));
+		IndexedWorldMap indexedMap = compiled != null
+				? WorldMapCompiler.load(compiled, WorldMapCompiler.checksum(text))
+				: null;
+		if (indexedMap != null) {
+			log("Map '%s' loaded from compiled map in %.2f milliseconds", resourcePath, (System.nanoTime() - start) / 1e6);
+		} else {
+			indexedMap = new IndexedWorldMap(WorldMap.fromText(new String(text, StandardCharsets.UTF_8)));
+			log("Map '%s' parsed and indexed in %.2f milliseconds (no up-to-date compiled map found)", resourcePath,
+					(System.nanoTime() - start) / 1e6);
+		}
+		return indexedMap;
+	}
+
+	private static byte[] readResource(String path) {
+		try (InputStream in = WorldMapCache.class.getResourceAsStream(path)) {
+			return in != null ? in.readAllBytes() : null;
+		} catch (IOException x) {
+			throw new UncheckedIOException(x);
+		}
+	}
+
+	private WorldMapCache() {
+	}
+}
@@ -0,0 +1,185 @@
+package de.amr.games.pacman.model.world;
+
+import static de.amr.games.pacman.lib.Logging.log;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import java.util.zip.CRC32;
+
+import de.amr.games.pacman.lib.V2i;
+
+/**
+ * Compiles the textual world maps into a binary format containing the map tiles, value definitions,
+ * portal rows, the tile attribute bitmasks (including intersections) and the distance table.
+ * <p>
+ * The compiler runs during the build (see pom.xml) and writes a <code>.bin</code> file next to each
+ * <code>maps/*.txt</code> resource. The text files remain the source of truth: each binary file
+ * contains the checksum of its source text and is ignored if the text has been changed afterwards.
+ *
+ * <pre>
+ * int    magic, version
+ * long   checksum of source text
+ * int    width, height
+ * byte[] tiles (row-wise)
+ * byte[] tile attributes (row-wise)
+ * int    number of definitions, for each: UTF name, byte type, int value or int x, int y
+ * int    number of portal rows, int[] rows
+ * byte   distance entry width (1 or 2)
+ * int    distance table size in bytes, byte[] table
+ * </pre>
+ */
+public class WorldMapCompiler {
+
+	private static final int MAGIC = 0x504d4150; // "PMAP"
+	private static final int VERSION = 1;
+	private static final byte TYPE_INT = 0, TYPE_VECTOR = 1;
+
+	/**
+	 * @param args resources directory containing the map text files, output directory
+	 */
+	public static void main(String[] args) throws IOException {
+		if (args.length != 2) {
+			throw new IllegalArgumentException("Usage: WorldMapCompiler <resources directory> <output directory>");
+		}
+		Path resourcesDir = Paths.get(args[0]), outputDir = Paths.get(args[1]);
+		List<Path> mapFiles;
+		try (Stream<Path> files = Files.walk(resourcesDir)) {
+			mapFiles = files.filter(WorldMapCompiler::isMapFile).collect(Collectors.toList());
+		}
+		for (Path mapFile : mapFiles) {
+			long start = System.nanoTime();
+			byte[] compiled = compile(Files.readAllBytes(mapFile));
+			String binFileName = mapFile.getFileName().toString().replaceFirst("\\.txt$", ".bin");
+			Path binFile = outputDir.resolve(resourcesDir.relativize(mapFile)).resolveSibling(binFileName);
+			Files.createDirectories(binFile.getParent());
+			Files.write(binFile, compiled);
+			log("Map %s compiled into %s (%d bytes) in %.2f milliseconds", mapFile, binFile, compiled.length,
+					(System.nanoTime() - start) / 1e6);
+		}
+	}
+
+	private static boolean isMapFile(Path path) {
+		return Files.isRegularFile(path) && path.getParent() != null
+				&& path.getParent().getFileName().toString().equals("maps") && path.toString().endsWith(".txt");
+	}
+
+	public static long checksum(byte[] text) {
+		CRC32 crc = new CRC32();
+		crc.update(text);
+		return crc.getValue();
+	}
+
+	/**
+	 * @param text map text
+	 * @return the compiled map
+	 */
+	public static byte[] compile(byte[] text) throws IOException {
+		IndexedWorldMap indexedMap = new IndexedWorldMap(WorldMap.fromText(new String(text, StandardCharsets.UTF_8)));
+		V2i size = indexedMap.size;
+		ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+		DataOutputStream out = new DataOutputStream(bytes);
+		out.writeInt(MAGIC);
+		out.writeInt(VERSION);
+		out.writeLong(checksum(text));
+		out.writeInt(size.x);
+		out.writeInt(size.y);
+		for (int y = 0; y < size.y; ++y) {
+			for (int x = 0; x < size.x; ++x) {
+				out.writeByte(indexedMap.map.data(x, y));
+			}
+		}
+		out.write(indexedMap.attributes());
+		Map<String, Object> definitions = new TreeMap<>(indexedMap.map.definitions());
+		definitions.values().removeIf(value -> !(value instanceof Integer || value instanceof V2i));
+		out.writeInt(definitions.size());
+		for (Map.Entry<String, Object> definition : definitions.entrySet()) {
+			out.writeUTF(definition.getKey());
+			if (definition.getValue() instanceof V2i) {
+				V2i v = (V2i) definition.getValue();
+				out.writeByte(TYPE_VECTOR);
+				out.writeInt(v.x);
+				out.writeInt(v.y);
+			} else {
+				out.writeByte(TYPE_INT);
+				out.writeInt((Integer) definition.getValue());
+			}
+		}
+		out.writeInt(indexedMap.portalRows.size());
+		for (int row : indexedMap.portalRows) {
+			out.writeInt(row);
+		}
+		ByteBuffer distances = indexedMap.distances();
+		out.writeByte(indexedMap.distanceWidth());
+		out.writeInt(distances.remaining());
+		while (distances.hasRemaining()) {
+			out.writeByte(distances.get());
+		}
+		out.flush();
+		return bytes.toByteArray();
+	}
+
+	/**
+	 * @param compiled         the compiled map
+	 * @param expectedChecksum checksum of the current map text
+	 * @return the indexed map or {@code null} if the compiled map is invalid or has been compiled from
+	 *         a different text
+	 */
+	public static IndexedWorldMap load(byte[] compiled, long expectedChecksum) {
+		try {
+			ByteBuffer in = ByteBuffer.wrap(compiled);
+			if (in.getInt() != MAGIC || in.getInt() != VERSION || in.getLong() != expectedChecksum) {
+				return null;
+			}
+			int width = in.getInt(), height = in.getInt();
+			byte[][] content = new byte[height][width];
+			for (int y = 0; y < height; ++y) {
+				in.get(content[y]);
+			}
+			byte[] attributes = new byte[width * height];
+			in.get(attributes);
+			int numDefinitions = in.getInt();
+			Map<String, Object> definitions = new HashMap<>();
+			for (int i = 0; i < numDefinitions; ++i) {
+				String name = readUTF(in);
+				byte type = in.get();
+				definitions.put(name, type == TYPE_VECTOR ? new V2i(in.getInt(), in.getInt()) : Integer.valueOf(in.getInt()));
+			}
+			int[] portalRows = new int[in.getInt()];
+			for (int i = 0; i < portalRows.length; ++i) {
+				portalRows[i] = in.getInt();
+			}
+			int distanceWidth = in.get();
+			int distancesSize = in.getInt();
+			ByteBuffer distances = in.slice();
+			distances.limit(distancesSize);
+			return new IndexedWorldMap(new WorldMap(content, definitions), portalRows, attributes, distances,
+					distanceWidth);
+		} catch (BufferUnderflowException | IllegalArgumentException x) {
+			log("Compiled map is corrupt");
+			return null;
+		}
+	}
+
+	private static String readUTF(ByteBuffer in) {
+		int length = in.getShort() & 0xffff;
+		byte[] utf = new byte[length];
+		in.get(utf);
+		return new String(utf, StandardCharsets.UTF_8); // names are plain ASCII
+	}
+
+	private WorldMapCompiler() {
+	}
+}
@@ -1,14 +1,20 @@
 package de.amr.games.pacman.ui;
 
 import de.amr.games.pacman.lib.TickTimer;
+import de.amr.games.pacman.lib.TimerWheel;
 
 public class FlashMessage {
 
-	public final TickTimer timer = new TickTimer();
+	public final TickTimer timer;
 	public String text;
 
 	public FlashMessage(String text, long displayTicks) {
+		this(text, displayTicks, null);
+	}
+
+	public FlashMessage(String text, long displayTicks, TimerWheel wheel) {
 		this.text = text;
+		timer = new TickTimer(wheel);
 		timer.reset(displayTicks);
 	}
 }
\ No newline at end of file
@@ -0,0 +1,97 @@
+package de.amr.games.pacman.ui;
+
+import de.amr.games.pacman.controller.PacManGameController;
+import de.amr.games.pacman.controller.PacManGameState;
+import de.amr.games.pacman.controller.event.PacManGameEvent;
+import de.amr.games.pacman.controller.event.PacManGameStateChangedEvent;
+
+/**
+ * User interface without any output, for running games in batch mode, e.g. for regression traces.
+ * <p>
+ * The keyboard is replaced by an {@link InputScript}. The state timers which are set by the scenes
+ * of a real user interface (intro, ready, level complete, intermissions) get fixed durations
+ * similar to the durations of the scenes.
+ */
+public class HeadlessPacManGameUI implements PacManGameUI {
+
+	private final PacManGameController controller;
+	private final InputScript inputScript;
+	private long tick;
+
+	/**
+	 * Creates the user interface and connects it to the given controller.
+	 *
+	 * @param controller  game controller
+	 * @param inputScript keyboard input
+	 */
+	public HeadlessPacManGameUI(PacManGameController controller, InputScript inputScript) {
+		this.controller = controller;
+		this.inputScript = inputScript;
+		controller.userInterface = this;
+		controller.addGameEventListener(this);
+	}
+
+	/**
+	 * Runs one clock tick of the game.
+	 */
+	public void step() {
+		controller.step();
+		update();
+		++tick;
+	}
+
+	/**
+	 * @return number of clock ticks run so far
+	 */
+	public long tick() {
+		return tick;
+	}
+
+	@Override
+	public void onGameEvent(PacManGameEvent event) {
+		if (event instanceof PacManGameStateChangedEvent) {
+			onGameStateChange(((PacManGameStateChangedEvent) event).newGameState);
+		}
+	}
+
+	private void onGameStateChange(PacManGameState newState) {
+		switch (newState) {
+		case INTRO:
+			controller.stateTimer().resetSeconds(2);
+			break;
+		case READY:
+			controller.stateTimer()
+					.resetSeconds(!controller.isAttractMode() && !controller.isGameRunning() ? 4.5 : 2);
+			break;
+		case LEVEL_COMPLETE:
+			controller.stateTimer().resetSeconds(3);
+			break;
+		case INTERMISSION:
+			controller.stateTimer().resetSeconds(5);
+			break;
+		default:
+			break;
+		}
+	}
+
+	@Override
+	public void reset() {
+		tick = 0;
+	}
+
+	@Override
+	public void update() {
+		if (controller.state == PacManGameState.LEVEL_STARTING) {
+			controller.stateTimer().forceExpiration();
+		}
+	}
+
+	@Override
+	public void showFlashMessage(String message, double seconds) {
+	}
+
+	@Override
+	public boolean keyPressed(String keySpec) {
+		return inputScript.isPressed(tick, keySpec);
+	}
+}
@@ -0,0 +1,97 @@
+package de.amr.games.pacman.ui;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Scripted keyboard input for headless games: which key is pressed at which clock tick.
+ * <p>
+ * A script is written as a list of <code>tick:key</code> pairs in ascending tick order, for
+ * example <code>"30:Space 400:Left 425:Up"</code>. A key is pressed during exactly one tick, at
+ * most one key is pressed per tick.
+ */
+public class InputScript {
+
+	private static final String[] DIRECTION_KEYS = { "Left", "Right", "Up", "Down" };
+
+	/**
+	 * Parses a script.
+	 *
+	 * @param spec script text, e.g. <code>"30:Space 400:Left"</code>
+	 * @return the script
+	 */
+	public static InputScript parse(String spec) {
+		List<Long> ticks = new ArrayList<>();
+		List<String> keys = new ArrayList<>();
+		for (String event : spec.trim().split("\\s+")) {
+			if (event.isEmpty()) {
+				continue;
+			}
+			int colon = event.indexOf(':');
+			if (colon <= 0 || colon == event.length() - 1) {
+				throw new IllegalArgumentException("Illegal input event: " + event);
+			}
+			long tick = Long.parseLong(event.substring(0, colon));
+			if (!ticks.isEmpty() && tick <= ticks.get(ticks.size() - 1)) {
+				throw new IllegalArgumentException("Input events not in ascending tick order: " + event);
+			}
+			ticks.add(tick);
+			keys.add(event.substring(colon + 1));
+		}
+		return new InputScript(ticks.stream().mapToLong(Long::longValue).toArray(), keys.toArray(String[]::new));
+	}
+
+	/**
+	 * Creates a random script: Space (starts a game in the intro) at tick 30, then a random key
+	 * every 10 to 40 ticks, mostly one of the direction keys, sometimes Space.
+	 *
+	 * @param seed     random seed
+	 * @param numTicks length of the script in ticks
+	 * @return the script
+	 */
+	public static InputScript random(long seed, long numTicks) {
+		Random rnd = new Random(seed);
+		StringBuilder spec = new StringBuilder("30:Space");
+		for (long tick = 30 + 10 + rnd.nextInt(31); tick < numTicks; tick += 10 + rnd.nextInt(31)) {
+			String key = rnd.nextInt(20) == 0 ? "Space" : DIRECTION_KEYS[rnd.nextInt(DIRECTION_KEYS.length)];
+			spec.append(' ').append(tick).append(':').append(key);
+		}
+		return parse(spec.toString());
+	}
+
+	private final long[] ticks;
+	private final String[] keys;
+
+	private InputScript(long[] ticks, String[] keys) {
+		this.ticks = ticks;
+		this.keys = keys;
+	}
+
+	/**
+	 * @param tick    clock tick
+	 * @param keySpec key, e.g. "Left"
+	 * @return if the key is pressed at this tick
+	 */
+	public boolean isPressed(long tick, String keySpec) {
+		int i = Arrays.binarySearch(ticks, tick);
+		return i >= 0 && keys[i].equals(keySpec);
+	}
+
+	/**
+	 * @return number of input events
+	 */
+	public int size() {
+		return ticks.length;
+	}
+
+	@Override
+	public String toString() {
+		StringBuilder spec = new StringBuilder();
+		for (int i = 0; i < ticks.length; ++i) {
+			spec.append(i == 0 ? "" : " ").append(ticks[i]).append(':').append(keys[i]);
+		}
+		return spec.toString();
+	}
+}
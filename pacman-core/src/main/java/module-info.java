@@ -3,6 +3,9 @@ module de.amr.games.pacman {
 
   exports de.amr.games.pacman.controller;
 	exports de.amr.games.pacman.controller.event;
+	exports de.amr.games.pacman.controller.stats;
+	exports de.amr.games.pacman.controller.trace;
+	exports de.amr.games.pacman.env;
 	exports de.amr.games.pacman.lib;
 	exports de.amr.games.pacman.model.common;
 	exports de.amr.games.pacman.model.mspacman;
@@ -0,0 +1,41 @@
+#!/bin/bash
+#
+# Replay comparison of the stream-free hunting tick (commit 41945d2) against the implementation
+# before it (41945d2^).
+#
+# Both trees get the trace harness of commit 1e3b4cb (GameRandom, StateHasher, GoldenTraces), which
+# came later, and are built in temporary git worktrees. The tree before the change records a trace
+# per game variant with 4 and with 64 ghosts, the tree after the change verifies them tick by tick.
+# The traces recorded that way (7200 ticks, seed 42) are kept next to this script and are verified
+# too.
+#
+# Usage: pacman-core/src/replay/hunting-tick/compare.sh [ticks]
+
+set -e -o pipefail
+
+BEFORE=41945d2^
+AFTER=41945d2
+HARNESS=1e3b4cb
+TICKS=${1:-7200}
+TRACES=de.amr.games.pacman.controller.trace.GoldenTraces
+
+here=$(cd "$(dirname "$0")" && pwd)
+cd "$(git -C "$here" rev-parse --show-toplevel)"
+work=$(mktemp -d)
+trap 'git worktree remove --force "$work/before"; git worktree remove --force "$work/after"; rm -rf "$work"' EXIT
+
+git diff -U0 $HARNESS^ $HARNESS -- pacman-core/src/main > "$work/harness.patch"
+for tree in before after; do
+	if [ $tree = before ]; then commit=$BEFORE; else commit=$AFTER; fi
+	git worktree add --quiet --detach "$work/$tree" $commit
+	(cd "$work/$tree" && git apply --unidiff-zero "$work/harness.patch")
+	(cd "$work/$tree/pacman-core" && mvn -B -q process-classes > "$work/$tree-build.log" 2>&1) \
+		|| { cat "$work/$tree-build.log"; exit 1; }
+done
+
+for ghosts in 4 64; do
+	java -cp "$work/before/pacman-core/target/classes" $TRACES record "$work/traces/ghosts-$ghosts" \
+		-ticks $TICKS -ghosts $ghosts 2>&1 | grep -v "^\["
+	java -cp "$work/after/pacman-core/target/classes" $TRACES verify "$work/traces/ghosts-$ghosts" 2>&1 | grep -v "^\["
+	java -cp "$work/after/pacman-core/target/classes" $TRACES verify "$here/ghosts-$ghosts" 2>&1 | grep -v "^\["
+done
@@ -0,0 +1,37 @@
+package de.amr.games.pacman.ui.swing;
+
+import de.amr.games.pacman.model.common.GameVariant;
+import de.amr.games.pacman.ui.swing.assets.SoundManager;
+import de.amr.games.pacman.ui.swing.rendering.common.AbstractPacManGameRendering;
+
+/**
+ * The rendering and the sounds of a game variant.
+ *
+ * @see AssetBundles
+ */
+public class AssetBundle {
+
+	/** The variant providing the artwork, see {@link AssetBundles#artVariant(GameVariant)}. */
+	public final GameVariant variant;
+	public final AbstractPacManGameRendering rendering;
+	public final SoundManager sounds;
+
+	public AssetBundle(GameVariant variant, AbstractPacManGameRendering rendering, SoundManager sounds) {
+		this.variant = variant;
+		this.rendering = rendering;
+		this.sounds = sounds;
+	}
+
+	/**
+	 * @return number of bytes retained by this bundle: the pixel data of its images (including the
+	 *         scaled sprite copies) plus the decoded sounds
+	 */
+	public long retainedBytes() {
+		return rendering.retainedBytes() + sounds.retainedBytes();
+	}
+
+	@Override
+	public String toString() {
+		return "AssetBundle " + variant;
+	}
+}
@@ -0,0 +1,196 @@
+package de.amr.games.pacman.ui.swing;
+
+import static de.amr.games.pacman.lib.Logging.log;
+import static de.amr.games.pacman.model.common.GameVariant.MS_PACMAN;
+import static de.amr.games.pacman.model.common.GameVariant.PACMAN;
+
+import java.lang.ref.Reference;
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.SoftReference;
+import java.net.URL;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Function;
+
+import de.amr.games.pacman.model.common.GameVariant;
+import de.amr.games.pacman.ui.PacManGameSound;
+import de.amr.games.pacman.ui.swing.assets.AssetPreloader;
+import de.amr.games.pacman.ui.swing.assets.AudioMixer;
+import de.amr.games.pacman.ui.swing.assets.PacManGameSounds;
+import de.amr.games.pacman.ui.swing.assets.SoundManager;
+import de.amr.games.pacman.ui.swing.rendering.common.AbstractPacManGameRendering;
+import de.amr.games.pacman.ui.swing.rendering.mspacman.MsPacManGameRendering;
+import de.amr.games.pacman.ui.swing.rendering.pacman.PacManGameRendering;
+
+/**
+ * The asset bundles of the game variants, loaded when they are first needed.
+ * <p>
+ * All variants except Ms. Pac-Man use the Pac-Man artwork and share its bundle. Loaded bundles are
+ * referenced softly: a bundle stays in memory as long as the game scenes using it exist, after that
+ * the garbage collector may reclaim it under memory pressure and it is loaded again when it is
+ * needed the next time.
+ * <p>
+ * The heap size retained by a bundle (pixel data of its images plus its decoded sounds) is logged
+ * when the bundle is loaded or evicted and can be queried using {@link #retainedBytes()}.
+ */
+public class AssetBundles {
+
+	/**
+	 * @param variant game variant
+	 * @return the variant whose artwork and sounds are used by the given variant
+	 */
+	public static GameVariant artVariant(GameVariant variant) {
+		return variant == MS_PACMAN ? MS_PACMAN : PACMAN;
+	}
+
+	private static String megabytes(long bytes) {
+		return String.format("%.2f MB", bytes / (1024.0 * 1024.0));
+	}
+
+	private static class BundleReference extends SoftReference<AssetBundle> {
+
+		final GameVariant variant;
+		long retainedBytes;
+
+		BundleReference(AssetBundle bundle, ReferenceQueue<AssetBundle> queue) {
+			super(bundle, queue);
+			variant = bundle.variant;
+			retainedBytes = bundle.retainedBytes();
+		}
+	}
+
+	private final AudioMixer mixer;
+	private final Map<GameVariant, BundleReference> bundles = new EnumMap<>(GameVariant.class);
+	private final ReferenceQueue<AssetBundle> evicted = new ReferenceQueue<>();
+	private final Object loadLock = new Object();
+
+	public AssetBundles(AudioMixer mixer) {
+		this.mixer = mixer;
+	}
+
+	/**
+	 * Returns the bundle of the given game variant and loads it if it has not been loaded yet or if it
+	 * has been evicted.
+	 *
+	 * @param variant game variant
+	 * @return asset bundle of the variant
+	 */
+	public AssetBundle get(GameVariant variant) {
+		GameVariant art = artVariant(variant);
+		synchronized (loadLock) {
+			AssetBundle bundle = loaded(art);
+			if (bundle == null) {
+				AssetPreloader preloader = new AssetPreloader(2);
+				try {
+					bundle = load(preloader, art).join();
+				} finally {
+					preloader.shutdown();
+				}
+				preloader.logTimings();
+			}
+			return bundle;
+		}
+	}
+
+	/**
+	 * @param variant game variant
+	 * @return the bundle of the given game variant or {@code null} if it is not in memory
+	 */
+	public synchronized AssetBundle loaded(GameVariant variant) {
+		pollEvicted();
+		BundleReference ref = bundles.get(artVariant(variant));
+		return ref != null ? ref.get() : null;
+	}
+
+	/**
+	 * Loads the bundle of the given game variant. The images and sounds are loaded concurrently, the
+	 * rendering is created when its images (and the given dependencies) have been loaded.
+	 *
+	 * @param preloader    asset preloader
+	 * @param variant      game variant
+	 * @param dependencies assets needed by the rendering which are loaded elsewhere, e.g. the font
+	 * @return future of the bundle
+	 */
+	public CompletableFuture<AssetBundle> load(AssetPreloader preloader, GameVariant variant,
+			CompletableFuture<?>... dependencies) {
+		GameVariant art = artVariant(variant);
+		List<CompletableFuture<?>> parts = new ArrayList<>(Arrays.asList(dependencies));
+		CompletableFuture<? extends AbstractPacManGameRendering> rendering;
+		CompletableFuture<SoundManager> sounds;
+		if (art == MS_PACMAN) {
+			parts.addAll(preloader.prefetchImages("/mspacman/graphics/sprites.png"));
+			rendering = preloader.loadAfter("rendering Ms. Pac-Man", parts, MsPacManGameRendering::new);
+			sounds = loadSounds(preloader, art, PacManGameSounds::msPacManSoundURL);
+		} else {
+			parts.addAll(preloader.prefetchImages("/pacman/graphics/sprites.png", "/pacman/graphics/maze_full.png",
+					"/pacman/graphics/maze_empty.png"));
+			rendering = preloader.loadAfter("rendering Pac-Man", parts, PacManGameRendering::new);
+			sounds = loadSounds(preloader, art, PacManGameSounds::mrPacManSoundURL);
+		}
+		return rendering.thenCombine(sounds, (r, s) -> register(new AssetBundle(art, r, s)));
+	}
+
+	private CompletableFuture<SoundManager> loadSounds(AssetPreloader preloader, GameVariant variant,
+			Function<PacManGameSound, URL> fnSoundURL) {
+		Map<PacManGameSound, CompletableFuture<short[]>> sounds = new EnumMap<>(PacManGameSound.class);
+		for (PacManGameSound sound : PacManGameSound.values()) {
+			URL url = fnSoundURL.apply(sound);
+			if (url != null) {
+				sounds.put(sound, preloader.load("sound " + variant + " " + sound, () -> AudioMixer.decode(url)));
+			}
+		}
+		return CompletableFuture.allOf(sounds.values().toArray(CompletableFuture[]::new)).thenApply(ignored -> {
+			Map<PacManGameSound, short[]> samples = new EnumMap<>(PacManGameSound.class);
+			sounds.forEach((sound, decoding) -> samples.put(sound, decoding.join()));
+			return new SoundManager(mixer, samples);
+		});
+	}
+
+	private synchronized AssetBundle register(AssetBundle bundle) {
+		pollEvicted();
+		BundleReference ref = new BundleReference(bundle, evicted);
+		bundles.put(bundle.variant, ref);
+		log("%s loaded, retains %s (images %s, sounds %s)", bundle, megabytes(ref.retainedBytes),
+				megabytes(bundle.rendering.retainedBytes()), megabytes(bundle.sounds.retainedBytes()));
+		return bundle;
+	}
+
+	private void pollEvicted() {
+		Reference<? extends AssetBundle> ref;
+		while ((ref = evicted.poll()) != null) {
+			BundleReference bundleRef = (BundleReference) ref;
+			bundles.remove(bundleRef.variant, bundleRef);
+			log("AssetBundle %s evicted, released %s", bundleRef.variant, megabytes(bundleRef.retainedBytes));
+		}
+	}
+
+	/**
+	 * @return number of bytes retained by the bundles in memory
+	 */
+	public synchronized long retainedBytes() {
+		pollEvicted();
+		long bytes = 0;
+		for (BundleReference ref : bundles.values()) {
+			AssetBundle bundle = ref.get();
+			if (bundle != null) {
+				ref.retainedBytes = bundle.retainedBytes();
+				bytes += ref.retainedBytes;
+			}
+		}
+		return bytes;
+	}
+
+	/**
+	 * Logs the heap size retained by each bundle in memory.
+	 */
+	public synchronized void logRetainedBytes() {
+		log("Asset bundles retain %s", megabytes(retainedBytes()));
+		for (BundleReference ref : bundles.values()) {
+			log("  %-10s %s%s", ref.variant, megabytes(ref.retainedBytes), ref.get() == null ? " (evicted)" : "");
+		}
+	}
+}
@@ -2,14 +2,12 @@ package de.amr.games.pacman.ui.swing;
 
 import static de.amr.games.pacman.controller.PacManGameState.INTERMISSION;
 import static de.amr.games.pacman.lib.Logging.log;
-import static de.amr.games.pacman.model.common.GameVariant.INDIVIDUALS;
-import static de.amr.games.pacman.model.common.GameVariant.MS_PACMAN;
-import static de.amr.games.pacman.model.common.GameVariant.OCCUPANCY;
-import static de.amr.games.pacman.model.common.GameVariant.PACMAN;
 import static de.amr.games.pacman.model.world.PacManGameWorld.TS;
 
 import de.amr.games.pacman.ui.swing.scenes.pacman.PacMan_IntroScene_Individuals;
 import de.amr.games.pacman.ui.swing.scenes.pacman.PacMan_IntroScene_Occupancy;
+import de.amr.games.pacman.ui.swing.scenes.pacman.PacMan_IntroScene_Particles;
+import de.amr.games.pacman.ui.swing.scenes.pacman.PacMan_IntroScene_Radio;
 import java.awt.AWTException;
 import java.awt.Canvas;
 import java.awt.Color;
@@ -24,11 +22,13 @@ import java.awt.event.KeyEvent;
 import java.awt.event.WindowAdapter;
 import java.awt.event.WindowEvent;
 import java.awt.image.BufferStrategy;
+import java.awt.image.BufferedImage;
 import java.util.ArrayDeque;
 import java.util.Arrays;
 import java.util.Deque;
 import java.util.EnumMap;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
 import java.util.stream.Stream;
 
 import javax.swing.JFrame;
@@ -45,11 +45,10 @@ import de.amr.games.pacman.ui.FlashMessage;
 import de.amr.games.pacman.ui.PacManGameUI;
 import de.amr.games.pacman.ui.swing.app.GameLoop;
 import de.amr.games.pacman.ui.swing.assets.AssetLoader;
-import de.amr.games.pacman.ui.swing.assets.PacManGameSounds;
-import de.amr.games.pacman.ui.swing.assets.SoundManager;
+import de.amr.games.pacman.ui.swing.assets.AssetPreloader;
+import de.amr.games.pacman.ui.swing.assets.AudioMixer;
+import de.amr.games.pacman.ui.swing.assets.Spritesheet;
 import de.amr.games.pacman.ui.swing.rendering.Debug;
-import de.amr.games.pacman.ui.swing.rendering.mspacman.MsPacManGameRendering;
-import de.amr.games.pacman.ui.swing.rendering.pacman.PacManGameRendering;
 import de.amr.games.pacman.ui.swing.scenes.common.GameScene;
 import de.amr.games.pacman.ui.swing.scenes.common.PlayScene;
 import de.amr.games.pacman.ui.swing.scenes.mspacman.MsPacMan_IntermissionScene1;
@@ -68,13 +67,29 @@ import de.amr.games.pacman.ui.swing.scenes.pacman.PacMan_IntroScene;
  */
 public class PacManGameUI_Swing implements PacManGameUI {
 
-	public static MsPacManGameRendering RENDERING_MS_PACMAN = new MsPacManGameRendering();
-	public static PacManGameRendering RENDERING_PACMAN = new PacManGameRendering();
-
-	public static final EnumMap<GameVariant, SoundManager> SOUND = new EnumMap<>(GameVariant.class);
-	static {
-		SOUND.put(MS_PACMAN, new SoundManager(PacManGameSounds::msPacManSoundURL));
-		SOUND.put(PACMAN, new SoundManager(PacManGameSounds::mrPacManSoundURL));
+	public static final AudioMixer MIXER = new AudioMixer();
+	public static final AssetBundles ASSETS = new AssetBundles(MIXER);
+
+	/**
+	 * Loads the assets needed to start the given game variant: the font, the icon, the audio line and
+	 * the asset bundle of the variant. The assets are loaded concurrently and must have been loaded
+	 * before the UI is created. The bundles of the other variants are loaded when they are needed.
+	 * 
+	 * @param preloader asset preloader
+	 * @param variant   game variant played first
+	 * @return future completed when the assets have been loaded
+	 */
+	public static CompletableFuture<Void> loadAssets(AssetPreloader preloader, GameVariant variant) {
+		CompletableFuture<Font> font = preloader.load("font /emulogic.ttf", () -> AssetLoader.loadFont("/emulogic.ttf"));
+		AssetLoader.prefetchFont("/emulogic.ttf", font);
+		CompletableFuture<AudioMixer> mixer = preloader.load("audio line", () -> {
+			MIXER.start();
+			return MIXER;
+		});
+		List<CompletableFuture<BufferedImage>> icon = preloader.prefetchImages("/pacman/graphics/pacman.png");
+		CompletableFuture<AssetBundle> bundle = ASSETS.load(preloader, variant, font);
+		return CompletableFuture.allOf(Stream.concat(icon.stream(), Stream.of(mixer, bundle))
+				.toArray(CompletableFuture[]::new));
 	}
 
 	private final EnumMap<GameVariant, List<GameScene>> scenes = new EnumMap<>(GameVariant.class);
@@ -98,11 +113,10 @@ public class PacManGameUI_Swing implements PacManGameUI {
 
 		controller.addGameEventListener(this);
 
-		createGameScenes();
-
 		unscaledSize = new Dimension(28 * TS, 36 * TS);
 		scaling = Math.round(height / unscaledSize.height);
 		scaledSize = new V2d(unscaledSize.width, unscaledSize.height).scaled(this.scaling).toV2i();
+		Spritesheet.ATLAS.setScaling(Math.max(1, (int) scaling));
 
 		canvas = new Canvas();
 		canvas.setBackground(Color.BLACK);
@@ -143,38 +157,53 @@ public class PacManGameUI_Swing implements PacManGameUI {
 		show();
 	}
 
-	private void createGameScenes() {
-		scenes.put(MS_PACMAN, Arrays.asList(//
-				new MsPacMan_IntroScene(gameController, unscaledSize), //
-				new MsPacMan_IntermissionScene1(gameController, unscaledSize), //
-				new MsPacMan_IntermissionScene2(gameController, unscaledSize), //
-				new MsPacMan_IntermissionScene3(gameController, unscaledSize), //
-				new PlayScene(gameController, unscaledSize, RENDERING_MS_PACMAN, SOUND.get(MS_PACMAN))//
-		));
-
-		scenes.put(PACMAN, Arrays.asList(//
-				new PacMan_IntroScene(gameController, unscaledSize), //
-				new PacMan_IntermissionScene1(gameController, unscaledSize), //
-				new PacMan_IntermissionScene2(gameController, unscaledSize), //
-				new PacMan_IntermissionScene3(gameController, unscaledSize), //
-				new PlayScene(gameController, unscaledSize, RENDERING_PACMAN, SOUND.get(PACMAN))//
-		));
+	private List<GameScene> createGameScenes(GameVariant variant) {
+		PlayScene playScene = new PlayScene(gameController, unscaledSize, ASSETS.get(variant));
+		switch (variant) {
+		case MS_PACMAN:
+			return Arrays.asList(//
+					new MsPacMan_IntroScene(gameController, unscaledSize), //
+					new MsPacMan_IntermissionScene1(gameController, unscaledSize), //
+					new MsPacMan_IntermissionScene2(gameController, unscaledSize), //
+					new MsPacMan_IntermissionScene3(gameController, unscaledSize), //
+					playScene);
+		case PACMAN:
+			return pacManScenes(new PacMan_IntroScene(gameController, unscaledSize), playScene);
+		case OCCUPANCY:
+			return pacManScenes(new PacMan_IntroScene_Occupancy(gameController, unscaledSize), playScene);
+		case INDIVIDUALS:
+			return pacManScenes(new PacMan_IntroScene_Individuals(gameController, unscaledSize), playScene);
+		case PARTICLES:
+			return pacManScenes(new PacMan_IntroScene_Particles(gameController, unscaledSize), playScene);
+		case RADIO:
+			return pacManScenes(new PacMan_IntroScene_Radio(gameController, unscaledSize), playScene);
+		default:
+			throw new IllegalArgumentException("Unknown game variant: " + variant);
+		}
+	}
 
-		scenes.put(OCCUPANCY, Arrays.asList(//
-				new PacMan_IntroScene_Occupancy(gameController, unscaledSize), //
+	private List<GameScene> pacManScenes(GameScene introScene, GameScene playScene) {
+		return Arrays.asList(//
+				introScene, //
 				new PacMan_IntermissionScene1(gameController, unscaledSize), //
 				new PacMan_IntermissionScene2(gameController, unscaledSize), //
 				new PacMan_IntermissionScene3(gameController, unscaledSize), //
-				new PlayScene(gameController, unscaledSize, RENDERING_PACMAN, SOUND.get(PACMAN))//
-		));
+				playScene);
+	}
 
-		scenes.put(INDIVIDUALS, Arrays.asList(//
-				new PacMan_IntroScene_Individuals(gameController, unscaledSize), //
-				new PacMan_IntermissionScene1(gameController, unscaledSize), //
-				new PacMan_IntermissionScene2(gameController, unscaledSize), //
-				new PacMan_IntermissionScene3(gameController, unscaledSize), //
-				new PlayScene(gameController, unscaledSize, RENDERING_PACMAN, SOUND.get(PACMAN))//
-		));
+	/**
+	 * Returns the scenes of the given game variant and creates them on first use. The scenes of
+	 * variants using other artwork are dropped, so that their asset bundle can be evicted.
+	 */
+	private List<GameScene> scenes(GameVariant variant) {
+		List<GameScene> variantScenes = scenes.get(variant);
+		if (variantScenes == null) {
+			GameVariant art = AssetBundles.artVariant(variant);
+			scenes.keySet().removeIf(other -> AssetBundles.artVariant(other) != art);
+			variantScenes = createGameScenes(variant);
+			scenes.put(variant, variantScenes);
+		}
+		return variantScenes;
 	}
 
 	@Override
@@ -219,11 +248,11 @@ public class PacManGameUI_Swing implements PacManGameUI {
 		GameVariant currentGame = currentGame();
 		switch (state) {
 		case INTRO:
-			return scenes.get(currentGame).get(0);
+			return scenes(currentGame).get(0);
 		case INTERMISSION:
-			return scenes.get(currentGame).get(gameController.game().intermissionNumber);
+			return scenes(currentGame).get(gameController.game().intermissionNumber);
 		default:
-			return scenes.get(currentGame).get(4);
+			return scenes(currentGame).get(4);
 		}
 	}
 
@@ -234,10 +263,10 @@ public class PacManGameUI_Swing implements PacManGameUI {
 		}
 		FlashMessage message = flashMessageQ.peek();
 		if (message != null) {
-			if (!message.timer.isRunning()) {
+			// the message timer is driven by the timer wheel of the game controller
+			if (!message.timer.isRunning() && !message.timer.hasExpired()) {
 				message.timer.start();
 			}
-			message.timer.tick();
 			if (message.timer.hasExpired()) {
 				flashMessageQ.remove();
 			}
@@ -268,12 +297,16 @@ public class PacManGameUI_Swing implements PacManGameUI {
 	@Override
 	public void reset() {
 		currentGameScene.end();
-		SOUND.get(gameController.gameVariant()).stopAll();
+		// do not load the bundle just to stop its sounds
+		AssetBundle bundle = ASSETS.loaded(gameController.gameVariant());
+		if (bundle != null) {
+			bundle.sounds.stopAll();
+		}
 	}
 
 	@Override
 	public void showFlashMessage(String message, double seconds) {
-		flashMessageQ.add(new FlashMessage(message, (long) (60 * seconds)));
+		flashMessageQ.add(new FlashMessage(message, (long) (60 * seconds), gameController.timerWheel()));
 	}
 
 	@Override
@@ -294,6 +327,9 @@ public class PacManGameUI_Swing implements PacManGameUI {
 		case KeyEvent.VK_D:
 			Debug.on = !Debug.on;
 			log("UI debug mode is %s", Debug.on ? "on" : "off");
+			if (Debug.on) {
+				ASSETS.logRetainedBytes();
+			}
 			break;
 
 		case KeyEvent.VK_E:
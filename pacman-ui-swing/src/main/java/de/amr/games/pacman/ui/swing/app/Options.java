@@ -2,12 +2,22 @@ package de.amr.games.pacman.ui.swing.app;
 
 import static de.amr.games.pacman.lib.Logging.log;
 
+import java.nio.file.Path;
+import java.nio.file.Paths;
+
+import de.amr.games.pacman.controller.ParticleFilterHuntingStrategy;
 import de.amr.games.pacman.model.common.GameVariant;
+import de.amr.games.pacman.model.common.Ghost;
 
 class Options {
 
 	double height = 576;
 	GameVariant gameVariant = GameVariant.PACMAN;
+	int particles = ParticleFilterHuntingStrategy.DEFAULT_PARTICLES;
+	Path statisticsDirectory;
+	Path eventLogFile;
+	int ghosts = 4;
+	int[] swarmPersonalities = { Ghost.BLINKY, Ghost.PINKY, Ghost.INKY, Ghost.CLYDE };
 
 	public Options(String[] args) {
 		int i = -1;
@@ -32,7 +42,86 @@ class Options {
 				}
 				continue;
 			}
+			if ("-particles".equals(args[i])) {
+				if (++i == args.length) {
+					log("Error parsing options: missing number of particles.");
+					break;
+				}
+				try {
+					int value = Integer.parseInt(args[i]);
+					if (value > 0) {
+						particles = value;
+					} else {
+						log("Error parsing options: number of particles must be positive.");
+					}
+				} catch (NumberFormatException x) {
+					log("Error parsing options: '%s' is no legal number of particles.", args[i]);
+				}
+				continue;
+			}
+			if ("-ghosts".equals(args[i])) {
+				if (++i == args.length) {
+					log("Error parsing options: missing number of ghosts.");
+					break;
+				}
+				try {
+					int value = Integer.parseInt(args[i]);
+					if (value >= 4) {
+						ghosts = value;
+					} else {
+						log("Error parsing options: there must be at least 4 ghosts.");
+					}
+				} catch (NumberFormatException x) {
+					log("Error parsing options: '%s' is no legal number of ghosts.", args[i]);
+				}
+				continue;
+			}
+			if ("-personalities".equals(args[i])) {
+				if (++i == args.length) {
+					log("Error parsing options: missing swarm personalities.");
+					break;
+				}
+				int[] personalities = parsePersonalities(args[i]);
+				if (personalities != null) {
+					swarmPersonalities = personalities;
+				} else {
+					log("Error parsing options: '%s' are no legal personalities, use letters B, P, I and C.", args[i]);
+				}
+				continue;
+			}
+			if ("-stats".equals(args[i])) {
+				if (++i == args.length) {
+					log("Error parsing options: missing statistics directory.");
+					break;
+				}
+				statisticsDirectory = Paths.get(args[i]);
+				continue;
+			}
+			if ("-events".equals(args[i])) {
+				if (++i == args.length) {
+					log("Error parsing options: missing event log file.");
+					break;
+				}
+				eventLogFile = Paths.get(args[i]);
+				continue;
+			}
 			log("Error parsing options: Found garbage '%s'", args[i]);
 		}
 	}
+
+	// e.g. "BBPC" gives the swarm twice as many Blinkys as Pinkys and Clydes and no Inkys
+	private static int[] parsePersonalities(String letters) {
+		if (letters.isEmpty()) {
+			return null;
+		}
+		int[] personalities = new int[letters.length()];
+		for (int i = 0; i < letters.length(); ++i) {
+			int personality = "BPIC".indexOf(Character.toUpperCase(letters.charAt(i)));
+			if (personality == -1) {
+				return null;
+			}
+			personalities[i] = personality;
+		}
+		return personalities;
+	}
 }
\ No newline at end of file
@@ -1,9 +1,17 @@
 package de.amr.games.pacman.ui.swing.app;
 
+import static de.amr.games.pacman.lib.Logging.log;
 import static java.awt.EventQueue.invokeLater;
 
+import java.io.IOException;
+import java.util.concurrent.CompletableFuture;
+
 import de.amr.games.pacman.controller.PacManGameController;
+import de.amr.games.pacman.controller.event.AsyncGameEventSink.OverflowPolicy;
+import de.amr.games.pacman.controller.stats.GameEventLog;
+import de.amr.games.pacman.controller.stats.StatisticsJournal;
 import de.amr.games.pacman.ui.swing.PacManGameUI_Swing;
+import de.amr.games.pacman.ui.swing.assets.AssetPreloader;
 
 /**
  * The Pac-Man application.
@@ -13,6 +21,12 @@ import de.amr.games.pacman.ui.swing.PacManGameUI_Swing;
  * <li><code>-height</code> &lt;pixels&gt;: Height of UI in pixels (default: 576)</li>
  * <li><code>-pacman</code>: Starts the game in Pac-Man mode</li>
  * <li><code>-mspacman</code>: Starts game in Ms. Pac-Man mode</li>
+ * <li><code>-particles</code> &lt;number&gt;: Number of particles used by the particle filter ghosts
+ * (default: 4096)</li>
+ * <li><code>-stats</code> &lt;directory&gt;: Records a statistics journal in the given directory, see
+ * {@link StatisticsJournal}</li>
+ * <li><code>-events</code> &lt;file&gt;: Records all game events into the given CSV file, see
+ * {@link GameEventLog}</li>
  * </ul>
  * 
  * @author Armin Reichert
@@ -21,8 +35,44 @@ public class PacManGameAppSwing extends PacManGameController {
 
 	public static void main(String[] args) {
 		Options options = new Options(args);
+
+		// load the assets of the selected game variant while the game is created
+		ProgressWindow progressWindow = new ProgressWindow("Loading Pac-Man...");
+		progressWindow.open();
+		AssetPreloader preloader = new AssetPreloader(Math.max(2, Math.min(4, Runtime.getRuntime().availableProcessors())));
+		preloader.setProgressListener(progressWindow::setProgress);
+		CompletableFuture<Void> assets = PacManGameUI_Swing.loadAssets(preloader, options.gameVariant);
+
 		PacManGameAppSwing app = new PacManGameAppSwing();
+		app.particleCount = options.particles;
+		app.ghostCount = options.ghosts;
+		app.swarmPersonalities = options.swarmPersonalities;
+		app.useDefaultHiscores();
+		if (options.statisticsDirectory != null) {
+			try {
+				StatisticsJournal journal = StatisticsJournal.record(app, options.statisticsDirectory);
+				Runtime.getRuntime().addShutdownHook(new Thread(journal::close));
+			} catch (IOException x) {
+				log("Could not create statistics journal in %s: %s", options.statisticsDirectory, x.getMessage());
+			}
+		}
+		if (options.eventLogFile != null) {
+			try {
+				GameEventLog eventLog = GameEventLog.record(app, options.eventLogFile, OverflowPolicy.BLOCK);
+				Runtime.getRuntime().addShutdownHook(new Thread(eventLog::close));
+			} catch (IOException x) {
+				log("Could not create game event log %s: %s", options.eventLogFile, x.getMessage());
+			}
+		}
 		app.play(options.gameVariant);
+
+		try {
+			assets.join();
+			preloader.logTimings();
+		} finally {
+			preloader.shutdown();
+			progressWindow.close();
+		}
 		invokeLater(() -> {
 			GameLoop gameLoop = new GameLoop(app);
 			app.userInterface = new PacManGameUI_Swing(gameLoop, app, options.height);
@@ -0,0 +1,69 @@
+package de.amr.games.pacman.ui.swing.app;
+
+import static java.awt.EventQueue.invokeLater;
+
+import java.awt.BorderLayout;
+import java.awt.Color;
+import java.awt.GraphicsEnvironment;
+
+import javax.swing.BorderFactory;
+import javax.swing.JLabel;
+import javax.swing.JPanel;
+import javax.swing.JProgressBar;
+import javax.swing.JWindow;
+
+/**
+ * Small window showing the progress of loading the assets. Can be used from any thread, does
+ * nothing in a headless environment.
+ * 
+ * @author Armin Reichert
+ */
+public class ProgressWindow {
+
+	private final String text;
+	private JWindow window;
+	private JProgressBar progressBar;
+
+	public ProgressWindow(String text) {
+		this.text = text;
+	}
+
+	public void open() {
+		if (GraphicsEnvironment.isHeadless()) {
+			return;
+		}
+		invokeLater(() -> {
+			progressBar = new JProgressBar();
+			progressBar.setStringPainted(true);
+			JLabel label = new JLabel(text);
+			label.setForeground(Color.YELLOW);
+			JPanel content = new JPanel(new BorderLayout(0, 8));
+			content.setBackground(Color.BLACK);
+			content.setBorder(BorderFactory.createEmptyBorder(12, 12, 12, 12));
+			content.add(label, BorderLayout.NORTH);
+			content.add(progressBar, BorderLayout.CENTER);
+			window = new JWindow();
+			window.getContentPane().add(content);
+			window.setSize(300, 80);
+			window.setLocationRelativeTo(null);
+			window.setVisible(true);
+		});
+	}
+
+	public void setProgress(int done, int total) {
+		invokeLater(() -> {
+			if (progressBar != null) {
+				progressBar.setMaximum(total);
+				progressBar.setValue(done);
+			}
+		});
+	}
+
+	public void close() {
+		invokeLater(() -> {
+			if (window != null) {
+				window.dispose();
+			}
+		});
+	}
+}
@@ -4,16 +4,60 @@ import java.awt.Font;
 import java.awt.image.BufferedImage;
 import java.io.InputStream;
 import java.net.URL;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
 
 import javax.imageio.ImageIO;
 
+/**
+ * Loads images and fonts.
+ * <p>
+ * Images and fonts can be prefetched, for example by the {@link AssetPreloader}. Loading a prefetched
+ * asset then waits for the prefetched asset instead of reading it again.
+ */
 public class AssetLoader {
 
+	private static final Map<String, CompletableFuture<BufferedImage>> prefetchedImages = new ConcurrentHashMap<>();
+	private static final Map<String, CompletableFuture<Font>> prefetchedFonts = new ConcurrentHashMap<>();
+
 	public static URL url(String path) {
 		return AssetLoader.class.getResource(path);
 	}
 
+	/**
+	 * Registers an image that is being loaded. The image is handed out once and then forgotten.
+	 * 
+	 * @param path  image path
+	 * @param image future of the image, see {@link #loadImage(String)}
+	 */
+	public static void prefetchImage(String path, CompletableFuture<BufferedImage> image) {
+		prefetchedImages.put(path, image);
+	}
+
+	/**
+	 * Registers a font that is being loaded. The font is kept because it is derived for each size.
+	 * 
+	 * @param path font path
+	 * @param font future of the font, see {@link #loadFont(String)}
+	 */
+	public static void prefetchFont(String path, CompletableFuture<Font> font) {
+		prefetchedFonts.put(path, font);
+	}
+
 	public static BufferedImage image(String path) {
+		CompletableFuture<BufferedImage> prefetched = prefetchedImages.remove(path);
+		return prefetched != null ? join(prefetched) : loadImage(path);
+	}
+
+	public static Font font(String fontPath, int size) {
+		CompletableFuture<Font> prefetched = prefetchedFonts.get(fontPath);
+		Font font = prefetched != null ? join(prefetched) : loadFont(fontPath);
+		return font.deriveFont((float) size);
+	}
+
+	public static BufferedImage loadImage(String path) {
 		try (InputStream is = url(path).openStream()) {
 			return ImageIO.read(is);
 		} catch (Exception x) {
@@ -21,12 +65,22 @@ public class AssetLoader {
 		}
 	}
 
-	public static Font font(String fontPath, int size) {
+	public static Font loadFont(String fontPath) {
 		try (InputStream fontData = url(fontPath).openStream()) {
-			return Font.createFont(Font.TRUETYPE_FONT, fontData).deriveFont((float) size);
+			return Font.createFont(Font.TRUETYPE_FONT, fontData);
 		} catch (Exception x) {
 			throw new AssetException("Could not load font with path '%s'", fontPath);
 		}
 	}
 
+	private static <T> T join(CompletableFuture<T> asset) {
+		try {
+			return asset.join();
+		} catch (CompletionException x) {
+			if (x.getCause() instanceof RuntimeException) {
+				throw (RuntimeException) x.getCause();
+			}
+			throw x;
+		}
+	}
 }
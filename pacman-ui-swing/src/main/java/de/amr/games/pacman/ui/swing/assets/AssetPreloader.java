@@ -0,0 +1,148 @@
+package de.amr.games.pacman.ui.swing.assets;
+
+import static de.amr.games.pacman.lib.Logging.log;
+
+import java.awt.image.BufferedImage;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BiConsumer;
+import java.util.function.Supplier;
+
+/**
+ * Loads assets concurrently on a bounded number of threads.
+ * <p>
+ * Each asset is loaded by a task returning a {@link CompletableFuture}, assets belonging together
+ * (for example the sounds of a game variant) are combined using
+ * {@link CompletableFuture#allOf(CompletableFuture...)}. The preloader reports its progress to a
+ * listener and logs how long each asset took to load.
+ */
+public class AssetPreloader {
+
+	private static class Timing {
+
+		final String asset;
+		final String thread;
+		final long nanos;
+
+		Timing(String asset, String thread, long nanos) {
+			this.asset = asset;
+			this.thread = thread;
+			this.nanos = nanos;
+		}
+	}
+
+	private final ExecutorService executor;
+	private final Queue<Timing> timings = new ConcurrentLinkedQueue<>();
+	private final AtomicInteger submitted = new AtomicInteger();
+	private final AtomicInteger completed = new AtomicInteger();
+	private final long startTime = System.nanoTime();
+	private volatile BiConsumer<Integer, Integer> progressListener;
+
+	/**
+	 * @param maxThreads maximum number of loader threads
+	 */
+	public AssetPreloader(int maxThreads) {
+		AtomicInteger threadCount = new AtomicInteger();
+		executor = Executors.newFixedThreadPool(maxThreads, runnable -> {
+			Thread thread = new Thread(runnable, "AssetLoader-" + threadCount.incrementAndGet());
+			thread.setDaemon(true);
+			return thread;
+		});
+	}
+
+	/**
+	 * @param listener receives the number of loaded assets and the number of submitted assets whenever
+	 *                 an asset has been loaded
+	 */
+	public void setProgressListener(BiConsumer<Integer, Integer> listener) {
+		progressListener = listener;
+	}
+
+	/**
+	 * Loads an asset.
+	 *
+	 * @param <T>    asset type
+	 * @param asset  asset name used in the timing report
+	 * @param loader loads the asset
+	 * @return future of the asset
+	 */
+	public <T> CompletableFuture<T> load(String asset, Supplier<T> loader) {
+		submitted.incrementAndGet();
+		return CompletableFuture.supplyAsync(() -> timed(asset, loader), executor);
+	}
+
+	/**
+	 * Creates an asset from other assets once these have been loaded.
+	 *
+	 * @param <T>    asset type
+	 * @param asset  asset name used in the timing report
+	 * @param parts  the assets needed by the loader
+	 * @param loader creates the asset
+	 * @return future of the asset
+	 */
+	public <T> CompletableFuture<T> loadAfter(String asset, List<? extends CompletableFuture<?>> parts,
+			Supplier<T> loader) {
+		submitted.incrementAndGet();
+		return CompletableFuture.allOf(parts.toArray(CompletableFuture[]::new))
+				.thenApplyAsync(ignored -> timed(asset, loader), executor);
+	}
+
+	/**
+	 * Loads images and registers them with the {@link AssetLoader}, so that
+	 * {@link AssetLoader#image(String)} returns the loaded image.
+	 *
+	 * @param paths image paths
+	 * @return futures of the images
+	 */
+	public List<CompletableFuture<BufferedImage>> prefetchImages(String... paths) {
+		List<CompletableFuture<BufferedImage>> images = new ArrayList<>();
+		for (String path : paths) {
+			CompletableFuture<BufferedImage> image = load("image " + path, () -> AssetLoader.loadImage(path));
+			AssetLoader.prefetchImage(path, image);
+			images.add(image);
+		}
+		return images;
+	}
+
+	private <T> T timed(String asset, Supplier<T> loader) {
+		long start = System.nanoTime();
+		try {
+			return loader.get();
+		} finally {
+			timings.add(new Timing(asset, Thread.currentThread().getName(), System.nanoTime() - start));
+			BiConsumer<Integer, Integer> listener = progressListener;
+			int done = completed.incrementAndGet();
+			if (listener != null) {
+				listener.accept(done, submitted.get());
+			}
+		}
+	}
+
+	/**
+	 * Logs the loading time of each asset, slowest first.
+	 */
+	public void logTimings() {
+		List<Timing> sorted = new ArrayList<>(timings);
+		sorted.sort(Comparator.comparingLong((Timing timing) -> timing.nanos).reversed());
+		long sum = sorted.stream().mapToLong(timing -> timing.nanos).sum();
+		log("%d assets loaded in %.2f milliseconds (%.2f milliseconds loading time)", sorted.size(),
+				(System.nanoTime() - startTime) / 1e6, sum / 1e6);
+		for (Timing timing : sorted) {
+			log("  %8.2f ms  %-16s %s", timing.nanos / 1e6, timing.thread, timing.asset);
+		}
+	}
+
+	/**
+	 * Stops the loader threads when the submitted assets have been loaded.
+	 */
+	public void shutdown() {
+		executor.shutdown();
+	}
+}
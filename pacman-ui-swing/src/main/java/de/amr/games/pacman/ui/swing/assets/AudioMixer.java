@@ -0,0 +1,267 @@
+package de.amr.games.pacman.ui.swing.assets;
+
+import static de.amr.games.pacman.lib.Logging.log;
+
+import java.net.URL;
+import java.util.Arrays;
+
+import javax.sound.sampled.AudioFormat;
+import javax.sound.sampled.AudioInputStream;
+import javax.sound.sampled.AudioSystem;
+import javax.sound.sampled.SourceDataLine;
+
+/**
+ * Software mixer playing sounds through a single audio line.
+ * <p>
+ * Sounds are decoded once into 16 bit PCM samples (see {@link #decode(URL)}). The active voices are
+ * mixed on a dedicated thread into a small buffer which is written to the line, so the latency of a
+ * sound does not depend on the number of sounds playing. Starting and stopping voices does not
+ * allocate any objects.
+ * <p>
+ * If no audio line is available, the mixer stays silent.
+ *
+ * @author Armin Reichert
+ */
+public class AudioMixer {
+
+	public static final AudioFormat FORMAT = new AudioFormat(44100, 16, 1, true, false);
+
+	/** Frames mixed per write, about 12 milliseconds. */
+	public static final int BUFFER_FRAMES = 512;
+
+	public static final int MAX_VOICES = 32;
+
+	private static class Voice {
+
+		short[] samples;
+		int position;
+		int loopsRemaining; // -1 = endless
+		float gain;
+		int generation;
+	}
+
+	/**
+	 * Decodes an audio resource into samples of the mixer format.
+	 *
+	 * @param url URL of an audio resource, for example a WAV file
+	 * @return mono samples with the sample rate of the mixer
+	 */
+	public static short[] decode(URL url) {
+		try (AudioInputStream source = AudioSystem.getAudioInputStream(url)) {
+			AudioFormat sourceFormat = source.getFormat();
+			int channels = sourceFormat.getChannels();
+			AudioFormat pcmFormat = new AudioFormat(sourceFormat.getSampleRate(), 16, channels, true, false);
+			byte[] bytes;
+			try (AudioInputStream pcm = AudioSystem.getAudioInputStream(pcmFormat, source)) {
+				bytes = pcm.readAllBytes();
+			}
+			// mix down to mono
+			int frames = bytes.length / (2 * channels);
+			short[] mono = new short[frames];
+			for (int frame = 0; frame < frames; ++frame) {
+				int sum = 0;
+				for (int channel = 0; channel < channels; ++channel) {
+					int i = 2 * (frame * channels + channel);
+					sum += (short) ((bytes[i] & 0xff) | (bytes[i + 1] << 8));
+				}
+				mono[frame] = (short) (sum / channels);
+			}
+			return resample(mono, sourceFormat.getSampleRate());
+		} catch (Exception x) {
+			throw new AssetException("Could not decode sound '%s': %s", url, x.getMessage());
+		}
+	}
+
+	// linear interpolation is good enough for the arcade sounds
+	private static short[] resample(short[] samples, float sampleRate) {
+		if (sampleRate == FORMAT.getSampleRate() || samples.length == 0) {
+			return samples;
+		}
+		double step = sampleRate / FORMAT.getSampleRate();
+		short[] resampled = new short[(int) (samples.length / step)];
+		for (int i = 0; i < resampled.length; ++i) {
+			double position = i * step;
+			int left = (int) position;
+			int right = Math.min(left + 1, samples.length - 1);
+			double fraction = position - left;
+			resampled[i] = (short) Math.round(samples[left] * (1 - fraction) + samples[right] * fraction);
+		}
+		return resampled;
+	}
+
+	private final Voice[] voices = new Voice[MAX_VOICES];
+	private final int[] mixBuffer = new int[BUFFER_FRAMES];
+	private final byte[] lineBuffer = new byte[2 * BUFFER_FRAMES];
+	private SourceDataLine line;
+	private Thread thread;
+	private volatile boolean running;
+
+	public AudioMixer() {
+		for (int i = 0; i < voices.length; ++i) {
+			voices[i] = new Voice();
+		}
+	}
+
+	/**
+	 * Opens the audio line and starts the mixer thread.
+	 */
+	public synchronized void start() {
+		if (running) {
+			return;
+		}
+		try {
+			line = AudioSystem.getSourceDataLine(FORMAT);
+			line.open(FORMAT, 4 * lineBuffer.length);
+			line.start();
+		} catch (Exception x) {
+			log("Audio mixer could not open audio line, sound is off: %s", x.getMessage());
+			line = null;
+			return;
+		}
+		running = true;
+		thread = new Thread(this::mixLoop, "AudioMixer");
+		thread.setDaemon(true);
+		thread.setPriority(Thread.MAX_PRIORITY);
+		thread.start();
+		log("Audio mixer started, buffer size %d frames", BUFFER_FRAMES);
+	}
+
+	/**
+	 * Stops the mixer thread and closes the audio line.
+	 */
+	public void close() {
+		Thread mixer;
+		synchronized (this) {
+			if (!running) {
+				return;
+			}
+			running = false;
+			mixer = thread;
+		}
+		try {
+			mixer.join();
+		} catch (InterruptedException x) {
+			Thread.currentThread().interrupt();
+		}
+		line.close();
+	}
+
+	public boolean isRunning() {
+		return running;
+	}
+
+	/**
+	 * Starts a new voice.
+	 *
+	 * @param samples     samples in mixer format
+	 * @param gain        gain factor
+	 * @param repetitions number of times the samples are played, {@link Integer#MAX_VALUE} means endless
+	 * @return handle of the voice or -1 if the voice could not be started
+	 */
+	public int play(short[] samples, float gain, int repetitions) {
+		if (!running || samples.length == 0) {
+			return -1;
+		}
+		synchronized (voices) {
+			for (int i = 0; i < voices.length; ++i) {
+				Voice voice = voices[i];
+				if (voice.samples == null) {
+					voice.samples = samples;
+					voice.position = 0;
+					voice.loopsRemaining = repetitions == Integer.MAX_VALUE ? -1 : repetitions - 1;
+					voice.gain = gain;
+					voice.generation = (voice.generation + 1) & 0xffffff;
+					return voice.generation << 8 | i;
+				}
+			}
+		}
+		return -1;
+	}
+
+	/**
+	 * Stops the voice with the given handle if it is still playing.
+	 *
+	 * @param handle voice handle as returned by {@link #play(short[], float, int)}
+	 */
+	public void stopVoice(int handle) {
+		if (handle == -1) {
+			return;
+		}
+		synchronized (voices) {
+			Voice voice = voices[handle & 0xff];
+			if (voice.generation == handle >>> 8) {
+				voice.samples = null;
+			}
+		}
+	}
+
+	/**
+	 * Stops all voices playing the given samples.
+	 *
+	 * @param samples samples
+	 */
+	public void stop(short[] samples) {
+		synchronized (voices) {
+			for (Voice voice : voices) {
+				if (voice.samples == samples) {
+					voice.samples = null;
+				}
+			}
+		}
+	}
+
+	public boolean isPlaying(short[] samples) {
+		synchronized (voices) {
+			for (Voice voice : voices) {
+				if (voice.samples == samples) {
+					return true;
+				}
+			}
+		}
+		return false;
+	}
+
+	private void mixLoop() {
+		while (running) {
+			mix();
+			for (int i = 0; i < BUFFER_FRAMES; ++i) {
+				int sample = Math.max(Short.MIN_VALUE, Math.min(Short.MAX_VALUE, mixBuffer[i]));
+				lineBuffer[2 * i] = (byte) sample;
+				lineBuffer[2 * i + 1] = (byte) (sample >> 8);
+			}
+			// blocks until the line has room, this paces the mixer
+			line.write(lineBuffer, 0, lineBuffer.length);
+		}
+		line.drain();
+		line.stop();
+	}
+
+	private void mix() {
+		Arrays.fill(mixBuffer, 0);
+		synchronized (voices) {
+			for (Voice voice : voices) {
+				int frame = 0;
+				while (voice.samples != null && frame < BUFFER_FRAMES) {
+					short[] samples = voice.samples;
+					int n = Math.min(BUFFER_FRAMES - frame, samples.length - voice.position);
+					float gain = voice.gain;
+					for (int i = 0; i < n; ++i) {
+						mixBuffer[frame + i] += (int) (samples[voice.position + i] * gain);
+					}
+					frame += n;
+					voice.position += n;
+					if (voice.position == samples.length) {
+						if (voice.loopsRemaining == 0) {
+							voice.samples = null;
+						} else {
+							if (voice.loopsRemaining > 0) {
+								--voice.loopsRemaining;
+							}
+							voice.position = 0;
+						}
+					}
+				}
+			}
+		}
+	}
+}
@@ -0,0 +1,120 @@
+package de.amr.games.pacman.ui.swing.assets;
+
+import static de.amr.games.pacman.lib.Logging.log;
+
+import java.awt.image.BufferedImage;
+import java.awt.image.DataBufferInt;
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.IntBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileChannel.MapMode;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.function.UnaryOperator;
+import java.util.zip.CRC32;
+
+/**
+ * Disk cache for images derived from other images, e.g. the bright images used for the flashing
+ * mazes.
+ * <p>
+ * A derived image is stored as file whose name consists of the derivation name (including its
+ * parameters) and a checksum of the source pixels. So a changed source image or changed parameters
+ * automatically lead to a new cache entry. If the cache directory is not writable, images are
+ * derived on every start as before.
+ * <p>
+ * The files contain the raw ARGB pixels (preceded by a magic number, width and height) and are
+ * memory-mapped when loaded. Decoding a PNG would take longer than deriving most images.
+ */
+public class DerivedImageCache {
+
+	private static final int MAGIC = 0x41524742; // "ARGB"
+
+	public static final DerivedImageCache DEFAULT = new DerivedImageCache(
+			new File(System.getProperty("user.home"), ".pacman/cache"));
+
+	private final File dir;
+
+	public DerivedImageCache(File dir) {
+		this.dir = dir;
+	}
+
+	public File getDirectory() {
+		return dir;
+	}
+
+	/**
+	 * Returns the derived image from the cache or computes and stores it.
+	 *
+	 * @param source     source image
+	 * @param derivation unique name of the derivation including its parameters, must be usable as
+	 *                   part of a file name
+	 * @param deriver    computes the derived image from the source image
+	 * @return the derived image
+	 */
+	public BufferedImage get(BufferedImage source, String derivation, UnaryOperator<BufferedImage> deriver) {
+		File file = new File(dir, derivation + "-" + hash(source) + ".argb");
+		if (file.exists()) {
+			try {
+				return load(file);
+			} catch (IOException | RuntimeException x) {
+				log("Could not read cached image %s, image gets recomputed", file);
+			}
+		}
+		BufferedImage image = deriver.apply(source);
+		store(image, file);
+		return image;
+	}
+
+	private BufferedImage load(File file) throws IOException {
+		try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ)) {
+			IntBuffer data = channel.map(MapMode.READ_ONLY, 0, channel.size()).asIntBuffer();
+			int width = data.get(1), height = data.get(2);
+			if (data.get(0) != MAGIC || data.capacity() != 3 + width * height) {
+				throw new IOException("Invalid image cache file " + file);
+			}
+			BufferedImage image = new BufferedImage(width, height, BufferedImage.TYPE_INT_ARGB);
+			data.position(3);
+			data.get(((DataBufferInt) image.getRaster().getDataBuffer()).getData());
+			return image;
+		}
+	}
+
+	private void store(BufferedImage image, File file) {
+		if (!dir.isDirectory() && !dir.mkdirs()) {
+			log("Could not create image cache directory %s", dir);
+			return;
+		}
+		File tmp = null;
+		try {
+			// write to temporary file first such that an interrupted write never leaves a broken entry
+			tmp = File.createTempFile("image", ".tmp", dir);
+			int width = image.getWidth(), height = image.getHeight();
+			ByteBuffer data = ByteBuffer.allocate(4 * (3 + width * height));
+			data.putInt(MAGIC).putInt(width).putInt(height);
+			data.asIntBuffer().put(image.getRGB(0, 0, width, height, null, 0, width));
+			Files.write(tmp.toPath(), data.array());
+			Files.move(tmp.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING,
+					StandardCopyOption.ATOMIC_MOVE);
+		} catch (IOException x) {
+			log("Could not store image in cache file %s", file);
+		} finally {
+			// still there if writing or moving failed
+			if (tmp != null && tmp.exists() && !tmp.delete()) {
+				log("Could not delete temporary image cache file %s", tmp);
+			}
+		}
+	}
+
+	private static String hash(BufferedImage image) {
+		int width = image.getWidth(), height = image.getHeight();
+		int[] pixels = image.getRGB(0, 0, width, height, null, 0, width);
+		ByteBuffer bytes = ByteBuffer.allocate(8 + 4 * pixels.length);
+		bytes.putInt(width).putInt(height).asIntBuffer().put(pixels);
+		CRC32 crc = new CRC32();
+		crc.update(bytes.array());
+		return String.format("%08x", crc.getValue());
+	}
+}
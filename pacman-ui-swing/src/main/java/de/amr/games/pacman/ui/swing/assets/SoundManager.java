@@ -1,95 +1,102 @@
 package de.amr.games.pacman.ui.swing.assets;
 
+import static de.amr.games.pacman.lib.Logging.log;
+
 import java.net.URL;
 import java.util.EnumMap;
 import java.util.Map;
 import java.util.function.Function;
 
-import javax.sound.sampled.AudioInputStream;
-import javax.sound.sampled.AudioSystem;
-import javax.sound.sampled.Clip;
-
 import de.amr.games.pacman.ui.PacManGameSound;
 
 /**
  * Sound manager for Pac-Man game variants.
- * 
- * TODO how to avoid warning about potential resource leak?
- * 
+ * <p>
+ * All sounds are decoded when the sound manager is created and played by the audio mixer, so
+ * playing a sound never touches the disk or the audio system.
+ *
  * @author Armin Reichert
  */
 public class SoundManager {
 
-	private final Function<PacManGameSound, URL> fnSoundURL;
-	private final Map<PacManGameSound, Clip> clipCache = new EnumMap<>(PacManGameSound.class);
-	private final Clip munch0, munch1;
+	private final AudioMixer mixer;
+	private final Map<PacManGameSound, short[]> samples = new EnumMap<>(PacManGameSound.class);
+	private final int[] munchVoices = { -1, -1 };
 	private int munchIndex;
 	private boolean muted;
 
-	public SoundManager(Function<PacManGameSound, URL> fnSoundURL) {
-		this.fnSoundURL = fnSoundURL;
-		munchIndex = 0;
-		munch0 = createAndOpenClip(fnSoundURL.apply(PacManGameSound.PACMAN_MUNCH));
-		munch1 = createAndOpenClip(fnSoundURL.apply(PacManGameSound.PACMAN_MUNCH));
+	public SoundManager(AudioMixer mixer, Function<PacManGameSound, URL> fnSoundURL) {
+		this.mixer = mixer;
+		long start = System.nanoTime();
+		for (PacManGameSound sound : PacManGameSound.values()) {
+			URL url = fnSoundURL.apply(sound);
+			if (url != null) {
+				samples.put(sound, AudioMixer.decode(url));
+			}
+		}
+		log("%d sounds decoded in %.2f milliseconds", samples.size(), (System.nanoTime() - start) / 1e6);
 	}
 
-	public void setMuted(boolean muted) {
-		this.muted = muted;
+	/**
+	 * @param mixer   audio mixer
+	 * @param samples the decoded sounds, see {@link AudioMixer#decode(URL)}
+	 */
+	public SoundManager(AudioMixer mixer, Map<PacManGameSound, short[]> samples) {
+		this.mixer = mixer;
+		this.samples.putAll(samples);
 	}
 
-	private Clip createAndOpenClip(URL url) {
-		try (AudioInputStream as = AudioSystem.getAudioInputStream(url)) {
-			Clip clip = AudioSystem.getClip();
-			clip.open(as);
-			return clip;
-		} catch (Exception x) {
-			throw new RuntimeException("Error opening audio clip", x);
+	/**
+	 * @return number of bytes of the decoded sounds
+	 */
+	public long retainedBytes() {
+		long bytes = 0;
+		for (short[] soundSamples : samples.values()) {
+			bytes += (long) Short.BYTES * soundSamples.length;
 		}
+		return bytes;
+	}
+
+	public void setMuted(boolean muted) {
+		this.muted = muted;
 	}
 
-	@SuppressWarnings("resource")
-	private Clip getClip(PacManGameSound sound) {
-		Clip clip = null;
-		if (sound == PacManGameSound.PACMAN_MUNCH) {
-			clip = munchIndex == 0 ? munch0 : munch1;
-			munchIndex = (munchIndex + 1) % 2;
-		} else if (clipCache.containsKey(sound)) {
-			clip = clipCache.get(sound);
-		} else {
-			clip = createAndOpenClip(fnSoundURL.apply(sound));
-			clipCache.put(sound, clip);
+	private short[] samples(PacManGameSound sound) {
+		short[] soundSamples = samples.get(sound);
+		if (soundSamples == null) {
+			throw new AssetException("No sound available for %s", sound);
 		}
-		clip.setFramePosition(0);
-		return clip;
+		return soundSamples;
 	}
 
-	@SuppressWarnings("resource")
 	public void play(PacManGameSound sound) {
 		if (!muted) {
-			getClip(sound).start();
+			if (sound == PacManGameSound.PACMAN_MUNCH) {
+				// at most two munch sounds overlap, the older one is restarted
+				mixer.stopVoice(munchVoices[munchIndex]);
+				munchVoices[munchIndex] = mixer.play(samples(sound), 1, 1);
+				munchIndex = (munchIndex + 1) % 2;
+			} else {
+				mixer.stop(samples(sound));
+				mixer.play(samples(sound), 1, 1);
+			}
 		}
 	}
 
-	@SuppressWarnings("resource")
 	public void loop(PacManGameSound sound, int repetitions) {
 		if (!muted) {
-			Clip clip = getClip(sound);
-			clip.setFramePosition(0);
-			clip.loop(repetitions == Integer.MAX_VALUE ? Clip.LOOP_CONTINUOUSLY : repetitions - 1);
+			mixer.stop(samples(sound));
+			mixer.play(samples(sound), 1, repetitions);
 		}
 	}
 
-	@SuppressWarnings("resource")
 	public void stop(PacManGameSound sound) {
-		getClip(sound).stop();
+		mixer.stop(samples(sound));
 	}
 
 	public void stopAll() {
-		for (Clip clip : clipCache.values()) {
-			clip.stop();
+		for (short[] soundSamples : samples.values()) {
+			mixer.stop(soundSamples);
 		}
-		clipCache.clear();
-		munch0.stop();
-		munch1.stop();
 	}
-}
\ No newline at end of file
+}
@@ -0,0 +1,159 @@
+package de.amr.games.pacman.ui.swing.assets;
+
+import static de.amr.games.pacman.lib.Logging.log;
+
+import java.awt.Graphics2D;
+import java.awt.GraphicsConfiguration;
+import java.awt.GraphicsEnvironment;
+import java.awt.RenderingHints;
+import java.awt.Transparency;
+import java.awt.geom.AffineTransform;
+import java.awt.image.BufferedImage;
+import java.awt.image.DataBuffer;
+import java.util.Map;
+import java.util.WeakHashMap;
+
+/**
+ * Keeps standalone, display-compatible copies of all sprites together with copies pre-scaled to
+ * the integer scaling factor of the window.
+ * <p>
+ * Sub-images of a large sheet cannot be cached in video memory by Java2D, and scaling every sprite
+ * at render time costs an interpolation per pixel and frame. Sprites registered here are drawn by
+ * {@link #drawSprite(Graphics2D, BufferedImage, int, int)} as unscaled blits of their pre-scaled
+ * copy if the graphics context is scaled by exactly the atlas scaling.
+ * <p>
+ * The atlas references its sprites weakly (images are compared by identity because
+ * {@link BufferedImage} does not override {@code equals}), so the sprites of an evicted asset
+ * bundle are collected together with their scaled copies.
+ */
+public class SpriteAtlas {
+
+	private static GraphicsConfiguration graphicsConfiguration() {
+		if (GraphicsEnvironment.isHeadless()) {
+			return null;
+		}
+		return GraphicsEnvironment.getLocalGraphicsEnvironment().getDefaultScreenDevice().getDefaultConfiguration();
+	}
+
+	private static BufferedImage createImage(GraphicsConfiguration gc, int width, int height) {
+		return gc != null ? gc.createCompatibleImage(width, height, Transparency.TRANSLUCENT)
+				: new BufferedImage(width, height, BufferedImage.TYPE_INT_ARGB);
+	}
+
+	private final GraphicsConfiguration gc = graphicsConfiguration();
+	private final Map<BufferedImage, BufferedImage> scaledSprites = new WeakHashMap<>();
+	private int scaling = 1;
+
+	/**
+	 * Creates a standalone compatible copy of the given image and adds it to the atlas.
+	 *
+	 * @param image some image, e.g. a region of a spritesheet
+	 * @return the copy which has to be used for drawing
+	 */
+	public synchronized BufferedImage add(BufferedImage image) {
+		if (scaledSprites.containsKey(image)) {
+			return image;
+		}
+		BufferedImage sprite = createImage(gc, image.getWidth(), image.getHeight());
+		Graphics2D g = sprite.createGraphics();
+		g.drawImage(image, 0, 0, null);
+		g.dispose();
+		scaledSprites.put(sprite, scaled(sprite));
+		return sprite;
+	}
+
+	public synchronized int size() {
+		return scaledSprites.size();
+	}
+
+	public synchronized int getScaling() {
+		return scaling;
+	}
+
+	/**
+	 * Sets the scaling factor and creates the scaled copies of all sprites.
+	 *
+	 * @param scaling integer scaling factor of the window
+	 */
+	public synchronized void setScaling(int scaling) {
+		if (scaling < 1) {
+			throw new IllegalArgumentException("Illegal sprite atlas scaling: " + scaling);
+		}
+		if (this.scaling == scaling) {
+			return;
+		}
+		this.scaling = scaling;
+		long start = System.nanoTime();
+		scaledSprites.replaceAll((sprite, scaledSprite) -> scaled(sprite));
+		log("Sprite atlas: %d sprites scaled by %d in %.2f milliseconds", scaledSprites.size(), scaling,
+				(System.nanoTime() - start) / 1e6);
+	}
+
+	/**
+	 * @param image an image
+	 * @return number of bytes of the pixel data of the image
+	 */
+	public static long imageBytes(BufferedImage image) {
+		DataBuffer buffer = image.getRaster().getDataBuffer();
+		return (long) buffer.getSize() * buffer.getNumBanks() * DataBuffer.getDataTypeSize(buffer.getDataType()) / 8;
+	}
+
+	/**
+	 * @param sprite a sprite
+	 * @return number of bytes of the pixel data of the sprite and its scaled copy
+	 */
+	public synchronized long retainedBytes(BufferedImage sprite) {
+		long bytes = imageBytes(sprite);
+		BufferedImage scaledSprite = scaledSprites.get(sprite);
+		if (scaledSprite != null) {
+			bytes += imageBytes(scaledSprite);
+		}
+		return bytes;
+	}
+
+	// without scaling there is no copy, the map value must not reference the (weak) key
+	private BufferedImage scaled(BufferedImage sprite) {
+		if (scaling == 1) {
+			return null;
+		}
+		BufferedImage scaledSprite = createImage(gc, sprite.getWidth() * scaling, sprite.getHeight() * scaling);
+		Graphics2D g = scaledSprite.createGraphics();
+		g.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+		g.drawImage(sprite, 0, 0, scaledSprite.getWidth(), scaledSprite.getHeight(), null);
+		g.dispose();
+		return scaledSprite;
+	}
+
+	/**
+	 * Draws the given sprite at the given (unscaled) position. If the sprite is part of this atlas and
+	 * the graphics context is scaled by the atlas scaling, the pre-scaled sprite is drawn without any
+	 * transformation.
+	 *
+	 * @param g      graphics context
+	 * @param sprite sprite image
+	 * @param x      x position in unscaled coordinates
+	 * @param y      y position in unscaled coordinates
+	 */
+	public void drawSprite(Graphics2D g, BufferedImage sprite, int x, int y) {
+		AffineTransform transform = g.getTransform();
+		if (scaling > 1 && isScaledByAtlasScaling(transform)) {
+			BufferedImage scaledSprite;
+			synchronized (this) {
+				scaledSprite = scaledSprites.get(sprite);
+			}
+			if (scaledSprite != null) {
+				int tx = (int) Math.round(transform.getTranslateX()), ty = (int) Math.round(transform.getTranslateY());
+				g.setTransform(new AffineTransform());
+				g.drawImage(scaledSprite, tx + x * scaling, ty + y * scaling, null);
+				g.setTransform(transform);
+				return;
+			}
+		}
+		g.drawImage(sprite, x, y, null);
+	}
+
+	private boolean isScaledByAtlasScaling(AffineTransform transform) {
+		return transform.getScaleX() == scaling && transform.getScaleY() == scaling && transform.getShearX() == 0
+				&& transform.getShearY() == 0;
+	}
+}
@@ -2,48 +2,108 @@ package de.amr.games.pacman.ui.swing.assets;
 
 import java.awt.Color;
 import java.awt.image.BufferedImage;
+import java.awt.image.DataBufferInt;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.IntStream;
 
 import de.amr.games.pacman.lib.V2i;
 
 /**
  * A spritesheet.
+ * <p>
+ * Sprites are not returned as views into the sheet image but as standalone images registered in the
+ * shared {@link #ATLAS}. Each region is extracted only once, repeated calls return the same image.
  * 
  * @author Armin Reichert
  */
 public class Spritesheet {
 
+	/** Atlas containing the sprites of all spritesheets. */
+	public static final SpriteAtlas ATLAS = new SpriteAtlas();
+
+	/**
+	 * Returns the bright version of the given image, taken from the derived image cache if possible.
+	 * 
+	 * @see #createBrightEffect(BufferedImage, Color, Color)
+	 */
+	public static BufferedImage brightEffect(BufferedImage src, Color borderColor, Color fillColor) {
+		String derivation = String.format("bright-%08x-%08x", borderColor.getRGB(), fillColor.getRGB());
+		return DerivedImageCache.DEFAULT.get(src, derivation, image -> createBrightEffect(image, borderColor, fillColor));
+	}
+
 	public static BufferedImage createBrightEffect(BufferedImage src, Color borderColor, Color fillColor) {
-		BufferedImage dst = new BufferedImage(src.getWidth(), src.getHeight(), src.getType());
-		dst.getGraphics().drawImage(src, 0, 0, null);
-		for (int x = 0; x < src.getWidth(); ++x) {
-			for (int y = 0; y < src.getHeight(); ++y) {
-				if (src.getRGB(x, y) == borderColor.getRGB()) {
-					dst.setRGB(x, y, Color.WHITE.getRGB());
-				} else if (src.getRGB(x, y) == fillColor.getRGB()) {
-					dst.setRGB(x, y, Color.BLACK.getRGB());
-				} else {
-					dst.setRGB(x, y, src.getRGB(x, y));
+		int width = src.getWidth(), height = src.getHeight();
+		int border = borderColor.getRGB(), fill = fillColor.getRGB();
+		int white = Color.WHITE.getRGB(), black = Color.BLACK.getRGB();
+		BufferedImage dst = new BufferedImage(width, height, BufferedImage.TYPE_INT_ARGB);
+		int[] pixels = ((DataBufferInt) dst.getRaster().getDataBuffer()).getData();
+		src.getRGB(0, 0, width, height, pixels, 0, width);
+		IntStream.range(0, height).parallel().forEach(y -> {
+			for (int i = y * width; i < (y + 1) * width; ++i) {
+				if (pixels[i] == border) {
+					pixels[i] = white;
+				} else if (pixels[i] == fill) {
+					pixels[i] = black;
 				}
 			}
-		}
+		});
 		return dst;
 	}
 
 	public final BufferedImage sheet;
 	public final int raster;
 
+	private final Map<Long, BufferedImage> regions = new HashMap<>();
+	private final List<BufferedImage> images = new ArrayList<>();
+
 	public Spritesheet(BufferedImage image, int pixels) {
 		sheet = image;
 		raster = pixels;
 	}
 
 	public BufferedImage region(int x, int y, int width, int height) {
-		return sheet.getSubimage(x, y, width, height);
+		long key = (long) x << 48 | (long) y << 32 | (long) width << 16 | height;
+		synchronized (regions) {
+			return regions.computeIfAbsent(key, k -> ATLAS.add(sheet.getSubimage(x, y, width, height)));
+		}
+	}
+
+	/**
+	 * Adds an image which is not a region of the sheet, for example a maze image, to the atlas.
+	 * 
+	 * @param image some image
+	 * @return the copy which has to be used for drawing
+	 */
+	public BufferedImage addImage(BufferedImage image) {
+		BufferedImage sprite = ATLAS.add(image);
+		synchronized (regions) {
+			images.add(sprite);
+		}
+		return sprite;
+	}
+
+	/**
+	 * @return number of bytes of the pixel data of the sheet, its regions and images including their
+	 *         scaled copies
+	 */
+	public long retainedBytes() {
+		long bytes = SpriteAtlas.imageBytes(sheet);
+		synchronized (regions) {
+			for (BufferedImage region : regions.values()) {
+				bytes += ATLAS.retainedBytes(region);
+			}
+			for (BufferedImage image : images) {
+				bytes += ATLAS.retainedBytes(image);
+			}
+		}
+		return bytes;
 	}
 
 	public BufferedImage spriteRegion(int originX, int originY, int tileX, int tileY, int numTilesX, int numTilesY) {
-		return sheet.getSubimage(originX + tileX * raster, originY + tileY * raster, numTilesX * raster,
-				numTilesY * raster);
+		return region(originX + tileX * raster, originY + tileY * raster, numTilesX * raster, numTilesY * raster);
 	}
 
 	public BufferedImage spriteRegion(int tileX, int tileY, int numTilesX, int numTilesY) {
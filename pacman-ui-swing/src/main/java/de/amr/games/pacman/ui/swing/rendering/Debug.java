@@ -34,7 +34,7 @@ public class Debug {
 			g.setColor(Color.WHITE);
 			g.drawRect((int) ghost.position.x, (int) ghost.position.y, TS, TS);
 			if (ghost.targetTile != null) {
-				Color c = GHOST_COLORS[ghost.id];
+				Color c = GHOST_COLORS[ghost.personality];
 				g.setColor(c);
 				g.fillRect(t(ghost.targetTile.x) + HTS / 2, t(ghost.targetTile.y) + HTS / 2, HTS, HTS);
 			}
@@ -3,6 +3,7 @@ package de.amr.games.pacman.ui.swing.rendering.common;
 import static de.amr.games.pacman.model.world.PacManGameWorld.HTS;
 import static de.amr.games.pacman.model.world.PacManGameWorld.TS;
 import static de.amr.games.pacman.model.world.PacManGameWorld.t;
+import static de.amr.games.pacman.ui.swing.assets.Spritesheet.ATLAS;
 
 import java.awt.Color;
 import java.awt.Font;
@@ -56,6 +57,11 @@ public abstract class AbstractPacManGameRendering {
 
 	public abstract Font getScoreFont();
 
+	/**
+	 * @return number of bytes of the image data held by this rendering
+	 */
+	public abstract long retainedBytes();
+
 	// only use in Pac-Man:
 
 	public TimedSequence<BufferedImage> createBlinkyStretchedAnimation() {
@@ -101,7 +107,7 @@ public abstract class AbstractPacManGameRendering {
 	protected void drawEntitySprite(Graphics2D g, GameEntity entity, BufferedImage sprite) {
 		if (entity.visible && sprite != null) {
 			int dx = HTS - sprite.getWidth() / 2, dy = HTS - sprite.getHeight() / 2;
-			g.drawImage(sprite, (int) (entity.position.x + dx), (int) (entity.position.y + dy), null);
+			ATLAS.drawSprite(g, sprite, (int) (entity.position.x + dx), (int) (entity.position.y + dy));
 		}
 	}
 
@@ -141,7 +147,7 @@ public abstract class AbstractPacManGameRendering {
 	public void drawLivesCounter(Graphics2D g, AbstractGameModel game, int x, int y) {
 		int maxLivesDisplayed = 5;
 		for (int i = 0; i < Math.min(game.lives, maxLivesDisplayed); ++i) {
-			g.drawImage(lifeSprite(), x + t(2 * i), y, null);
+			ATLAS.drawSprite(g, lifeSprite(), x + t(2 * i), y);
 		}
 		if (game.lives > maxLivesDisplayed) {
 			g.setColor(Color.YELLOW);
@@ -155,7 +161,7 @@ public abstract class AbstractPacManGameRendering {
 		int firstLevel = Math.max(1, game.currentLevelNumber - 6);
 		for (int level = firstLevel; level <= game.currentLevelNumber; ++level) {
 			byte symbol = game.levelSymbols.get(level - 1);
-			g.drawImage(symbolSprite(symbol), x, y, null);
+			ATLAS.drawSprite(g, symbolSprite(symbol), x, y);
 			x -= t(2);
 		}
 	}
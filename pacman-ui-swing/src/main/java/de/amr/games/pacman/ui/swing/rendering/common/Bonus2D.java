@@ -1,6 +1,7 @@
 package de.amr.games.pacman.ui.swing.rendering.common;
 
 import static de.amr.games.pacman.model.world.PacManGameWorld.TS;
+import static de.amr.games.pacman.ui.swing.assets.Spritesheet.ATLAS;
 
 import java.awt.Graphics2D;
 import java.awt.image.BufferedImage;
@@ -51,7 +52,7 @@ public class Bonus2D {
 		int jump = jumpAnimation != null ? jumpAnimation.animate() : 0;
 		int dx = -(sprite.getWidth() - TS) / 2, dy = -(sprite.getHeight() - TS) / 2;
 		g.translate(0, jump);
-		g.drawImage(sprite, (int) (bonus.position.x + dx), (int) (bonus.position.y + dy), null);
+		ATLAS.drawSprite(g, sprite, (int) (bonus.position.x + dx), (int) (bonus.position.y + dy));
 		g.translate(0, -jump);
 	}
 
@@ -5,6 +5,7 @@ import static de.amr.games.pacman.model.common.GhostState.ENTERING_HOUSE;
 import static de.amr.games.pacman.model.common.GhostState.FRIGHTENED;
 import static de.amr.games.pacman.model.common.GhostState.LOCKED;
 import static de.amr.games.pacman.model.world.PacManGameWorld.TS;
+import static de.amr.games.pacman.ui.swing.assets.Spritesheet.ATLAS;
 
 import java.awt.Graphics2D;
 import java.awt.image.BufferedImage;
@@ -31,7 +32,7 @@ public class Ghost2D {
 	}
 
 	public void setRendering(AbstractPacManGameRendering rendering) {
-		setKickingAnimations(rendering.createGhostKickingAnimations(ghost.id));
+		setKickingAnimations(rendering.createGhostKickingAnimations(ghost.personality));
 		setFrightenedAnimation(rendering.createGhostFrightenedAnimation());
 		setFlashingAnimation(rendering.createGhostFlashingAnimation());
 		setReturningHomeAnimations(rendering.createGhostReturningHomeAnimations());
@@ -86,7 +87,7 @@ public class Ghost2D {
 		BufferedImage sprite = currentSprite();
 		if (ghost.visible) {
 			int dx = (TS - sprite.getWidth()) / 2, dy = (TS - sprite.getHeight()) / 2;
-			g.drawImage(sprite, (int) (ghost.position.x + dx), (int) (ghost.position.y + dy), null);
+			ATLAS.drawSprite(g, sprite, (int) (ghost.position.x + dx), (int) (ghost.position.y + dy));
 		}
 	}
 
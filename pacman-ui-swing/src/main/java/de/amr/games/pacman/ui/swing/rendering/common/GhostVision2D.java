@@ -28,7 +28,7 @@ public class GhostVision2D {
     }
     V2i currTile = ghost.tile();
     //Draw vision area based on ghost type
-    switch (ghost.id) {
+    switch (ghost.personality) {
       case INKY:
         Color inkyColour = new Color(25, 25, 255, 150);
         g.setColor(inkyColour);
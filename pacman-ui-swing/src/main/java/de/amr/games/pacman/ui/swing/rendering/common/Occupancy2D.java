@@ -7,7 +7,6 @@ import de.amr.games.pacman.lib.V2i;
 import de.amr.games.pacman.model.common.GameVariant;
 import java.awt.Color;
 import java.awt.Graphics2D;
-import java.util.HashMap;
 import java.util.Map;
 
 public class Occupancy2D {
@@ -19,7 +18,7 @@ public class Occupancy2D {
   }
 
   public void render(Graphics2D g) {
-    HashMap<V2i, Double> occupancyMap = controller.getOccupancy();
+    Map<V2i, Double> occupancyMap = controller.getOccupancy();
     if (occupancyMap != null) {
       for (Map.Entry<V2i, Double> tileOccupancy : occupancyMap.entrySet()) {
         //Draw a red box with varying opacity based on probability
@@ -1,6 +1,7 @@
 package de.amr.games.pacman.ui.swing.rendering.common;
 
 import static de.amr.games.pacman.model.world.PacManGameWorld.TS;
+import static de.amr.games.pacman.ui.swing.assets.Spritesheet.ATLAS;
 
 import java.awt.Graphics2D;
 import java.awt.image.BufferedImage;
@@ -45,7 +46,7 @@ public class Player2D {
 		BufferedImage sprite = currentSprite();
 		if (player.visible) {
 			int dx = (TS - sprite.getWidth()) / 2, dy = (TS - sprite.getHeight()) / 2;
-			g.drawImage(sprite, (int) (player.position.x + dx), (int) (player.position.y + dy), null);
+			ATLAS.drawSprite(g, sprite, (int) (player.position.x + dx), (int) (player.position.y + dy));
 		}
 	}
 
@@ -1,5 +1,7 @@
 package de.amr.games.pacman.ui.swing.rendering.mspacman;
 
+import static de.amr.games.pacman.ui.swing.assets.Spritesheet.ATLAS;
+
 import java.awt.Color;
 import java.awt.Font;
 import java.awt.Graphics2D;
@@ -36,7 +38,7 @@ public class Flap2D {
 
 	public void render(Graphics2D g) {
 		if (flap.visible) {
-			g.drawImage(animation.animate(), (int) flap.position.x, (int) flap.position.y, null);
+			ATLAS.drawSprite(g, animation.animate(), (int) flap.position.x, (int) flap.position.y);
 			g.setFont(font);
 			g.setColor(new Color(222, 222, 225, 192));
 			g.drawString(flap.sceneNumber + "", (int) flap.position.x + 20, (int) flap.position.y + 30);
@@ -1,6 +1,7 @@
 package de.amr.games.pacman.ui.swing.rendering.mspacman;
 
 import static de.amr.games.pacman.model.world.PacManGameWorld.TS;
+import static de.amr.games.pacman.ui.swing.assets.Spritesheet.ATLAS;
 
 import java.awt.Graphics2D;
 import java.awt.image.BufferedImage;
@@ -27,7 +28,7 @@ public class Heart2D {
 	public void render(Graphics2D g) {
 		if (heart.visible) {
 			int dx = -(image.getWidth() - TS) / 2, dy = -(image.getHeight() - TS) / 2;
-			g.drawImage(image, (int) heart.position.x + dx, (int) heart.position.y + dy, null);
+			ATLAS.drawSprite(g, image, (int) heart.position.x + dx, (int) heart.position.y + dy);
 		}
 	}
 }
\ No newline at end of file
@@ -1,6 +1,7 @@
 package de.amr.games.pacman.ui.swing.rendering.mspacman;
 
 import static de.amr.games.pacman.model.world.PacManGameWorld.TS;
+import static de.amr.games.pacman.ui.swing.assets.Spritesheet.ATLAS;
 
 import java.awt.Graphics2D;
 import java.awt.image.BufferedImage;
@@ -28,7 +29,7 @@ public class JuniorBag2D {
 
 	private void drawEntity(Graphics2D g, GameEntity entity, BufferedImage sprite) {
 		int dx = -(sprite.getWidth() - TS) / 2, dy = -(sprite.getHeight() - TS) / 2;
-		g.drawImage(sprite, (int) (entity.position.x + dx), (int) (entity.position.y + dy), null);
+		ATLAS.drawSprite(g, sprite, (int) (entity.position.x + dx), (int) (entity.position.y + dy));
 	}
 
 	public void render(Graphics2D g) {
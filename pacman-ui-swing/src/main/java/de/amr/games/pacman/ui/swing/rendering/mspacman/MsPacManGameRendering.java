@@ -1,5 +1,7 @@
 package de.amr.games.pacman.ui.swing.rendering.mspacman;
 
+import static de.amr.games.pacman.ui.swing.assets.Spritesheet.ATLAS;
+
 import java.awt.Color;
 import java.awt.Font;
 import java.awt.Graphics2D;
@@ -118,6 +120,11 @@ public class MsPacManGameRendering extends AbstractPacManGameRendering {
 		return assets.scoreFont;
 	}
 
+	@Override
+	public long retainedBytes() {
+		return assets.retainedBytes();
+	}
+
 	/**
 	 * Note: maze numbers are 1-based, maze index as stored here is 0-based.
 	 * 
@@ -183,9 +190,9 @@ public class MsPacManGameRendering extends AbstractPacManGameRendering {
 	@Override
 	public void drawMaze(Graphics2D g, int mazeNumber, int x, int y, boolean flashing) {
 		if (flashing) {
-			g.drawImage(mazeFlashing(mazeNumber).animate(), x, y, null);
+			ATLAS.drawSprite(g, mazeFlashing(mazeNumber).animate(), x, y);
 		} else {
-			g.drawImage(assets.mazeFullImages.get(mazeNumber - 1), x, y, null);
+			ATLAS.drawSprite(g, assets.mazeFullImages.get(mazeNumber - 1), x, y);
 		}
 	}
 }
\ No newline at end of file
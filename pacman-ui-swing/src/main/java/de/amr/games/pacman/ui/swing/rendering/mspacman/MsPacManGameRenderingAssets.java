@@ -76,10 +76,10 @@ public class MsPacManGameRenderingAssets extends Spritesheet {
 		mazeFullImages = new ArrayList<>(6);
 		mazesFlashingAnims = new ArrayList<>(6);
 		for (int i = 0; i < 6; ++i) {
-			mazeFullImages.add(sheet.getSubimage(0, i * 248, 226, 248));
-			mazeEmptyImages.add(sheet.getSubimage(226, i * 248, 226, 248));
-			BufferedImage mazeEmpzyBright = createBrightEffect(mazeEmptyImages.get(i), getMazeWallBorderColor(i),
-					getMazeWallColor(i));
+			mazeFullImages.add(region(0, i * 248, 226, 248));
+			mazeEmptyImages.add(region(226, i * 248, 226, 248));
+			BufferedImage mazeEmpzyBright = addImage(brightEffect(mazeEmptyImages.get(i), getMazeWallBorderColor(i),
+					getMazeWallColor(i)));
 			mazesFlashingAnims.add(TimedSequence.of(mazeEmpzyBright, mazeEmptyImages.get(i)).frameDuration(15));
 		}
 
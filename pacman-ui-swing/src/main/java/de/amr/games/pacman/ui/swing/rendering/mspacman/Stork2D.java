@@ -1,5 +1,7 @@
 package de.amr.games.pacman.ui.swing.rendering.mspacman;
 
+import static de.amr.games.pacman.ui.swing.assets.Spritesheet.ATLAS;
+
 import java.awt.Graphics2D;
 import java.awt.image.BufferedImage;
 
@@ -25,6 +27,6 @@ public class Stork2D {
 
 	public void render(Graphics2D g) {
 		BufferedImage frame = animation.animate();
-		g.drawImage(frame, (int) stork.position.x, (int) stork.position.y, null);
+		ATLAS.drawSprite(g, frame, (int) stork.position.x, (int) stork.position.y);
 	}
 }
\ No newline at end of file
@@ -1,5 +1,7 @@
 package de.amr.games.pacman.ui.swing.rendering.pacman;
 
+import static de.amr.games.pacman.ui.swing.assets.Spritesheet.ATLAS;
+
 import java.awt.Color;
 import java.awt.Font;
 import java.awt.Graphics2D;
@@ -82,6 +84,11 @@ public class PacManGameRendering extends AbstractPacManGameRendering {
 		return assets.getScoreFont();
 	}
 
+	@Override
+	public long retainedBytes() {
+		return assets.retainedBytes();
+	}
+
 	@Override
 	public Color getMazeWallBorderColor(int mazeIndex) {
 		return new Color(33, 33, 255);
@@ -100,9 +107,9 @@ public class PacManGameRendering extends AbstractPacManGameRendering {
 	@Override
 	public void drawMaze(Graphics2D g, int mazeNumber, int x, int y, boolean flashing) {
 		if (flashing) {
-			g.drawImage(mazeFlashing(mazeNumber).animate(), x, y, null);
+			ATLAS.drawSprite(g, mazeFlashing(mazeNumber).animate(), x, y);
 		} else {
-			g.drawImage(assets.mazeFullImage, x, y, null);
+			ATLAS.drawSprite(g, assets.mazeFullImage, x, y);
 		}
 	}
 
@@ -57,8 +57,8 @@ public class PacManGameRenderingAssets extends Spritesheet {
 
 		// Sprites and images
 
-		mazeFullImage = image("/pacman/graphics/maze_full.png");
-		mazeEmptyImage = image("/pacman/graphics/maze_empty.png");
+		mazeFullImage = addImage(image("/pacman/graphics/maze_full.png"));
+		mazeEmptyImage = addImage(image("/pacman/graphics/maze_empty.png"));
 
 		symbolSprites = new BufferedImage[] { sprite(2, 3), sprite(3, 3), sprite(4, 3), sprite(5, 3), sprite(6, 3),
 				sprite(7, 3), sprite(8, 3), sprite(9, 3) };
@@ -83,8 +83,9 @@ public class PacManGameRenderingAssets extends Spritesheet {
 
 		// Animations
 
-		BufferedImage mazeEmptyDarkImage = image("/pacman/graphics/maze_empty.png");
-		BufferedImage mazeEmptyBrightImage = createBrightEffect(mazeEmptyDarkImage, new Color(33, 33, 255), Color.BLACK);
+		BufferedImage mazeEmptyDarkImage = mazeEmptyImage;
+		BufferedImage mazeEmptyBrightImage = addImage(
+				brightEffect(mazeEmptyDarkImage, new Color(33, 33, 255), Color.BLACK));
 		mazeFlashingAnim = TimedSequence.of(mazeEmptyBrightImage, mazeEmptyDarkImage).frameDuration(15);
 
 		bigPacManAnim = TimedSequence.of(spriteRegion(2, 1, 2, 2), spriteRegion(4, 1, 2, 2), spriteRegion(6, 1, 2, 2))
@@ -7,6 +7,7 @@ import de.amr.games.pacman.controller.PacManGameController;
 import de.amr.games.pacman.controller.event.PacManGameEvent;
 import de.amr.games.pacman.controller.event.PacManGameEventListener;
 import de.amr.games.pacman.model.common.AbstractGameModel;
+import de.amr.games.pacman.ui.swing.AssetBundle;
 import de.amr.games.pacman.ui.swing.assets.SoundManager;
 import de.amr.games.pacman.ui.swing.rendering.common.AbstractPacManGameRendering;
 
@@ -19,15 +20,17 @@ public abstract class GameScene implements PacManGameEventListener {
 
 	protected final PacManGameController gameController;
 	protected final Dimension size;
+	// the asset bundle is referenced softly by the bundle cache, the scene keeps it in memory
+	protected final AssetBundle assets;
 	protected final AbstractPacManGameRendering rendering;
 	protected final SoundManager sounds;
 
-	public GameScene(PacManGameController controller, Dimension size, AbstractPacManGameRendering rendering,
-			SoundManager sounds) {
+	public GameScene(PacManGameController controller, Dimension size, AssetBundle assets) {
 		this.gameController = controller;
 		this.size = size;
-		this.rendering = rendering;
-		this.sounds = sounds;
+		this.assets = assets;
+		this.rendering = assets.rendering;
+		this.sounds = assets.sounds;
 	}
 
 	public AbstractGameModel game() {
@@ -9,6 +9,8 @@ import java.awt.Dimension;
 import java.awt.Graphics2D;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.function.Consumer;
+import java.util.function.LongSupplier;
 import java.util.stream.Collectors;
 
 import de.amr.games.pacman.controller.PacManGameController;
@@ -20,6 +22,7 @@ import de.amr.games.pacman.controller.event.ExtraLifeEvent;
 import de.amr.games.pacman.controller.event.PacManFoundFoodEvent;
 import de.amr.games.pacman.controller.event.PacManGainsPowerEvent;
 import de.amr.games.pacman.controller.event.PacManGameEvent;
+import de.amr.games.pacman.controller.event.PacManGameEventBus;
 import de.amr.games.pacman.controller.event.PacManGameStateChangedEvent;
 import de.amr.games.pacman.controller.event.PacManLostPowerEvent;
 import de.amr.games.pacman.controller.event.ScatterPhaseStartedEvent;
@@ -27,8 +30,7 @@ import de.amr.games.pacman.lib.TickTimerEvent;
 import de.amr.games.pacman.lib.TimedSequence;
 import de.amr.games.pacman.model.common.GhostState;
 import de.amr.games.pacman.ui.PacManGameSound;
-import de.amr.games.pacman.ui.swing.assets.SoundManager;
-import de.amr.games.pacman.ui.swing.rendering.common.AbstractPacManGameRendering;
+import de.amr.games.pacman.ui.swing.AssetBundle;
 import de.amr.games.pacman.ui.swing.rendering.common.Bonus2D;
 import de.amr.games.pacman.ui.swing.rendering.common.Energizer2D;
 import de.amr.games.pacman.ui.swing.rendering.common.Ghost2D;
@@ -50,9 +52,23 @@ public class PlayScene extends GameScene {
 
 	private TimedSequence<?> mazeFlashing;
 
-	public PlayScene(PacManGameController controller, Dimension size, AbstractPacManGameRendering rendering,
-			SoundManager sounds) {
-		super(controller, size, rendering, sounds);
+	// the same listener instance must be removed that has been added
+	private final Consumer<TickTimerEvent> ghostsFlashingHandler = this::handleGhostsFlashing;
+
+	// the events forwarded by the user interface are dispatched to the handlers by event class
+	private final PacManGameEventBus eventHandlers = new PacManGameEventBus();
+
+	public PlayScene(PacManGameController controller, Dimension size, AssetBundle assets) {
+		super(controller, size, assets);
+		eventHandlers.subscribe(PacManGameStateChangedEvent.class, this::onGameStateChange);
+		eventHandlers.subscribe(ScatterPhaseStartedEvent.class, this::onScatterPhaseStarted);
+		eventHandlers.subscribe(PacManLostPowerEvent.class, e -> sounds.stop(PacManGameSound.PACMAN_POWER));
+		eventHandlers.subscribe(PacManFoundFoodEvent.class, e -> sounds.play(PacManGameSound.PACMAN_MUNCH));
+		eventHandlers.subscribe(PacManGainsPowerEvent.class, this::onPacManGainsPower);
+		eventHandlers.subscribe(BonusActivatedEvent.class, this::onBonusActivated);
+		eventHandlers.subscribe(BonusEatenEvent.class, this::onBonusEaten);
+		eventHandlers.subscribe(ExtraLifeEvent.class, this::onExtraLife);
+		eventHandlers.subscribe(DeadGhostCountChangeEvent.class, this::onDeadGhostCountChange);
 	}
 
 	@Override
@@ -70,6 +86,11 @@ public class PlayScene extends GameScene {
 
 		energizers2D = game().currentLevel.world.energizerTiles().map(Energizer2D::new).collect(Collectors.toList());
 
+		// kicking and blinking are driven by the game clock, so they keep their pace when frames are skipped
+		LongSupplier clock = gameController.timerWheel()::now;
+		ghosts2D.forEach(ghost2D -> ghost2D.getKickingAnimations().values().forEach(kicking -> kicking.clock(clock)));
+		energizers2D.forEach(energizer2D -> energizer2D.getBlinkingAnimation().clock(clock));
+
 		bonus2D = new Bonus2D();
 		bonus2D.setRendering(rendering);
 
@@ -77,12 +98,12 @@ public class PlayScene extends GameScene {
 				.repetitions(game().currentLevel.numFlashes);
 		mazeFlashing.reset();
 
-		game().player.powerTimer.addEventListener(this::handleGhostsFlashing);
+		game().player.powerTimer.addEventListener(ghostsFlashingHandler);
 	}
 
 	@Override
 	public void end() {
-		game().player.powerTimer.removeEventListener(this::handleGhostsFlashing);
+		game().player.powerTimer.removeEventListener(ghostsFlashingHandler);
 	}
 
 	private void onGameStateChange(PacManGameStateChangedEvent stateChange) {
@@ -124,6 +145,10 @@ public class PlayScene extends GameScene {
 		if (stateChange.newGameState == PacManGameState.GHOST_DYING) {
 			sounds.play(PacManGameSound.GHOST_EATEN);
 			energizers2D.forEach(energizer2D -> energizer2D.getBlinkingAnimation().restart());
+			// the ghosts freeze while the bounty is shown
+			ghosts2D.forEach(ghost2D -> {
+				ghost2D.getKickingAnimations().values().forEach(TimedSequence::stop);
+			});
 		}
 
 		// exit GHOST_DYING
@@ -151,61 +176,48 @@ public class PlayScene extends GameScene {
 	@Override
 	public void onGameEvent(PacManGameEvent gameEvent) {
 		sounds.setMuted(gameController.isAttractMode());
+		eventHandlers.publish(gameEvent);
+	}
 
-		if (gameEvent instanceof PacManGameStateChangedEvent) {
-			onGameStateChange((PacManGameStateChangedEvent) gameEvent);
-		}
-
-		else if (gameEvent instanceof ScatterPhaseStartedEvent) {
-			ScatterPhaseStartedEvent e = (ScatterPhaseStartedEvent) gameEvent;
-			if (e.scatterPhase > 0) {
-				sounds.stop(PacManGameSound.SIRENS.get(e.scatterPhase - 1));
-			}
-			sounds.loop(PacManGameSound.SIRENS.get(e.scatterPhase), Integer.MAX_VALUE);
-		}
-
-		else if (gameEvent instanceof PacManLostPowerEvent) {
-			sounds.stop(PacManGameSound.PACMAN_POWER);
-		}
-
-		else if (gameEvent instanceof PacManFoundFoodEvent) {
-			sounds.play(PacManGameSound.PACMAN_MUNCH);
+	private void onScatterPhaseStarted(ScatterPhaseStartedEvent e) {
+		if (e.scatterPhase > 0) {
+			sounds.stop(PacManGameSound.SIRENS.get(e.scatterPhase - 1));
 		}
+		sounds.loop(PacManGameSound.SIRENS.get(e.scatterPhase), Integer.MAX_VALUE);
+	}
 
-		else if (gameEvent instanceof PacManGainsPowerEvent) {
-			sounds.loop(PacManGameSound.PACMAN_POWER, Integer.MAX_VALUE);
-			ghosts2D.stream().filter(ghost2D -> ghost2D.ghost.is(GhostState.FRIGHTENED)).forEach(ghost2D -> {
-				ghost2D.getFlashingAnimation().reset();
-				ghost2D.getFrightenedAnimation().restart();
-			});
-		}
+	private void onPacManGainsPower(PacManGainsPowerEvent e) {
+		sounds.loop(PacManGameSound.PACMAN_POWER, Integer.MAX_VALUE);
+		ghosts2D.stream().filter(ghost2D -> ghost2D.ghost.is(GhostState.FRIGHTENED)).forEach(ghost2D -> {
+			ghost2D.getFlashingAnimation().reset();
+			ghost2D.getFrightenedAnimation().restart();
+		});
+	}
 
-		else if (gameEvent instanceof BonusActivatedEvent) {
-			bonus2D.setBonus(gameController.game().bonus);
-			if (bonus2D.getJumpAnimation() != null) {
-				bonus2D.getJumpAnimation().restart();
-			}
+	private void onBonusActivated(BonusActivatedEvent e) {
+		bonus2D.setBonus(gameController.game().bonus);
+		if (bonus2D.getJumpAnimation() != null) {
+			bonus2D.getJumpAnimation().restart();
 		}
+	}
 
-		else if (gameEvent instanceof BonusEatenEvent) {
-			sounds.play(PacManGameSound.BONUS_EATEN);
-			if (bonus2D.getJumpAnimation() != null) {
-				bonus2D.getJumpAnimation().reset();
-			}
+	private void onBonusEaten(BonusEatenEvent e) {
+		sounds.play(PacManGameSound.BONUS_EATEN);
+		if (bonus2D.getJumpAnimation() != null) {
+			bonus2D.getJumpAnimation().reset();
 		}
+	}
 
-		else if (gameEvent instanceof ExtraLifeEvent) {
-			sounds.play(PacManGameSound.EXTRA_LIFE);
-			gameController.userInterface.showFlashMessage("Extra life!");
-		}
+	private void onExtraLife(ExtraLifeEvent e) {
+		sounds.play(PacManGameSound.EXTRA_LIFE);
+		gameController.userInterface.showFlashMessage("Extra life!");
+	}
 
-		else if (gameEvent instanceof DeadGhostCountChangeEvent) {
-			DeadGhostCountChangeEvent e = (DeadGhostCountChangeEvent) gameEvent;
-			if (e.oldCount == 0 && e.newCount > 0) {
-				sounds.play(PacManGameSound.GHOST_RETURNING_HOME);
-			} else if (e.oldCount > 0 && e.newCount == 0) {
-				sounds.stop(PacManGameSound.GHOST_RETURNING_HOME);
-			}
+	private void onDeadGhostCountChange(DeadGhostCountChangeEvent e) {
+		if (e.oldCount == 0 && e.newCount > 0) {
+			sounds.play(PacManGameSound.GHOST_RETURNING_HOME);
+		} else if (e.oldCount > 0 && e.newCount == 0) {
+			sounds.stop(PacManGameSound.GHOST_RETURNING_HOME);
 		}
 	}
 
@@ -267,9 +279,8 @@ public class PlayScene extends GameScene {
 			rendering.drawGameState(g, game(), gameController.state);
 		}
 
-		if (gameController.gameVariant() == GameVariant.INDIVIDUALS || gameController.gameVariant() == GameVariant.OCCUPANCY) {
-			occupancy2D.render(g);
-		}
+		// only drawn if the ghosts estimate Pac-Man's position
+		occupancy2D.render(g);
 
 		if (gameController.gameVariant() == GameVariant.INDIVIDUALS) {
 			ghostsVision2D.forEach(ghostVision2D -> {
@@ -55,7 +55,7 @@ public class MsPacMan_IntermissionScene1 extends GameScene {
 	private Heart2D heart2D;
 
 	public MsPacMan_IntermissionScene1(PacManGameController controller, Dimension size) {
-		super(controller, size, PacManGameUI_Swing.RENDERING_MS_PACMAN, PacManGameUI_Swing.SOUND.get(MS_PACMAN));
+		super(controller, size, PacManGameUI_Swing.ASSETS.get(MS_PACMAN));
 	}
 
 	@Override
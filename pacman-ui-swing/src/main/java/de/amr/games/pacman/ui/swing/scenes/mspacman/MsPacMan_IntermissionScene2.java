@@ -48,7 +48,7 @@ public class MsPacMan_IntermissionScene2 extends GameScene {
 	private Flap2D flap2D;
 
 	public MsPacMan_IntermissionScene2(PacManGameController controller, Dimension size) {
-		super(controller, size, PacManGameUI_Swing.RENDERING_MS_PACMAN, PacManGameUI_Swing.SOUND.get(MS_PACMAN));
+		super(controller, size, PacManGameUI_Swing.ASSETS.get(MS_PACMAN));
 	}
 
 	@Override
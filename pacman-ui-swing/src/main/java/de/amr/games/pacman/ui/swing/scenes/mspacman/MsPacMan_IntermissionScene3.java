@@ -53,7 +53,7 @@ public class MsPacMan_IntermissionScene3 extends GameScene {
 	private JuniorBag2D bag2D;
 
 	public MsPacMan_IntermissionScene3(PacManGameController controller, Dimension size) {
-		super(controller, size, PacManGameUI_Swing.RENDERING_MS_PACMAN, PacManGameUI_Swing.SOUND.get(MS_PACMAN));
+		super(controller, size, PacManGameUI_Swing.ASSETS.get(MS_PACMAN));
 	}
 
 	@Override
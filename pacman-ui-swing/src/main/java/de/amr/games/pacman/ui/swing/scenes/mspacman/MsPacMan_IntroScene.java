@@ -35,7 +35,7 @@ public class MsPacMan_IntroScene extends GameScene {
 	private List<Ghost2D> ghosts2D;
 
 	public MsPacMan_IntroScene(PacManGameController controller, Dimension size) {
-		super(controller, size, PacManGameUI_Swing.RENDERING_MS_PACMAN, PacManGameUI_Swing.SOUND.get(MS_PACMAN));
+		super(controller, size, PacManGameUI_Swing.ASSETS.get(MS_PACMAN));
 	}
 
 	@Override
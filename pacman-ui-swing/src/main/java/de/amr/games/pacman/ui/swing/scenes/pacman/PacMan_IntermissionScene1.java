@@ -42,7 +42,7 @@ public class PacMan_IntermissionScene1 extends GameScene {
 	private Ghost2D blinky2D;
 
 	public PacMan_IntermissionScene1(PacManGameController controller, Dimension size) {
-		super(controller, size, PacManGameUI_Swing.RENDERING_PACMAN, PacManGameUI_Swing.SOUND.get(PACMAN));
+		super(controller, size, PacManGameUI_Swing.ASSETS.get(PACMAN));
 	}
 
 	@Override
@@ -2,6 +2,7 @@ package de.amr.games.pacman.ui.swing.scenes.pacman;
 
 import static de.amr.games.pacman.model.common.GameVariant.PACMAN;
 import static de.amr.games.pacman.model.world.PacManGameWorld.t;
+import static de.amr.games.pacman.ui.swing.assets.Spritesheet.ATLAS;
 
 import java.awt.Dimension;
 import java.awt.Graphics2D;
@@ -46,7 +47,7 @@ public class PacMan_IntermissionScene2 extends GameScene {
 	private TimedSequence<BufferedImage> blinkyDamagedAnimation;
 
 	public PacMan_IntermissionScene2(PacManGameController controller, Dimension size) {
-		super(controller, size, PacManGameUI_Swing.RENDERING_PACMAN, PacManGameUI_Swing.SOUND.get(PACMAN));
+		super(controller, size, PacManGameUI_Swing.ASSETS.get(PACMAN));
 	}
 
 	@Override
@@ -87,13 +88,13 @@ public class PacMan_IntermissionScene2 extends GameScene {
 
 	private void drawBlinkyStretched(Graphics2D g, V2d nailPosition, int stretching) {
 		BufferedImage stretchedDress = blinkyStretchedAnimation.frame(stretching);
-		g.drawImage(stretchedDress, (int) (nailPosition.x - 4), (int) (nailPosition.y - 4), null);
+		ATLAS.drawSprite(g, stretchedDress, (int) (nailPosition.x - 4), (int) (nailPosition.y - 4));
 		if (stretching < 3) {
 			blinky2D.render(g);
 		} else {
 			BufferedImage blinkyDamaged = blinkyDamagedAnimation.frame(blinky2D.ghost.dir == Direction.UP ? 0 : 1);
-			g.drawImage(blinkyDamaged, (int) (blinky2D.ghost.position.x - 4), (int) (blinky2D.ghost.position.y - 4),
-					null);
+			ATLAS.drawSprite(g, blinkyDamaged, (int) (blinky2D.ghost.position.x - 4),
+					(int) (blinky2D.ghost.position.y - 4));
 		}
 	}
 }
\ No newline at end of file
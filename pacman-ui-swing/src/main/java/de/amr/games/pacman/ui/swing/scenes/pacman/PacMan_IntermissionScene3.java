@@ -39,7 +39,7 @@ public class PacMan_IntermissionScene3 extends GameScene {
 	private Player2D pacMan2D;
 
 	public PacMan_IntermissionScene3(PacManGameController controller, Dimension size) {
-		super(controller, size, PacManGameUI_Swing.RENDERING_PACMAN, PacManGameUI_Swing.SOUND.get(PACMAN));
+		super(controller, size, PacManGameUI_Swing.ASSETS.get(PACMAN));
 	}
 
 	@Override
@@ -41,7 +41,7 @@ public class PacMan_IntroScene extends GameScene {
 	private List<Ghost2D> ghostsInGallery2D;
 
 	public PacMan_IntroScene(PacManGameController controller, Dimension size) {
-		super(controller, size, PacManGameUI_Swing.RENDERING_PACMAN, PacManGameUI_Swing.SOUND.get(PACMAN));
+		super(controller, size, PacManGameUI_Swing.ASSETS.get(PACMAN));
 	}
 
 	@Override